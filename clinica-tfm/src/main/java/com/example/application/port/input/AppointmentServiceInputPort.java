@@ -1,11 +1,14 @@
 package com.example.application.port.input;
 
+import java.util.List;
 import java.util.Optional;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
+import com.example.application.util.BatchItemResult;
 import com.example.application.util.ClinicLogicException;
+import com.example.application.util.CountMode;
 import com.example.domain.model.Appointment;
 
 import jakarta.validation.Valid;
@@ -14,16 +17,18 @@ public interface AppointmentServiceInputPort {
 
 	Optional<Appointment> getAppointment(@Valid String id);
 
-	Page<Appointment> getAllAppointments(@Valid Pageable pageable) throws ClinicLogicException;
+	Slice<Appointment> getAllAppointments(@Valid Pageable pageable, CountMode countMode) throws ClinicLogicException;
 
-	Page<Appointment> getAppointmentsByDoctorDocument(@Valid String document, @Valid Pageable pageable)
-			throws ClinicLogicException;
+	Slice<Appointment> getAppointmentsByDoctorDocument(@Valid String document, @Valid Pageable pageable,
+			CountMode countMode) throws ClinicLogicException;
 
-	Page<Appointment> getAppointmentsByPatientDocument(@Valid String document, @Valid Pageable pageable)
-			throws ClinicLogicException;
+	Slice<Appointment> getAppointmentsByPatientDocument(@Valid String document, @Valid Pageable pageable,
+			CountMode countMode) throws ClinicLogicException;
 
 	String createAppointment(@Valid Appointment appointment) throws ClinicLogicException;
 
+	List<BatchItemResult> createAppointments(List<Appointment> appointments) throws ClinicLogicException;
+
 	void partialModificationAppointment(@Valid Appointment appointment) throws ClinicLogicException;
 
 	void totalModificationAppointment(@Valid Appointment appointment) throws ClinicLogicException;
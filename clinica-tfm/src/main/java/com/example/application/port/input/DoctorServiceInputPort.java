@@ -1,10 +1,14 @@
 package com.example.application.port.input;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import com.example.application.util.BatchItemResult;
 import com.example.application.util.ClinicLogicException;
 import com.example.domain.model.Doctor;
 
@@ -14,15 +18,21 @@ public interface DoctorServiceInputPort {
 
 	Optional<Doctor> getDoctor(@Valid String id);
 
+	Map<String, Doctor> getDoctors(Collection<String> ids);
+
 	Optional<Doctor> getDoctorByDocument(@Valid String document);
 
 	Page<Doctor> getAllDoctors(@Valid Pageable pageable);
 
-	String createDoctor(@Valid Doctor inputDoc);
+	Page<String> getDoctorAppointments(@Valid String idDoc, @Valid Pageable pageable) throws ClinicLogicException;
+
+	String createDoctor(@Valid Doctor inputDoc) throws ClinicLogicException;
+
+	List<BatchItemResult> createDoctors(List<Doctor> inputDocs) throws ClinicLogicException;
 
 	void partialModificationDoctor(@Valid Doctor inputDoc) throws ClinicLogicException;
 
 	void totalModificationDoctor(@Valid Doctor inputDoc) throws ClinicLogicException;
 
-	void deleteDoctor(@Valid String idDoc);
+	void deleteDoctor(@Valid String idDoc) throws ClinicLogicException;
 }
\ No newline at end of file
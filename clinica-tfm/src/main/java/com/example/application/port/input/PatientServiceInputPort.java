@@ -1,10 +1,14 @@
 package com.example.application.port.input;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import com.example.application.util.BatchItemResult;
 import com.example.application.util.ClinicLogicException;
 import com.example.domain.model.Patient;
 
@@ -14,15 +18,21 @@ public interface PatientServiceInputPort {
 
 	Optional<Patient> getPatient(@Valid String id);
 
+	Map<String, Patient> getPatients(Collection<String> ids);
+
 	Optional<Patient> getPatientByDocument(@Valid String document);
 
 	Page<Patient> getAllPatients(@Valid Pageable pageable);
 
-	String createPatient(@Valid Patient inputPatient);
+	Page<String> getPatientAppointments(@Valid String idPatient, @Valid Pageable pageable) throws ClinicLogicException;
+
+	String createPatient(@Valid Patient inputPatient) throws ClinicLogicException;
+
+	List<BatchItemResult> createPatients(List<Patient> inputPatients) throws ClinicLogicException;
 
 	void partialModificationPatient(@Valid Patient inputPatient) throws ClinicLogicException;
 
 	void totalModificationPatient(@Valid Patient inputPatient) throws ClinicLogicException;
 
-	void deletePatient(@Valid String idPatient);
+	void deletePatient(@Valid String idPatient) throws ClinicLogicException;
 }
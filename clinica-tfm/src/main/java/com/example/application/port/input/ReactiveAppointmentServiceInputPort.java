@@ -0,0 +1,12 @@
+package com.example.application.port.input;
+
+import com.example.domain.model.Appointment;
+
+import jakarta.validation.Valid;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveAppointmentServiceInputPort {
+
+	Mono<Appointment> getAppointment(@Valid String id);
+}
@@ -0,0 +1,16 @@
+package com.example.application.port.input;
+
+import com.example.domain.model.Doctor;
+
+import jakarta.validation.Valid;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveDoctorServiceInputPort {
+
+	Mono<Doctor> getDoctor(@Valid String id);
+
+	Mono<Doctor> getDoctorByDocument(@Valid String document);
+
+	Flux<String> getDoctorAppointments(@Valid String idDoc);
+}
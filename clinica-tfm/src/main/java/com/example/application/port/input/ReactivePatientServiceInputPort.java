@@ -0,0 +1,16 @@
+package com.example.application.port.input;
+
+import com.example.domain.model.Patient;
+
+import jakarta.validation.Valid;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface ReactivePatientServiceInputPort {
+
+	Mono<Patient> getPatient(@Valid String id);
+
+	Mono<Patient> getPatientByDocument(@Valid String document);
+
+	Flux<String> getPatientAppointments(@Valid String idDoc);
+}
@@ -1,10 +1,16 @@
 package com.example.application.port.output;
 
+import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
+import com.example.application.util.BatchItemResult;
+import com.example.application.util.ClinicConflictException;
+import com.example.application.util.ClinicLogicException;
+import com.example.application.util.CountMode;
 import com.example.domain.model.Appointment;
 
 import jakarta.validation.Valid;
@@ -13,15 +19,25 @@ public interface AppointmentRepositoryOutputPort {
 
 	Optional<Appointment> getAppointment(@Valid String id);
 
-	Page<Appointment> getAppointmentsByDoctorDocument(@Valid String document, Pageable pageable);
+	Slice<Appointment> getAppointmentsByDoctorDocument(@Valid String document, Pageable pageable,
+			CountMode countMode);
 
-	Page<Appointment> getAppointmentsByPatientDocument(@Valid String document, Pageable pageable);
+	Slice<Appointment> getAppointmentsByPatientDocument(@Valid String document, Pageable pageable,
+			CountMode countMode);
 
-	Page<Appointment> getAllAppointments(@Valid Pageable pageable);
+	Slice<Appointment> getAllAppointments(@Valid Pageable pageable, CountMode countMode);
 
-	String postAppointment(@Valid Appointment appointment);
+	Page<String> getAppointmentIdsByDoctor(@Valid String idDoc, Pageable pageable);
 
-	void modifyAppointment(@Valid Appointment appointment);
+	Page<String> getAppointmentIdsByPatient(@Valid String idPatient, Pageable pageable);
+
+	String postAppointment(@Valid Appointment appointment) throws ClinicLogicException;
+
+	List<BatchItemResult> postAppointments(List<Appointment> appointments);
+
+	void modifyAppointment(@Valid Appointment appointment) throws ClinicConflictException;
+
+	boolean patchAppointment(Appointment patch);
 
 	void deleteAppointment(@Valid String idAppointment);
 }
\ No newline at end of file
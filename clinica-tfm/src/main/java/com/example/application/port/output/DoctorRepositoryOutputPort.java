@@ -1,10 +1,15 @@
 package com.example.application.port.output;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import com.example.application.util.BatchItemResult;
+import com.example.application.util.ClinicConflictException;
 import com.example.domain.model.Doctor;
 
 import jakarta.validation.Valid;
@@ -14,13 +19,21 @@ public interface DoctorRepositoryOutputPort {
 
 	Optional<Doctor> getDoctor(@Valid String id);
 
+	Map<String, Doctor> getDoctors(Collection<String> ids);
+
 	Optional<Doctor> getDoctorByDocument(@Valid String document);
 
 	Page<Doctor> getAllDoctors(@Valid Pageable pageable);
 
-	String postDoctor(@Valid Doctor inputDoc);
+	String postDoctor(@Valid Doctor inputDoc) throws ClinicConflictException;
+
+	List<BatchItemResult> postDoctors(List<Doctor> inputDocs);
+
+	void modifyDoctor(@Valid Doctor inputDoc) throws ClinicConflictException;
+
+	boolean patchDoctor(Doctor patch) throws ClinicConflictException;
 
-	void modifyDoctor(@Valid Doctor inputDoc);
+	void removeDoctorAppointment(@Valid String idDoc, @Valid String idAppointment);
 
-	void deleteDoctor(@Valid String idDoc);
+	void deleteDoctor(@Valid String idDoc) throws ClinicConflictException;
 }
\ No newline at end of file
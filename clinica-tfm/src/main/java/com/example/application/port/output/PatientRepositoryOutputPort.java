@@ -1,10 +1,15 @@
 package com.example.application.port.output;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import com.example.application.util.BatchItemResult;
+import com.example.application.util.ClinicConflictException;
 import com.example.domain.model.Patient;
 
 import jakarta.validation.Valid;
@@ -13,13 +18,21 @@ public interface PatientRepositoryOutputPort {
 
 	Optional<Patient> getPatient(@Valid String id);
 
+	Map<String, Patient> getPatients(Collection<String> ids);
+
 	Optional<Patient> getPatientByDocument(@Valid String document);
 
 	Page<Patient> getAllPatients(@Valid Pageable pageable);
 
-	String postPatient(@Valid Patient inputPatient);
+	String postPatient(@Valid Patient inputPatient) throws ClinicConflictException;
+
+	List<BatchItemResult> postPatients(List<Patient> inputPatients);
+
+	void modifyPatient(@Valid Patient inputDoc) throws ClinicConflictException;
+
+	boolean patchPatient(Patient patch) throws ClinicConflictException;
 
-	void modifyPatient(@Valid Patient inputDoc);
+	void removePatientAppointment(@Valid String idPatient, @Valid String idAppointment);
 
-	void deletePatient(@Valid String idPatient);
+	void deletePatient(@Valid String idPatient) throws ClinicConflictException;
 }
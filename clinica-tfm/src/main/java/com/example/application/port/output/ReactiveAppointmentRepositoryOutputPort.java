@@ -0,0 +1,16 @@
+package com.example.application.port.output;
+
+import com.example.domain.model.Appointment;
+
+import jakarta.validation.Valid;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveAppointmentRepositoryOutputPort {
+
+	Mono<Appointment> getAppointment(@Valid String id);
+
+	Flux<String> getAppointmentIdsByDoctor(@Valid String idDoc);
+
+	Flux<String> getAppointmentIdsByPatient(@Valid String idPatient);
+}
@@ -0,0 +1,13 @@
+package com.example.application.port.output;
+
+import com.example.domain.model.Doctor;
+
+import jakarta.validation.Valid;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveDoctorRepositoryOutputPort {
+
+	Mono<Doctor> getDoctor(@Valid String id);
+
+	Mono<Doctor> getDoctorByDocument(@Valid String document);
+}
@@ -0,0 +1,13 @@
+package com.example.application.port.output;
+
+import com.example.domain.model.Patient;
+
+import jakarta.validation.Valid;
+import reactor.core.publisher.Mono;
+
+public interface ReactivePatientRepositoryOutputPort {
+
+	Mono<Patient> getPatient(@Valid String id);
+
+	Mono<Patient> getPatientByDocument(@Valid String document);
+}
@@ -1,10 +1,15 @@
 package com.example.application.service;
 
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -13,9 +18,10 @@ import com.example.application.port.output.AppointmentRepositoryOutputPort;
 import com.example.application.port.output.ClinicProducerOutputPort;
 import com.example.application.port.output.DoctorRepositoryOutputPort;
 import com.example.application.port.output.PatientRepositoryOutputPort;
+import com.example.application.util.BatchItemResult;
 import com.example.application.util.ClinicLogicException;
+import com.example.application.util.CountMode;
 import com.example.application.util.Errors;
-import com.example.domain.mapper.ClinicPatchMapper;
 import com.example.domain.model.Appointment;
 import com.example.domain.model.Doctor;
 import com.example.domain.model.Patient;
@@ -50,73 +56,77 @@ public class AppointmentService implements AppointmentServiceInputPort {
 	@Autowired
 	ClinicProducerOutputPort clinicProducerOutputPort;
 
-	@Autowired
-	ClinicPatchMapper clinicPatchMapper;
+	@Value("${custom.batch.max-size:1000}")
+	int maxBatchSize;
 
 	/**
 	 * Retrieves all appointments in a paginated format.
 	 * 
-	 * @param pageable Pagination information.
-	 * @return A page of appointments.
+	 * @param pageable  Pagination information.
+	 * @param countMode How the total of appointments is obtained.
+	 * @return A page of appointments, or a slice without total.
 	 * @throws ClinicLogicException If the pagination exceeds the maximum allowed
 	 *                              size.
 	 */
 	@Override
 	@Transactional
-	public Page<Appointment> getAllAppointments(@Valid Pageable pageable) throws ClinicLogicException {
+	public Slice<Appointment> getAllAppointments(@Valid Pageable pageable, CountMode countMode)
+			throws ClinicLogicException {
 		log.debug("Getting all appointments");
 
 		if (pageable.getPageSize() >= 100) {
 			throw new ClinicLogicException(Errors.MAXIMUM_PAGINATION);
 		}
 
-		return appointmentRepositoryOutputPort.getAllAppointments(pageable);
+		return appointmentRepositoryOutputPort.getAllAppointments(pageable, countMode);
 	}
 
 	/**
 	 * Retrieves all appointments for a doctor by the doctor's document in a
 	 * paginated format.
 	 * 
-	 * @param document The document of the doctor.
-	 * @param pageable Pagination information.
-	 * @return A page of appointments.
+	 * @param document  The document of the doctor.
+	 * @param pageable  Pagination information.
+	 * @param countMode How the total of appointments is obtained.
+	 * @return A page of appointments, or a slice without total.
 	 * @throws ClinicLogicException If the doctor is not found.
 	 */
 	@Override
 	@Transactional
-	public Page<Appointment> getAppointmentsByDoctorDocument(@Valid String document, @Valid Pageable pageable)
-			throws ClinicLogicException {
+	public Slice<Appointment> getAppointmentsByDoctorDocument(@Valid String document, @Valid Pageable pageable,
+			CountMode countMode) throws ClinicLogicException {
 		log.debug("Getting appointments by doctor's document.");
 
 		Optional<Doctor> opt = doctorRepositoryOutputPort.getDoctorByDocument(document);
 		if (!opt.isPresent()) {
 			throw new ClinicLogicException(Errors.DOCTOR_NOT_FOUND);
 		}
-		return appointmentRepositoryOutputPort
-				.getAppointmentsByDoctorDocument(opt.get().getPersonalInformation().getDocument(), pageable);
+		return appointmentRepositoryOutputPort.getAppointmentsByDoctorDocument(
+				opt.get().getPersonalInformation().getDocument(), pageable, countMode);
 	}
 
 	/**
 	 * Retrieves all appointments for a patient by the patient's document in a
 	 * paginated format.
 	 * 
-	 * @param document The document of the patient.
-	 * @param pageable Pagination information.
-	 * @return A page of appointments.
+	 * @param document  The document of the patient.
+	 * @param pageable  Pagination information.
+	 * @param countMode How the total of appointments is obtained.
+	 * @return A page of appointments, or a slice without total.
 	 * @throws ClinicLogicException If the patient is not found.
 	 */
 	@Override
 	@Transactional
-	public Page<Appointment> getAppointmentsByPatientDocument(@Valid String document, @Valid Pageable pageable)
-			throws ClinicLogicException {
+	public Slice<Appointment> getAppointmentsByPatientDocument(@Valid String document, @Valid Pageable pageable,
+			CountMode countMode) throws ClinicLogicException {
 		log.debug("Getting appointments by patient's document");
 
 		Optional<Patient> opt = patientRepositoryOutputPort.getPatientByDocument(document);
 		if (!opt.isPresent()) {
 			throw new ClinicLogicException(Errors.PATIENT_NOT_FOUND);
 		}
-		return appointmentRepositoryOutputPort
-				.getAppointmentsByPatientDocument(opt.get().getPersonalInformation().getDocument(), pageable);
+		return appointmentRepositoryOutputPort.getAppointmentsByPatientDocument(
+				opt.get().getPersonalInformation().getDocument(), pageable, countMode);
 	}
 
 	/**
@@ -135,9 +145,12 @@ public class AppointmentService implements AppointmentServiceInputPort {
 	}
 
 	/**
-	 * Creates a new appointment.
+	 * Books a new appointment. The patient and the doctor are read once each,
+	 * from the cache when there, and the appointment is stored together with its
+	 * link to both, without writing either of them.
 	 * 
-	 * @param appointment The appointment to be created.
+	 * @param appointment The appointment to be created, its doctor and patient
+	 *                    holding only their ID.
 	 * @return The ID of the new appointment.
 	 * @throws ClinicLogicException If the associated patient or doctor is not
 	 *                              found.
@@ -147,45 +160,73 @@ public class AppointmentService implements AppointmentServiceInputPort {
 	public String createAppointment(@Valid Appointment appointment) throws ClinicLogicException {
 		log.debug("Creating an appointment");
 
-		String savedAppointment = null;
+		resolveParties(appointment);
+
+		String savedAppointment = appointmentRepositoryOutputPort.postAppointment(appointment);
+		// clinicProducerOutputPort.createdClinicEvent(savedAppointment); //Kafka not
+		// working.
+		return savedAppointment;
+	}
 
-		Optional<Patient> patOpt = patientRepositoryOutputPort.getPatient(appointment.getPatient().getId());
+	/**
+	 * Creates a batch of appointments. Their doctors and patients are looked up
+	 * together, the appointments whose doctor or patient is not found are
+	 * rejected, and the others are stored at once, each succeeding or failing on
+	 * its own.
+	 * 
+	 * @param appointments The appointments to be created, their doctor and
+	 *                     patient holding only their ID.
+	 * @return The result of every appointment, in the order given.
+	 * @throws ClinicLogicException If the batch exceeds the maximum allowed size.
+	 */
+	@Override
+	@Transactional
+	public List<BatchItemResult> createAppointments(List<Appointment> appointments) throws ClinicLogicException {
+		log.debug("Creating a batch of appointments");
 
-		if (patOpt.isPresent()) {
-			Patient patient = patOpt.get();
+		if (appointments.size() > maxBatchSize) {
+			throw new ClinicLogicException(Errors.MAXIMUM_BATCH);
+		}
 
-			Optional<Doctor> doctorOpt = doctorRepositoryOutputPort.getDoctor(appointment.getDoctor().getId());
-			if (doctorOpt.isPresent()) {
-				Doctor doctor = doctorOpt.get();
+		Set<String> patientIds = new HashSet<>();
+		Set<String> doctorIds = new HashSet<>();
+		for (Appointment appointment : appointments) {
+			patientIds.add(idOf(appointment.getPatient()));
+			doctorIds.add(idOf(appointment.getDoctor()));
+		}
 
-				// Establishing data for objects in the appointment.
-				clinicPatchMapper.updatePatient(appointment.getPatient(), patient);
-				clinicPatchMapper.updateDoctor(appointment.getDoctor(), doctor);
+		Map<String, Patient> patients = patientRepositoryOutputPort.getPatients(patientIds);
+		Map<String, Doctor> doctors = doctorRepositoryOutputPort.getDoctors(doctorIds);
 
-				// Saving appointment.
-				savedAppointment = appointmentRepositoryOutputPort.postAppointment(appointment);
+		return BatchItemResult.checkAndStore(appointments, appointment -> {
+			Patient patient = patients.get(idOf(appointment.getPatient()));
+			if (patient == null) {
+				return Errors.PATIENT_NOT_FOUND;
+			}
 
-				// Adding the appointment to both parties.
-				doctor.getIdDoctorAppointments().add(savedAppointment);
-				doctorRepositoryOutputPort.modifyDoctor(doctor);
-				patient.getIdPatientAppointments().add(savedAppointment);
-				patientRepositoryOutputPort.modifyPatient(patient);
-				// clinicProducerOutputPort.createdClinicEvent(savedAppointment); //Kafka not
-				// working.
-			} else {
-				throw new ClinicLogicException(Errors.DOCTOR_NOT_FOUND);
+			Doctor doctor = doctors.get(idOf(appointment.getDoctor()));
+			if (doctor == null) {
+				return Errors.DOCTOR_NOT_FOUND;
 			}
-		} else {
-			throw new ClinicLogicException(Errors.PATIENT_NOT_FOUND);
-		}
-		return savedAppointment;
+
+			// Only read when storing the appointments, so the instances shared by the
+			// cache can be set as they are.
+			appointment.setPatient(patient);
+			appointment.setDoctor(doctor);
+			return null;
+		}, appointmentRepositoryOutputPort::postAppointments);
 	}
 
 	/**
-	 * Totally modifies an appointment.
+	 * Totally modifies an appointment. The patient and the doctor are read as
+	 * when booking it, and its link is moved to them.
 	 * 
-	 * @param inputAppointment The appointment with updated information.
-	 * @throws ClinicLogicException If the appointment is not found.
+	 * @param inputAppointment The appointment with updated information, its doctor
+	 *                         and patient holding only their ID, and optionally
+	 *                         the version it replaces.
+	 * @throws ClinicLogicException If the appointment, its patient or its doctor
+	 *                              is not found, or it was modified since that
+	 *                              version.
 	 */
 	@Override
 	@Transactional
@@ -197,30 +238,45 @@ public class AppointmentService implements AppointmentServiceInputPort {
 		if (!opt.isPresent()) {
 			throw new ClinicLogicException(Errors.APPOINTMENT_NOT_FOUND);
 		}
+		resolveParties(inputAppointment);
 
+		if (inputAppointment.getVersion() == null) {
+			// Replaces the appointment only as it was just read.
+			inputAppointment.setVersion(opt.get().getVersion());
+		}
 		appointmentRepositoryOutputPort.modifyAppointment(inputAppointment);
 		clinicProducerOutputPort.modifiedClinicEvent(inputAppointment); // Kafka not working.
 	}
 
 	/**
-	 * Partially modifies an appointment.
+	 * Partially modifies an appointment. A patient or doctor given is read as when
+	 * booking it, so that the appointment holds its whole summary and is linked to
+	 * it.
 	 * 
-	 * @param inputAppointment The appointment with partially updated information.
-	 * @throws ClinicLogicException If the appointment is not found.
+	 * @param inputAppointment The appointment with partially updated information,
+	 *                         its doctor and patient, if given, holding only their
+	 *                         ID.
+	 * @throws ClinicLogicException If the appointment, or the patient or doctor
+	 *                              given, is not found.
 	 */
 	@Override
 	@Transactional
 	public void partialModificationAppointment(@Valid Appointment inputAppointment) throws ClinicLogicException {
 		log.debug("Partially modifying an appointment");
 
-		Optional<Appointment> opt = appointmentRepositoryOutputPort.getAppointment(inputAppointment.getAppointmentId());
-		if (!opt.isPresent()) {
-			throw new ClinicLogicException(Errors.APPOINTMENT_NOT_FOUND);
+		if (inputAppointment.getPatient() != null) {
+			inputAppointment.setPatient(resolve(inputAppointment.getPatient()));
+		}
+		if (inputAppointment.getDoctor() != null) {
+			inputAppointment.setDoctor(resolve(inputAppointment.getDoctor()));
 		}
 
-		clinicPatchMapper.updateAppointment(opt.get(), inputAppointment);
-		appointmentRepositoryOutputPort.modifyAppointment(opt.get());
-		// clinicProducerOutputPort.modifiedClinicEvent(opt.get()); //Kafka not working.
+		// Only the fields present are written, without reading the appointment first.
+		if (!appointmentRepositoryOutputPort.patchAppointment(inputAppointment)) {
+			throw new ClinicLogicException(Errors.APPOINTMENT_NOT_FOUND);
+		}
+		// clinicProducerOutputPort.modifiedClinicEvent(inputAppointment); //Kafka not
+		// working.
 	}
 
 	/**
@@ -241,4 +297,51 @@ public class AppointmentService implements AppointmentServiceInputPort {
 		appointmentRepositoryOutputPort.deleteAppointment(idAppointment);
 		// clinicProducerOutputPort.deletedClinicEvent(opt.get()); //Kafka not working.
 	}
-}
\ No newline at end of file
+
+	/**
+	 * Reads the patient and the doctor of an appointment, from the cache when
+	 * there, and sets them on it.
+	 * 
+	 * @param appointment The appointment, its doctor and patient holding only
+	 *                    their ID.
+	 * @throws ClinicLogicException If the patient or the doctor is not found.
+	 */
+	private void resolveParties(Appointment appointment) throws ClinicLogicException {
+		appointment.setPatient(resolve(appointment.getPatient()));
+		appointment.setDoctor(resolve(appointment.getDoctor()));
+	}
+
+	/**
+	 * Reads a patient, from the cache when there. Only read when storing the
+	 * appointment, so the instance shared by the cache can be set as it is.
+	 * 
+	 * @param patient The patient, holding only its ID.
+	 * @return The patient read.
+	 * @throws ClinicLogicException If the patient is not found.
+	 */
+	private Patient resolve(Patient patient) throws ClinicLogicException {
+		return Optional.ofNullable(idOf(patient)).flatMap(patientRepositoryOutputPort::getPatient)
+				.orElseThrow(() -> new ClinicLogicException(Errors.PATIENT_NOT_FOUND));
+	}
+
+	/**
+	 * Reads a doctor, from the cache when there. Only read when storing the
+	 * appointment, so the instance shared by the cache can be set as it is.
+	 * 
+	 * @param doctor The doctor, holding only its ID.
+	 * @return The doctor read.
+	 * @throws ClinicLogicException If the doctor is not found.
+	 */
+	private Doctor resolve(Doctor doctor) throws ClinicLogicException {
+		return Optional.ofNullable(idOf(doctor)).flatMap(doctorRepositoryOutputPort::getDoctor)
+				.orElseThrow(() -> new ClinicLogicException(Errors.DOCTOR_NOT_FOUND));
+	}
+
+	private String idOf(Patient patient) {
+		return patient == null ? null : patient.getId();
+	}
+
+	private String idOf(Doctor doctor) {
+		return doctor == null ? null : doctor.getId();
+	}
+}
@@ -1,19 +1,24 @@
 package com.example.application.service;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.example.application.port.input.DoctorServiceInputPort;
+import com.example.application.port.output.AppointmentRepositoryOutputPort;
 import com.example.application.port.output.ClinicProducerOutputPort;
 import com.example.application.port.output.DoctorRepositoryOutputPort;
+import com.example.application.util.BatchItemResult;
 import com.example.application.util.ClinicLogicException;
 import com.example.application.util.Errors;
-import com.example.domain.mapper.ClinicPatchMapper;
 import com.example.domain.model.Doctor;
 
 import jakarta.validation.Valid;
@@ -35,10 +40,13 @@ public class DoctorService implements DoctorServiceInputPort {
 	DoctorRepositoryOutputPort doctorRepositoryOutputPort;
 
 	@Autowired
-	ClinicProducerOutputPort clinicProducerOutputPort;
+	AppointmentRepositoryOutputPort appointmentRepositoryOutputPort;
 
 	@Autowired
-	ClinicPatchMapper clinicPatchMapper;
+	ClinicProducerOutputPort clinicProducerOutputPort;
+
+	@Value("${custom.batch.max-size:1000}")
+	int maxBatchSize;
 
 	/**
 	 * Retrieves a doctor by their ID.
@@ -54,6 +62,20 @@ public class DoctorService implements DoctorServiceInputPort {
 		return doctorRepositoryOutputPort.getDoctor(id);
 	}
 
+	/**
+	 * Retrieves the doctors with the given IDs at once.
+	 * 
+	 * @param ids The IDs of the doctors.
+	 * @return The doctors found, by ID.
+	 */
+	@Override
+	@Transactional
+	public Map<String, Doctor> getDoctors(Collection<String> ids) {
+		log.debug("Getting several doctors");
+
+		return doctorRepositoryOutputPort.getDoctors(ids);
+	}
+
 	/**
 	 * Retrieves a doctor by their document.
 	 * 
@@ -82,15 +104,36 @@ public class DoctorService implements DoctorServiceInputPort {
 		return doctorRepositoryOutputPort.getAllDoctors(pageable);
 	}
 
+	/**
+	 * Retrieves the IDs of the appointments of a doctor in a paginated format.
+	 * 
+	 * @param idDoc    The ID of the doctor.
+	 * @param pageable Pagination information.
+	 * @return A page of appointment IDs.
+	 * @throws ClinicLogicException If the doctor is not found.
+	 */
+	@Override
+	@Transactional
+	public Page<String> getDoctorAppointments(@Valid String idDoc, @Valid Pageable pageable)
+			throws ClinicLogicException {
+		log.debug("Getting the appointments of a doctor");
+
+		if (!doctorRepositoryOutputPort.getDoctor(idDoc).isPresent()) {
+			throw new ClinicLogicException(Errors.DOCTOR_NOT_FOUND);
+		}
+		return appointmentRepositoryOutputPort.getAppointmentIdsByDoctor(idDoc, pageable);
+	}
+
 	/**
 	 * Creates a new doctor.
 	 * 
 	 * @param inputDoc The doctor to be created.
 	 * @return The ID of the newly created doctor.
+	 * @throws ClinicLogicException If another active doctor holds its document.
 	 */
 	@Override
 	@Transactional
-	public String createDoctor(@Valid Doctor inputDoc) {
+	public String createDoctor(@Valid Doctor inputDoc) throws ClinicLogicException {
 		log.debug("Creating a doctor");
 
 		String newId = doctorRepositoryOutputPort.postDoctor(inputDoc);
@@ -100,33 +143,54 @@ public class DoctorService implements DoctorServiceInputPort {
 		return newId;
 	}
 
+	/**
+	 * Creates a batch of doctors. The doctors without document are rejected, and
+	 * the others are stored at once, each succeeding or failing on its own.
+	 * 
+	 * @param inputDocs The doctors to be created.
+	 * @return The result of every doctor, in the order given.
+	 * @throws ClinicLogicException If the batch exceeds the maximum allowed size.
+	 */
+	@Override
+	@Transactional
+	public List<BatchItemResult> createDoctors(List<Doctor> inputDocs) throws ClinicLogicException {
+		log.debug("Creating a batch of doctors");
+
+		if (inputDocs.size() > maxBatchSize) {
+			throw new ClinicLogicException(Errors.MAXIMUM_BATCH);
+		}
+
+		return BatchItemResult.checkAndStore(inputDocs, doctor -> doctor.getPersonalInformation() == null
+				|| doctor.getPersonalInformation().getDocument() == null ? Errors.MISSING_DOCUMENT : null,
+				doctorRepositoryOutputPort::postDoctors);
+	}
+
 	/**
 	 * Partially modifies an existing doctor.
 	 * 
 	 * @param inputDoc The doctor with the updated information.
-	 * @throws ClinicLogicException If the doctor is not found.
+	 * @throws ClinicLogicException If the doctor is not found, or another active
+	 *                              doctor holds the document of the patch.
 	 */
 	@Override
 	@Transactional
 	public void partialModificationDoctor(@Valid Doctor inputDoc) throws ClinicLogicException {
 		log.debug("Partially modifying a doctor.");
 
-		Optional<Doctor> opt = doctorRepositoryOutputPort.getDoctor(inputDoc.getId());
-
-		if (!opt.isPresent()) {
+		// Only the fields present are written, without reading the doctor first.
+		if (!doctorRepositoryOutputPort.patchDoctor(inputDoc)) {
 			throw new ClinicLogicException(Errors.DOCTOR_NOT_FOUND);
 		}
-
-		clinicPatchMapper.updateDoctor(opt.get(), inputDoc);
-		doctorRepositoryOutputPort.modifyDoctor(opt.get());
-		// clinicProducerOutputPort.modifiedClinicEvent(opt.get()); //Kafka not working.
+		// clinicProducerOutputPort.modifiedClinicEvent(inputDoc); //Kafka not working.
 	}
 
 	/**
 	 * Totally modifies an existing doctor.
 	 * 
-	 * @param inputDoc The doctor with the updated information.
-	 * @throws ClinicLogicException If the doctor is not found.
+	 * @param inputDoc The doctor with the updated information, and optionally the
+	 *                 version it replaces.
+	 * @throws ClinicLogicException If the doctor is not found, or was modified
+	 *                              since that version.
 	 */
 	@Override
 	@Transactional
@@ -139,6 +203,10 @@ public class DoctorService implements DoctorServiceInputPort {
 			throw new ClinicLogicException(Errors.DOCTOR_NOT_FOUND);
 		}
 
+		if (inputDoc.getVersion() == null) {
+			// Replaces the doctor only as it was just read.
+			inputDoc.setVersion(opt.get().getVersion());
+		}
 		doctorRepositoryOutputPort.modifyDoctor(inputDoc);
 		// clinicProducerOutputPort.modifiedClinicEvent(inputDoc); //Kafka not working.
 	}
@@ -147,10 +215,12 @@ public class DoctorService implements DoctorServiceInputPort {
 	 * Deletes a doctor by their ID.
 	 * 
 	 * @param idDoc The ID of the doctor to be deleted.
+	 * @throws ClinicLogicException If the doctor kept being modified
+	 *                              concurrently.
 	 */
 	@Override
 	@Transactional
-	public void deleteDoctor(@Valid String idDoc) {
+	public void deleteDoctor(@Valid String idDoc) throws ClinicLogicException {
 		log.debug("Deleting a doctor");
 
 		Optional<Doctor> opt = doctorRepositoryOutputPort.getDoctor(idDoc);
@@ -1,18 +1,23 @@
 package com.example.application.service;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.example.application.port.input.PatientServiceInputPort;
+import com.example.application.port.output.AppointmentRepositoryOutputPort;
 import com.example.application.port.output.PatientRepositoryOutputPort;
+import com.example.application.util.BatchItemResult;
 import com.example.application.util.ClinicLogicException;
 import com.example.application.util.Errors;
-import com.example.domain.mapper.ClinicPatchMapper;
 import com.example.domain.model.Patient;
 
 import jakarta.validation.Valid;
@@ -36,12 +41,15 @@ public class PatientService implements PatientServiceInputPort {
 	@Autowired
 	PatientRepositoryOutputPort patientRepositoryOutputPort;
 
+	@Autowired
+	AppointmentRepositoryOutputPort appointmentRepositoryOutputPort;
+
+	@Value("${custom.batch.max-size:1000}")
+	int maxBatchSize;
+
 //	@Autowired
 //	ClinicProducerOutputPort clinicProducerOutputPort;
 
-	@Autowired
-	ClinicPatchMapper clinicPatchMapper;
-
 	/**
 	 * Retrieves a patient by their ID.
 	 * 
@@ -56,6 +64,20 @@ public class PatientService implements PatientServiceInputPort {
 		return patientRepositoryOutputPort.getPatient(id);
 	}
 
+	/**
+	 * Retrieves the patients with the given IDs at once.
+	 * 
+	 * @param ids The IDs of the patients.
+	 * @return The patients found, by ID.
+	 */
+	@Override
+	@Transactional
+	public Map<String, Patient> getPatients(Collection<String> ids) {
+		log.debug("Getting several patients");
+
+		return patientRepositoryOutputPort.getPatients(ids);
+	}
+
 	/**
 	 * Retrieves a patient by their document.
 	 * 
@@ -84,15 +106,36 @@ public class PatientService implements PatientServiceInputPort {
 		return patientRepositoryOutputPort.getAllPatients(pageable);
 	}
 
+	/**
+	 * Retrieves the IDs of the appointments of a patient in a paginated format.
+	 * 
+	 * @param idPatient The ID of the patient.
+	 * @param pageable  Pagination information.
+	 * @return A page of appointment IDs.
+	 * @throws ClinicLogicException If the patient is not found.
+	 */
+	@Override
+	@Transactional
+	public Page<String> getPatientAppointments(@Valid String idPatient, @Valid Pageable pageable)
+			throws ClinicLogicException {
+		log.debug("Getting the appointments of a patient");
+
+		if (!patientRepositoryOutputPort.getPatient(idPatient).isPresent()) {
+			throw new ClinicLogicException(Errors.PATIENT_NOT_FOUND);
+		}
+		return appointmentRepositoryOutputPort.getAppointmentIdsByPatient(idPatient, pageable);
+	}
+
 	/**
 	 * Creates a new patient.
 	 * 
 	 * @param inputPatient The patient to be created.
 	 * @return The ID of the newly created patient.
+	 * @throws ClinicLogicException If another active patient holds its document.
 	 */
 	@Override
 	@Transactional
-	public String createPatient(@Valid Patient inputPatient) {
+	public String createPatient(@Valid Patient inputPatient) throws ClinicLogicException {
 		log.debug("Creating a Patient");
 
 		String newId = patientRepositoryOutputPort.postPatient(inputPatient);
@@ -105,33 +148,55 @@ public class PatientService implements PatientServiceInputPort {
 		return newId;
 	}
 
+	/**
+	 * Creates a batch of patients. The patients without document are rejected,
+	 * and the others are stored at once, each succeeding or failing on its own.
+	 * 
+	 * @param inputPatients The patients to be created.
+	 * @return The result of every patient, in the order given.
+	 * @throws ClinicLogicException If the batch exceeds the maximum allowed size.
+	 */
+	@Override
+	@Transactional
+	public List<BatchItemResult> createPatients(List<Patient> inputPatients) throws ClinicLogicException {
+		log.debug("Creating a batch of patients");
+
+		if (inputPatients.size() > maxBatchSize) {
+			throw new ClinicLogicException(Errors.MAXIMUM_BATCH);
+		}
+
+		return BatchItemResult.checkAndStore(inputPatients, patient -> patient.getPersonalInformation() == null
+				|| patient.getPersonalInformation().getDocument() == null ? Errors.MISSING_DOCUMENT : null,
+				patientRepositoryOutputPort::postPatients);
+	}
+
 	/**
 	 * Partially modifies an existing patient.
 	 * 
 	 * @param inputPatient The patient with the updated information.
-	 * @throws ClinicLogicException If the patient is not found.
+	 * @throws ClinicLogicException If the patient is not found, or another active
+	 *                              patient holds the document of the patch.
 	 */
 	@Override
 	@Transactional
 	public void partialModificationPatient(Patient inputPatient) throws ClinicLogicException {
 		log.debug("Modifying partially a patient");
 
-		Optional<Patient> opt = patientRepositoryOutputPort.getPatient(inputPatient.getId());
-
-		if (!opt.isPresent()) {
+		// Only the fields present are written, without reading the patient first.
+		if (!patientRepositoryOutputPort.patchPatient(inputPatient)) {
 			throw new ClinicLogicException(Errors.PATIENT_NOT_FOUND);
 		}
-
-		clinicPatchMapper.updatePatient(opt.get(), inputPatient);
-		patientRepositoryOutputPort.modifyPatient(opt.get());
-		// clinicProducerOutputPort.modifiedClinicEvent(opt.get()); //Kafka not working.
+		// clinicProducerOutputPort.modifiedClinicEvent(inputPatient); //Kafka not
+		// working.
 	}
 
 	/**
 	 * Totally modifies an existing patient.
 	 * 
-	 * @param inputPatient The patient with the updated information.
-	 * @throws ClinicLogicException If the patient is not found.
+	 * @param inputPatient The patient with the updated information, and
+	 *                     optionally the version it replaces.
+	 * @throws ClinicLogicException If the patient is not found, or was modified
+	 *                              since that version.
 	 */
 	@Override
 	@Transactional
@@ -144,6 +209,10 @@ public class PatientService implements PatientServiceInputPort {
 			throw new ClinicLogicException(Errors.PATIENT_NOT_FOUND);
 		}
 
+		if (inputPatient.getVersion() == null) {
+			// Replaces the patient only as it was just read.
+			inputPatient.setVersion(opt.get().getVersion());
+		}
 		patientRepositoryOutputPort.modifyPatient(inputPatient);
 		// clinicProducerOutputPort.modifiedClinicEvent(inputPatient); //Kafka not
 		// working.
@@ -153,10 +222,12 @@ public class PatientService implements PatientServiceInputPort {
 	 * Deletes a patient by their ID.
 	 * 
 	 * @param idPatient The ID of the patient to be deleted.
+	 * @throws ClinicLogicException If the patient kept being modified
+	 *                              concurrently.
 	 */
 	@Override
 	@Transactional
-	public void deletePatient(@Valid String idPatient) {
+	public void deletePatient(@Valid String idPatient) throws ClinicLogicException {
 		log.debug("Deleting a patient");
 
 		Optional<Patient> opt = patientRepositoryOutputPort.getPatient(idPatient);
@@ -0,0 +1,42 @@
+package com.example.application.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+
+import com.example.application.port.input.ReactiveAppointmentServiceInputPort;
+import com.example.application.port.output.ReactiveAppointmentRepositoryOutputPort;
+import com.example.domain.model.Appointment;
+
+import jakarta.validation.Valid;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking reads of the appointments, for the reactive profile. Implements
+ * the {@link ReactiveAppointmentServiceInputPort} interface.
+ * 
+ * Nothing is read until subscribed.
+ */
+@Slf4j
+@Service
+@Profile("reactive")
+public class ReactiveAppointmentService implements ReactiveAppointmentServiceInputPort {
+
+	@Autowired
+	ReactiveAppointmentRepositoryOutputPort reactiveAppointmentRepositoryOutputPort;
+
+	/**
+	 * Retrieves an appointment by its ID.
+	 * 
+	 * @param id The ID of the appointment.
+	 * @return The appointment, or empty if not found.
+	 */
+	@Override
+	public Mono<Appointment> getAppointment(@Valid String id) {
+		log.debug("Getting an appointment reactively");
+
+		return reactiveAppointmentRepositoryOutputPort.getAppointment(id);
+	}
+}
@@ -0,0 +1,77 @@
+package com.example.application.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+
+import com.example.application.port.input.ReactiveDoctorServiceInputPort;
+import com.example.application.port.output.ReactiveAppointmentRepositoryOutputPort;
+import com.example.application.port.output.ReactiveDoctorRepositoryOutputPort;
+import com.example.application.util.ClinicLogicException;
+import com.example.application.util.Errors;
+import com.example.domain.model.Doctor;
+
+import jakarta.validation.Valid;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking reads of the doctors, for the reactive profile. Implements the
+ * {@link ReactiveDoctorServiceInputPort} interface.
+ * 
+ * Nothing is read until subscribed, and lists are emitted as the client asks
+ * for them.
+ */
+@Slf4j
+@Service
+@Profile("reactive")
+public class ReactiveDoctorService implements ReactiveDoctorServiceInputPort {
+
+	@Autowired
+	ReactiveDoctorRepositoryOutputPort reactiveDoctorRepositoryOutputPort;
+
+	@Autowired
+	ReactiveAppointmentRepositoryOutputPort reactiveAppointmentRepositoryOutputPort;
+
+	/**
+	 * Retrieves a doctor by their ID.
+	 * 
+	 * @param id The ID of the doctor.
+	 * @return The doctor, or empty if not found.
+	 */
+	@Override
+	public Mono<Doctor> getDoctor(@Valid String id) {
+		log.debug("Getting doctor reactively");
+
+		return reactiveDoctorRepositoryOutputPort.getDoctor(id);
+	}
+
+	/**
+	 * Retrieves a doctor by their document.
+	 * 
+	 * @param document The document of the doctor.
+	 * @return The doctor, or empty if not found.
+	 */
+	@Override
+	public Mono<Doctor> getDoctorByDocument(@Valid String document) {
+		log.debug("Getting doctor with document reactively");
+
+		return reactiveDoctorRepositoryOutputPort.getDoctorByDocument(document);
+	}
+
+	/**
+	 * Retrieves the IDs of the appointments of a doctor, in ID order.
+	 * 
+	 * @param idDoc The ID of the doctor.
+	 * @return The appointment IDs, or an error if the doctor does not exist.
+	 */
+	@Override
+	public Flux<String> getDoctorAppointments(@Valid String idDoc) {
+		log.debug("Streaming the appointments of a doctor");
+
+		return reactiveDoctorRepositoryOutputPort.getDoctor(idDoc)
+				.switchIfEmpty(Mono.error(() -> new ClinicLogicException(Errors.DOCTOR_NOT_FOUND)))
+				.thenMany(reactiveAppointmentRepositoryOutputPort.getAppointmentIdsByDoctor(idDoc));
+	}
+}
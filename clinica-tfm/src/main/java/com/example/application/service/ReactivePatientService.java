@@ -0,0 +1,77 @@
+package com.example.application.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+
+import com.example.application.port.input.ReactivePatientServiceInputPort;
+import com.example.application.port.output.ReactiveAppointmentRepositoryOutputPort;
+import com.example.application.port.output.ReactivePatientRepositoryOutputPort;
+import com.example.application.util.ClinicLogicException;
+import com.example.application.util.Errors;
+import com.example.domain.model.Patient;
+
+import jakarta.validation.Valid;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking reads of the patients, for the reactive profile. Implements the
+ * {@link ReactivePatientServiceInputPort} interface.
+ * 
+ * Nothing is read until subscribed, and lists are emitted as the client asks
+ * for them.
+ */
+@Slf4j
+@Service
+@Profile("reactive")
+public class ReactivePatientService implements ReactivePatientServiceInputPort {
+
+	@Autowired
+	ReactivePatientRepositoryOutputPort reactivePatientRepositoryOutputPort;
+
+	@Autowired
+	ReactiveAppointmentRepositoryOutputPort reactiveAppointmentRepositoryOutputPort;
+
+	/**
+	 * Retrieves a patient by their ID.
+	 * 
+	 * @param id The ID of the patient.
+	 * @return The patient, or empty if not found.
+	 */
+	@Override
+	public Mono<Patient> getPatient(@Valid String id) {
+		log.debug("Getting patient reactively");
+
+		return reactivePatientRepositoryOutputPort.getPatient(id);
+	}
+
+	/**
+	 * Retrieves a patient by their document.
+	 * 
+	 * @param document The document of the patient.
+	 * @return The patient, or empty if not found.
+	 */
+	@Override
+	public Mono<Patient> getPatientByDocument(@Valid String document) {
+		log.debug("Getting patient with document reactively");
+
+		return reactivePatientRepositoryOutputPort.getPatientByDocument(document);
+	}
+
+	/**
+	 * Retrieves the IDs of the appointments of a patient, in ID order.
+	 * 
+	 * @param idPatient The ID of the patient.
+	 * @return The appointment IDs, or an error if the patient does not exist.
+	 */
+	@Override
+	public Flux<String> getPatientAppointments(@Valid String idPatient) {
+		log.debug("Streaming the appointments of a patient");
+
+		return reactivePatientRepositoryOutputPort.getPatient(idPatient)
+				.switchIfEmpty(Mono.error(() -> new ClinicLogicException(Errors.PATIENT_NOT_FOUND)))
+				.thenMany(reactiveAppointmentRepositoryOutputPort.getAppointmentIdsByPatient(idPatient));
+	}
+}
@@ -0,0 +1,72 @@
+package com.example.application.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of one item of a batch creation: the ID it was stored with, or why it
+ * was not. The index is the position of the item in the batch.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchItemResult {
+	int index;
+	String id;
+	String error;
+
+	public static BatchItemResult created(int index, String id) {
+		return new BatchItemResult(index, id, null);
+	}
+
+	public static BatchItemResult failed(int index, String error) {
+		return new BatchItemResult(index, null, error);
+	}
+
+	public boolean isCreated() {
+		return error == null;
+	}
+
+	/**
+	 * Checks every item of a batch, and stores at once the ones that pass.
+	 * 
+	 * @param items The items of the batch.
+	 * @param check Checks an item, returning why it cannot be stored, or null.
+	 * @param store Stores a list of items, returning the result of each, in order.
+	 * @return The result of every item, in the order of the batch.
+	 */
+	public static <T> List<BatchItemResult> checkAndStore(List<T> items, Function<T, String> check,
+			Function<List<T>, List<BatchItemResult>> store) {
+		BatchItemResult[] results = new BatchItemResult[items.size()];
+		List<T> valid = new ArrayList<>(items.size());
+		List<Integer> validIndexes = new ArrayList<>(items.size());
+
+		for (int i = 0; i < items.size(); i++) {
+			String error = check.apply(items.get(i));
+			if (error != null) {
+				results[i] = failed(i, error);
+			} else {
+				valid.add(items.get(i));
+				validIndexes.add(i);
+			}
+		}
+
+		if (!valid.isEmpty()) {
+			List<BatchItemResult> stored = store.apply(valid);
+			for (int i = 0; i < stored.size(); i++) {
+				BatchItemResult result = stored.get(i);
+				result.setIndex(validIndexes.get(i));
+				results[result.getIndex()] = result;
+			}
+		}
+		return Arrays.asList(results);
+	}
+}
@@ -0,0 +1,11 @@
+package com.example.application.util;
+
+/**
+ * Thrown when an entity could not be written because it was modified
+ * concurrently since it was read.
+ */
+public class ClinicConflictException extends ClinicLogicException {
+	public ClinicConflictException(String message) {
+		super(message);
+	}
+}
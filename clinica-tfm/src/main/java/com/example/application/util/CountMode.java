@@ -0,0 +1,36 @@
+package com.example.application.util;
+
+import java.util.Locale;
+
+/**
+ * How the total of a paginated listing is obtained, chosen per request.
+ */
+public enum CountMode {
+
+	/** The total is counted on every request, as a second query. */
+	EXACT,
+
+	/**
+	 * The total is read from a cache per filter, refreshed in the background, so it
+	 * may be slightly behind the latest writes.
+	 */
+	CACHED,
+
+	/** No total is returned, only whether there is a next page. */
+	NONE;
+
+	/**
+	 * Parses a count mode, ignoring the case.
+	 *
+	 * @param name The name of the count mode.
+	 * @return The count mode.
+	 * @throws ClinicLogicException If there is no count mode with that name.
+	 */
+	public static CountMode of(String name) throws ClinicLogicException {
+		try {
+			return valueOf(name.trim().toUpperCase(Locale.ROOT));
+		} catch (IllegalArgumentException | NullPointerException e) {
+			throw new ClinicLogicException(Errors.INVALID_COUNT_MODE);
+		}
+	}
+}
@@ -10,4 +10,12 @@ public class Errors {
 	public static final String DOCTOR_NOT_FOUND = "Doctor not found";
 	public static final String PATIENT_NOT_FOUND = "Patient not found";
 	public static final String APPOINTMENT_NOT_FOUND = "Appointment not found";
+	public static final String INVALID_CURSOR = "Invalid cursor";
+	public static final String INVALID_COUNT_MODE = "Invalid count mode";
+	public static final String MAXIMUM_BATCH = "Maximum batch size reached";
+	public static final String MISSING_DOCUMENT = "Missing document";
+	public static final String DUPLICATED_DOCUMENT = "Duplicated document";
+	public static final String CONCURRENT_MODIFICATION = "Modified concurrently, read it again";
+	public static final String INVALID_RESUME_TOKEN = "Invalid resume token";
+	public static final String APPOINTMENT_NOT_LINKED = "Could not link the appointment to its doctor and patient";
 }
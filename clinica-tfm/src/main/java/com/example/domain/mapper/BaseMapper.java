@@ -5,6 +5,8 @@ import java.util.Optional;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 
 public interface BaseMapper<I, O> {
 
@@ -83,4 +85,36 @@ public interface BaseMapper<I, O> {
 				: new PageImpl<>(fromOutputToInput(outputPage.getContent()), outputPage.getPageable(),
 						outputPage.getTotalElements());
 	}
-}
\ No newline at end of file
+
+	/**
+	 * Method used to transform (Map) a Slice of I objects to a Slice of O objects,
+	 * keeping the total of the pages.
+	 * 
+	 * @param Slice<I> inputSlice
+	 * @return Slice<O> outputSlice
+	 */
+	default Slice<O> fromInputToOutput(Slice<I> inputSlice) {
+		if (inputSlice instanceof Page<I> inputPage) {
+			return fromInputToOutput(inputPage);
+		}
+		return inputSlice == null ? null
+				: new SliceImpl<>(fromInputToOutput(inputSlice.getContent()), inputSlice.getPageable(),
+						inputSlice.hasNext());
+	}
+
+	/**
+	 * Method used to transform (Map) a Slice of O objects to a Slice of I objects,
+	 * keeping the total of the pages.
+	 * 
+	 * @param Slice<O> outputSlice
+	 * @return Slice<I> inputSlice
+	 */
+	default Slice<I> fromOutputToInput(Slice<O> outputSlice) {
+		if (outputSlice instanceof Page<O> outputPage) {
+			return fromOutputToInput(outputPage);
+		}
+		return outputSlice == null ? null
+				: new SliceImpl<>(fromOutputToInput(outputSlice.getContent()), outputSlice.getPageable(),
+						outputSlice.hasNext());
+	}
+}
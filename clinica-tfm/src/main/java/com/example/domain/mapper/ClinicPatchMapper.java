@@ -1,17 +1,30 @@
 package com.example.domain.mapper;
 
 import org.mapstruct.Mapper;
-import org.mapstruct.MappingTarget;
 
-import com.example.domain.model.Appointment;
 import com.example.domain.model.Doctor;
 import com.example.domain.model.Patient;
+import com.example.domain.model.PersonalInformation;
 
 @Mapper(componentModel = "spring")
 public interface ClinicPatchMapper {
-	void updateDoctor(@MappingTarget Doctor output, Doctor input);
+	/**
+	 * Method used to get a modifiable copy of a doctor read from a repository
+	 * port, whose instance may be shared by the cache.
+	 * 
+	 * @param Doctor input
+	 * @return Doctor copy
+	 */
+	Doctor copyDoctor(Doctor input);
 
-	void updatePatient(@MappingTarget Patient output, Patient input);
+	/**
+	 * Method used to get a modifiable copy of a patient read from a repository
+	 * port, whose instance may be shared by the cache.
+	 * 
+	 * @param Patient input
+	 * @return Patient copy
+	 */
+	Patient copyPatient(Patient input);
 
-	void updateAppointment(@MappingTarget Appointment output, Appointment input);
+	PersonalInformation copyPersonalInformation(PersonalInformation input);
 }
\ No newline at end of file
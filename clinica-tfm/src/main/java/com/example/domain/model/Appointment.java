@@ -23,4 +23,5 @@ public class Appointment {
 	LocalDateTime date;
 	String diagnostic;
 	String treatment;
+	Long version;
 }
\ No newline at end of file
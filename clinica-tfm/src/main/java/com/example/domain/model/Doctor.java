@@ -21,4 +21,5 @@ public class Doctor {
 	PersonalInformation personalInformation;
 	List<String> specializations;
 	List<String> idDoctorAppointments;
+	Long version;
 }
\ No newline at end of file
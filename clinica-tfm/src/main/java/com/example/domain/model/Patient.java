@@ -17,7 +17,8 @@ public class Patient {
 	String id;
 	String socialSecurityNumber;
 	PersonalInformation personalInformation;
-	double height;
-	double weight;
+	Double height;
+	Double weight;
 	List<String> idPatientAppointments;
+	Long version;
 }
\ No newline at end of file
@@ -0,0 +1,34 @@
+package com.example.infrastructure.apirest.configuration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+import reactor.netty.resources.LoopResources;
+
+/**
+ * Serves the reactive profile on Netty, which would otherwise lose to Tomcat,
+ * also on the classpath, with a fixed number of event loops that serve every
+ * connection, however slow.
+ */
+@Configuration
+@Profile("reactive")
+public class ReactiveServerConfiguration {
+
+	@Value("${custom.reactive.event-loop-threads:4}")
+	private int eventLoopThreads;
+
+	@Bean(destroyMethod = "dispose")
+	public LoopResources clinicLoopResources() {
+		return LoopResources.create("clinic-http", eventLoopThreads, true);
+	}
+
+	@Bean
+	public NettyReactiveWebServerFactory nettyReactiveWebServerFactory(LoopResources clinicLoopResources) {
+		NettyReactiveWebServerFactory factory = new NettyReactiveWebServerFactory();
+		factory.addServerCustomizers(server -> server.runOn(clinicLoopResources));
+		return factory;
+	}
+}
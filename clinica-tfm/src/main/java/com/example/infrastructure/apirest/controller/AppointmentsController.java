@@ -1,11 +1,25 @@
 package com.example.infrastructure.apirest.controller;
 
 import java.net.URI;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
+import org.springframework.context.annotation.Profile;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Window;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.format.annotation.DateTimeFormat.ISO;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -16,13 +30,15 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import com.example.application.port.input.AppointmentServiceInputPort;
-import com.example.application.port.input.DoctorServiceInputPort;
-import com.example.application.port.input.PatientServiceInputPort;
+import com.example.application.util.BatchItemResult;
+import com.example.application.util.ClinicConflictException;
 import com.example.application.util.ClinicLogicException;
+import com.example.application.util.CountMode;
 import com.example.domain.model.Appointment;
 import com.example.domain.model.Doctor;
 import com.example.domain.model.Patient;
@@ -31,11 +47,18 @@ import com.example.infrastructure.apirest.dto.request.appointment_object.PostApp
 import com.example.infrastructure.apirest.dto.response.ResponseAppointmentDto;
 import com.example.infrastructure.apirest.dto.response.ResponseDoctorDto;
 import com.example.infrastructure.apirest.dto.response.ResponsePatientDto;
+import com.example.infrastructure.apirest.export.ClinicNdjsonWriter;
+import com.example.infrastructure.apirest.loader.ClinicBatchLoader;
 import com.example.infrastructure.apirest.mapper.appointment_object.AppointmentToPatchAppointmentDtoMapper;
 import com.example.infrastructure.apirest.mapper.appointment_object.AppointmentToPostAppointmentDtoMapper;
 import com.example.infrastructure.apirest.mapper.appointment_object.AppointmentToResponseAppointmentDtoMapper;
+import com.example.infrastructure.apirest.mapper.appointment_object.AppointmentViewToResponseAppointmentDtoMapper;
+import com.example.infrastructure.apirest.mapper.common.BatchItemResultToResponseBatchItemDtoMapper;
+import com.example.infrastructure.apirest.mapper.common.WindowToResponseWindowDtoMapper;
 import com.example.infrastructure.apirest.mapper.doctor_object.DoctorToResponseDoctorDtoMapper;
 import com.example.infrastructure.apirest.mapper.patient_object.PatientToResponsePatientDtoMapper;
+import com.example.infrastructure.repository.mongodb.projection.AppointmentView;
+import com.example.infrastructure.repository.mongodb.service.appointment_entity.AppointmentQueryService;
 
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
@@ -53,16 +76,11 @@ import lombok.extern.slf4j.Slf4j;
  */
 @Slf4j
 @RestController
+@Profile("!reactive")
 @RequestMapping("/appointments")
 @CrossOrigin(origins = "http://localhost:4200")
 public class AppointmentsController {
 
-	@Autowired
-	private DoctorServiceInputPort doctorService;
-
-	@Autowired
-	private PatientServiceInputPort patientService;
-
 	@Autowired
 	private AppointmentServiceInputPort appointmentServiceInputPort;
 
@@ -81,50 +99,133 @@ public class AppointmentsController {
 	@Autowired
 	private PatientToResponsePatientDtoMapper patientToResponsePatientDtoMapper;
 
+	@Autowired
+	private WindowToResponseWindowDtoMapper windowToResponseWindowDtoMapper;
+
+	@Autowired
+	private ClinicBatchLoader clinicBatchLoader;
+
+	@Autowired
+	private BatchItemResultToResponseBatchItemDtoMapper batchItemResultToResponseBatchItemDtoMapper;
+
+	@Autowired
+	private AppointmentQueryService appointmentQueryService;
+
+	@Autowired
+	private AppointmentViewToResponseAppointmentDtoMapper appointmentViewToResponseAppointmentDtoMapper;
+
+	@Autowired
+	private ClinicNdjsonWriter clinicNdjsonWriter;
+
 	/**
-	 * Retrieves all appointments in a paginated format.
+	 * Retrieves all appointments in a paginated format. With a cursor (empty for
+	 * the first window), the appointments are paginated by keyset instead of by
+	 * page number, and the response carries the cursor of the next window.
+	 * Otherwise, the count mode tells how the total is obtained: {@code exact}
+	 * (the default), {@code cached} or {@code none}.
 	 * 
-	 * @param pageable Pagination information.
+	 * @param pageable Pagination information, only size and sort with a cursor.
+	 * @param cursor   The cursor returned with the previous window, optional.
+	 * @param count    The count mode, ignored with a cursor.
+	 * @param expand   The parties whose full profile is wanted, {@code doctor}
+	 *                 and/or {@code patient}, optional.
 	 * @return A ResponseEntity containing a paginated list of appointments or an
 	 *         error message.
 	 */
 	@GetMapping
-	public ResponseEntity getAllAppointments(Pageable pageable) {
+	public ResponseEntity getAllAppointments(Pageable pageable,
+			@RequestParam(name = "cursor", required = false) String cursor,
+			@RequestParam(name = "count", defaultValue = "exact") String count,
+			@RequestParam(name = "expand", required = false) List<String> expand) {
 		log.debug("Getting all appointments");
 
-		Page<Appointment> appointments;
+		if (cursor != null) {
+			try {
+				ScrollPosition position = windowToResponseWindowDtoMapper.positionOf(cursor, pageable.getSort(),
+						"appointmentId");
+				Window<AppointmentView> window = appointmentQueryService.getAllAppointments(position,
+						pageable.getPageSize(), pageable.getSort());
+
+				List<ResponseAppointmentDto> content = appointmentViewToResponseAppointmentDtoMapper
+						.fromInputToOutput(window.getContent());
+
+				return ResponseEntity
+						.ok(windowToResponseWindowDtoMapper.fromInputToOutput(window, expand(content, expand)));
+			} catch (ClinicLogicException e) {
+				return ResponseEntity.badRequest().body(e.getMessage());
+			}
+		}
+
+		Slice<Appointment> appointments;
 		try {
-			appointments = appointmentServiceInputPort.getAllAppointments(pageable);
+			appointments = appointmentServiceInputPort.getAllAppointments(pageable, CountMode.of(count));
 		} catch (ClinicLogicException e) {
 			return ResponseEntity.badRequest().body(e.getMessage());
 		}
 
-		Page<ResponseAppointmentDto> response = appointmentToResponseAppointmentDtoMapper
-				.fromInputToOutput(appointments);
+		Slice<ResponseAppointmentDto> response = expand(
+				appointmentToResponseAppointmentDtoMapper.fromInputToOutput(appointments), expand);
 
 		return ResponseEntity.ok(response);
 	}
 
+	/**
+	 * Exports the appointments as newline-delimited JSON, in ID order, read from a
+	 * single cursor and written as they are read, with no pagination nor count.
+	 * After a disconnection, the export resumes after the ID of the last
+	 * appointment received.
+	 * 
+	 * @param after  The ID of the last appointment received, optional.
+	 * @param from   The earliest date of the appointments, optional.
+	 * @param to     The date the appointments are before, optional.
+	 * @param doctor The document of the doctor of the appointments, optional.
+	 * @return A ResponseEntity streaming the appointments, one per line, or an
+	 *         error message.
+	 */
+	@GetMapping(path = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+	public ResponseEntity exportAppointments(@RequestParam(name = "after", required = false) String after,
+			@RequestParam(name = "from", required = false) @DateTimeFormat(iso = ISO.DATE_TIME) LocalDateTime from,
+			@RequestParam(name = "to", required = false) @DateTimeFormat(iso = ISO.DATE_TIME) LocalDateTime to,
+			@RequestParam(name = "doctor", required = false) String doctor) {
+		log.debug("Exporting appointments");
+
+		Supplier<Stream<AppointmentView>> appointments;
+		try {
+			appointments = appointmentQueryService.exportAppointments(after, from, to, doctor);
+		} catch (ClinicLogicException e) {
+			return ResponseEntity.badRequest().body(e.getMessage());
+		}
+
+		return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(clinicNdjsonWriter
+				.write(appointments, appointmentViewToResponseAppointmentDtoMapper::fromInputToOutput));
+	}
+
 	/**
 	 * Retrieves appointments by doctor's document.
 	 * 
 	 * @param document The doctor's document.
 	 * @param pageable Pagination information.
+	 * @param count    The count mode: {@code exact} (the default), {@code cached}
+	 *                 or {@code none}.
+	 * @param expand   The parties whose full profile is wanted, {@code doctor}
+	 *                 and/or {@code patient}, optional.
 	 * @return A ResponseEntity containing a paginated list of appointments or an
 	 *         error message.
 	 */
 	@GetMapping("/doctors/{document}")
 	public ResponseEntity getAppointmentsByDoctorDocument(@PathVariable("document") String document,
-			Pageable pageable) {
+			Pageable pageable, @RequestParam(name = "count", defaultValue = "exact") String count,
+			@RequestParam(name = "expand", required = false) List<String> expand) {
 		log.debug("Getting appointments by doctor's document");
 
-		Page<Appointment> doctorAppointments;
+		Slice<Appointment> doctorAppointments;
 
 		try {
-			doctorAppointments = appointmentServiceInputPort.getAppointmentsByDoctorDocument(document, pageable);
+			doctorAppointments = appointmentServiceInputPort.getAppointmentsByDoctorDocument(document, pageable,
+					CountMode.of(count));
 
-			Page<ResponseAppointmentDto> response = appointmentToResponseAppointmentDtoMapper
-					.fromInputToOutput(doctorAppointments);
+			Slice<ResponseAppointmentDto> response = expand(
+					appointmentToResponseAppointmentDtoMapper.fromInputToOutput(doctorAppointments), expand);
 
 			return ResponseEntity.ok(response);
 		} catch (ClinicLogicException e) {
@@ -137,21 +238,27 @@ public class AppointmentsController {
 	 * 
 	 * @param document The patient's document.
 	 * @param pageable Pagination information.
+	 * @param count    The count mode: {@code exact} (the default), {@code cached}
+	 *                 or {@code none}.
+	 * @param expand   The parties whose full profile is wanted, {@code doctor}
+	 *                 and/or {@code patient}, optional.
 	 * @return A ResponseEntity containing a paginated list of appointments or an
 	 *         error message.
 	 */
 	@GetMapping("/patients/{document}")
 	public ResponseEntity getAppointmentsByPatientDocument(@PathVariable("document") String document,
-			Pageable pageable) {
+			Pageable pageable, @RequestParam(name = "count", defaultValue = "exact") String count,
+			@RequestParam(name = "expand", required = false) List<String> expand) {
 		log.debug("Getting appointments by patient's document");
 
-		Page<Appointment> patientAppointments;
+		Slice<Appointment> patientAppointments;
 
 		try {
-			patientAppointments = appointmentServiceInputPort.getAppointmentsByPatientDocument(document, pageable);
+			patientAppointments = appointmentServiceInputPort.getAppointmentsByPatientDocument(document, pageable,
+					CountMode.of(count));
 
-			Page<ResponseAppointmentDto> response = appointmentToResponseAppointmentDtoMapper
-					.fromInputToOutput(patientAppointments);
+			Slice<ResponseAppointmentDto> response = expand(
+					appointmentToResponseAppointmentDtoMapper.fromInputToOutput(patientAppointments), expand);
 
 			return ResponseEntity.ok(response);
 		} catch (ClinicLogicException e) {
@@ -163,23 +270,22 @@ public class AppointmentsController {
 	 * Retrieves an appointment by its ID.
 	 * 
 	 * @param idAppo The appointment ID.
+	 * @param expand The parties whose full profile is wanted, {@code doctor}
+	 *               and/or {@code patient}, optional.
 	 * @return A ResponseEntity containing the appointment or a 204 status if not
 	 *         found.
 	 */
 	@GetMapping("/{appointment-id}")
-	public ResponseEntity getAppointment(@PathVariable("appointment-id") String idAppo) {
+	public ResponseEntity getAppointment(@PathVariable("appointment-id") String idAppo,
+			@RequestParam(name = "expand", required = false) List<String> expand) {
 		log.debug("Getting an appointment");
 
 		Optional<Appointment> appointment = appointmentServiceInputPort.getAppointment(idAppo);
 
 		if (appointment.isPresent()) {
-			ResponseDoctorDto appDoc = doctorToResponseDoctorDtoMapper.fromInputToOutput(appointment.get().getDoctor());
-			ResponsePatientDto appPat = patientToResponsePatientDtoMapper
-					.fromInputToOutput(appointment.get().getPatient());
 			ResponseAppointmentDto response = appointmentToResponseAppointmentDtoMapper
 					.fromInputToOutput(appointment.get());
-			response.setDoctor(appDoc);
-			response.setPatient(appPat);
+			expand(List.of(response), expand);
 
 			return ResponseEntity.ok(response);
 		} else {
@@ -198,27 +304,48 @@ public class AppointmentsController {
 	public ResponseEntity postAppointment(@RequestBody @Valid PostAppointmentDto appointmentDto) {
 		log.debug("Creating an appointment");
 
-		Optional<Doctor> doctorToInput = doctorService.getDoctor(appointmentDto.getDoctorId());
-		Optional<Patient> patientToInput = patientService.getPatient(appointmentDto.getPatientId());
+		Appointment appointment = appointmentToPostAppointmentDtoMapper.fromOutputToInput(appointmentDto);
+		appointment.setDoctor(Doctor.builder().id(appointmentDto.getDoctorId()).build());
+		appointment.setPatient(Patient.builder().id(appointmentDto.getPatientId()).build());
 
 		try {
-			Appointment appointment = appointmentToPostAppointmentDtoMapper.fromOutputToInput(appointmentDto);
-			appointment.setDoctor(doctorToInput.get());
-			appointment.setPatient(patientToInput.get());
-
+			// Reads the doctor and the patient, and links the appointment to them.
 			String appoId = appointmentServiceInputPort.createAppointment(appointment);
 
-			doctorToInput.get().getIdDoctorAppointments().add(appoId);
-			doctorService.partialModificationDoctor(doctorToInput.get());
-
-			patientToInput.get().getIdPatientAppointments().add(appoId);
-			patientService.partialModificationPatient(patientToInput.get());
-
 			URI locationHeader = ServletUriComponentsBuilder.fromCurrentRequest().path("/{id}").buildAndExpand(appoId)
 					.toUri();
 
 			return ResponseEntity.created(locationHeader).build();
-		} catch (Exception e) {
+		} catch (ClinicLogicException e) {
+			return ResponseEntity.badRequest().body(e.getMessage());
+		}
+	}
+
+	/**
+	 * Creates a batch of appointments, each succeeding or failing on its own.
+	 * 
+	 * @param appointments The DTOs with the information of the appointments to create.
+	 * @return A ResponseEntity containing the result of every appointment, in the order
+	 *         given, or an error message.
+	 */
+	@PostMapping("/batch")
+	public ResponseEntity postAppointments(@RequestBody List<PostAppointmentDto> appointments) {
+		log.debug("Creating a batch of appointments");
+
+		try {
+			List<Appointment> batch = new ArrayList<>(appointments.size());
+			for (PostAppointmentDto appointmentDto : appointments) {
+				Appointment appointment = appointmentToPostAppointmentDtoMapper.fromOutputToInput(appointmentDto);
+				appointment.setDoctor(Doctor.builder().id(appointmentDto.getDoctorId()).build());
+				appointment.setPatient(Patient.builder().id(appointmentDto.getPatientId()).build());
+				batch.add(appointment);
+			}
+
+			// Also links the appointments created to their doctor and patient.
+			List<BatchItemResult> results = appointmentServiceInputPort.createAppointments(batch);
+
+			return ResponseEntity.ok(batchItemResultToResponseBatchItemDtoMapper.fromInputToOutput(results));
+		} catch (ClinicLogicException e) {
 			return ResponseEntity.badRequest().body(e.getMessage());
 		}
 	}
@@ -228,8 +355,8 @@ public class AppointmentsController {
 	 * 
 	 * @param idAppointment  The ID of the appointment to modify.
 	 * @param appointmentDto The DTO with the updated appointment information.
-	 * @return A ResponseEntity with a 204 status if successfully modified or an
-	 *         error message.
+	 * @return A ResponseEntity with a 204 status if successfully modified, a 409
+	 *         status if modified concurrently, or an error message.
 	 */
 	@PutMapping("/{appointment-id}")
 	public ResponseEntity putAppointment(@Valid @PathVariable("appointment-id") final String idAppointment,
@@ -237,9 +364,14 @@ public class AppointmentsController {
 		log.debug("Totally modifying an appointment");
 
 		Appointment appointment = appointmentToPostAppointmentDtoMapper.fromOutputToInput(appointmentDto);
+		appointment.setAppointmentId(idAppointment);
+		appointment.setDoctor(Doctor.builder().id(appointmentDto.getDoctorId()).build());
+		appointment.setPatient(Patient.builder().id(appointmentDto.getPatientId()).build());
 
 		try {
 			appointmentServiceInputPort.totalModificationAppointment(appointment);
+		} catch (ClinicConflictException e) {
+			return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
 		} catch (ClinicLogicException e) {
 			return ResponseEntity.badRequest().body(e.getMessage());
 		}
@@ -261,6 +393,7 @@ public class AppointmentsController {
 		log.debug("Partially modifying an appointment");
 
 		Appointment appointment = appointmentToPatchAppointmentDtoMapper.fromOutputToInput(appointmentDto);
+		appointment.setAppointmentId(id);
 
 		try {
 			appointmentServiceInputPort.partialModificationAppointment(appointment);
@@ -283,4 +416,47 @@ public class AppointmentsController {
 
 		return ResponseEntity.noContent().build();
 	}
+
+	/**
+	 * Replaces the summaries of the doctors and patients of the appointments by
+	 * their full profiles, when asked for. All the doctors, and all the patients,
+	 * are looked up together through the {@link ClinicBatchLoader} of the request.
+	 * 
+	 * @param appointments The appointments, modified in place.
+	 * @param expand       The parties to expand, {@code doctor} and/or
+	 *                     {@code patient}, or null.
+	 * @return The same appointments.
+	 */
+	private <T extends Iterable<ResponseAppointmentDto>> T expand(T appointments, List<String> expand) {
+		if (expand == null) {
+			return appointments;
+		}
+
+		Map<String, ResponseDoctorDto> doctors = new HashMap<>();
+		Map<String, ResponsePatientDto> patients = new HashMap<>();
+
+		for (ResponseAppointmentDto appointment : appointments) {
+			if (expand.contains("doctor") && appointment.getDoctor() != null) {
+				clinicBatchLoader.addDoctor(appointment.getDoctor().getId());
+			}
+			if (expand.contains("patient") && appointment.getPatient() != null) {
+				clinicBatchLoader.addPatient(appointment.getPatient().getId());
+			}
+		}
+
+		for (ResponseAppointmentDto appointment : appointments) {
+			ResponseDoctorDto doctor = appointment.getDoctor();
+			if (expand.contains("doctor") && doctor != null && doctor.getId() != null) {
+				appointment.setDoctor(doctors.computeIfAbsent(doctor.getId(), id -> clinicBatchLoader.getDoctor(id)
+						.map(doctorToResponseDoctorDtoMapper::fromInputToOutput).orElse(doctor)));
+			}
+
+			ResponsePatientDto patient = appointment.getPatient();
+			if (expand.contains("patient") && patient != null && patient.getId() != null) {
+				appointment.setPatient(patients.computeIfAbsent(patient.getId(), id -> clinicBatchLoader.getPatient(id)
+						.map(patientToResponsePatientDtoMapper::fromInputToOutput).orElse(patient)));
+			}
+		}
+		return appointments;
+	}
 }
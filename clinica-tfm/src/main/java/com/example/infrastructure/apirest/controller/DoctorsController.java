@@ -1,10 +1,18 @@
 package com.example.infrastructure.apirest.controller;
 
 import java.net.URI;
+import java.util.List;
 import java.util.Optional;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -15,17 +23,26 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import com.example.application.port.input.DoctorServiceInputPort;
+import com.example.application.util.BatchItemResult;
+import com.example.application.util.ClinicConflictException;
 import com.example.application.util.ClinicLogicException;
 import com.example.domain.model.Doctor;
 import com.example.infrastructure.apirest.dto.request.doctor_object.PatchDoctorDto;
 import com.example.infrastructure.apirest.dto.request.doctor_object.PostPutDoctorDto;
+import com.example.infrastructure.apirest.export.ClinicNdjsonWriter;
+import com.example.infrastructure.apirest.mapper.common.BatchItemResultToResponseBatchItemDtoMapper;
+import com.example.infrastructure.apirest.mapper.common.WindowToResponseWindowDtoMapper;
 import com.example.infrastructure.apirest.mapper.doctor_object.DoctorToPatchDoctorDtoMapper;
 import com.example.infrastructure.apirest.mapper.doctor_object.DoctorToPostPutDoctorDtoMapper;
 import com.example.infrastructure.apirest.mapper.doctor_object.DoctorToResponseDoctorDtoMapper;
+import com.example.infrastructure.apirest.mapper.doctor_object.DoctorViewToResponseDoctorDtoMapper;
+import com.example.infrastructure.repository.mongodb.projection.DoctorView;
+import com.example.infrastructure.repository.mongodb.service.doctor_entity.DoctorQueryService;
 
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
@@ -43,6 +60,7 @@ import lombok.extern.slf4j.Slf4j;
  */
 @Slf4j
 @RestController
+@Profile("!reactive")
 @RequestMapping("/doctors")
 @CrossOrigin(origins = "http://localhost:4200")
 public class DoctorsController {
@@ -59,20 +77,78 @@ public class DoctorsController {
 	@Autowired
 	private DoctorToResponseDoctorDtoMapper doctorToResponseDoctorDtoMapper;
 
+	@Autowired
+	private WindowToResponseWindowDtoMapper windowToResponseWindowDtoMapper;
+
+	@Autowired
+	private BatchItemResultToResponseBatchItemDtoMapper batchItemResultToResponseBatchItemDtoMapper;
+
+	@Autowired
+	private DoctorQueryService doctorQueryService;
+
+	@Autowired
+	private DoctorViewToResponseDoctorDtoMapper doctorViewToResponseDoctorDtoMapper;
+
+	@Autowired
+	private ClinicNdjsonWriter clinicNdjsonWriter;
+
 	/**
-	 * Retrieves all doctors in a paginated format.
+	 * Retrieves all doctors in a paginated format. With a cursor (empty for the
+	 * first window), the doctors are paginated by keyset instead of by page number,
+	 * and the response carries the cursor of the next window.
 	 * 
-	 * @param pageable Pagination information.
-	 * @return A ResponseEntity containing a paginated list of doctors.
+	 * @param pageable Pagination information, only size and sort with a cursor.
+	 * @param cursor   The cursor returned with the previous window, optional.
+	 * @return A ResponseEntity containing a paginated list of doctors or an error
+	 *         message.
 	 */
 	@GetMapping
-	public ResponseEntity getAllDoctors(@Valid Pageable pageable) {
+	public ResponseEntity getAllDoctors(@Valid Pageable pageable,
+			@RequestParam(name = "cursor", required = false) String cursor) {
 		log.debug("Getting all doctors");
 
+		if (cursor != null) {
+			try {
+				ScrollPosition position = windowToResponseWindowDtoMapper.positionOf(cursor, pageable.getSort(),
+						"id");
+				Window<DoctorView> window = doctorQueryService.getAllDoctors(position, pageable.getPageSize(),
+						pageable.getSort());
+
+				return ResponseEntity.ok(windowToResponseWindowDtoMapper.fromInputToOutput(window,
+						doctorViewToResponseDoctorDtoMapper.fromInputToOutput(window.getContent())));
+			} catch (ClinicLogicException e) {
+				return ResponseEntity.badRequest().body(e.getMessage());
+			}
+		}
+
 		return ResponseEntity
 				.ok(doctorToResponseDoctorDtoMapper.fromInputToOutput(doctorServiceInputPort.getAllDoctors(pageable)));
 	}
 
+	/**
+	 * Exports the doctors as newline-delimited JSON, in ID order, read from a single
+	 * cursor and written as they are read, with no pagination nor count. After a
+	 * disconnection, the export resumes after the ID of the last doctor received.
+	 * 
+	 * @param after The ID of the last doctor received, optional.
+	 * @return A ResponseEntity streaming the doctors, one per line, or an error
+	 *         message.
+	 */
+	@GetMapping(path = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+	public ResponseEntity exportDoctors(@RequestParam(name = "after", required = false) String after) {
+		log.debug("Exporting doctors");
+
+		Supplier<Stream<DoctorView>> doctors;
+		try {
+			doctors = doctorQueryService.exportDoctors(after);
+		} catch (ClinicLogicException e) {
+			return ResponseEntity.badRequest().body(e.getMessage());
+		}
+
+		return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON)
+				.body(clinicNdjsonWriter.write(doctors, doctorViewToResponseDoctorDtoMapper::fromInputToOutput));
+	}
+
 	/**
 	 * Retrieves a doctor by its ID.
 	 * 
@@ -87,6 +163,25 @@ public class DoctorsController {
 				.ok(doctorToResponseDoctorDtoMapper.fromInputToOutput(doctorServiceInputPort.getDoctor(id)));
 	}
 
+	/**
+	 * Retrieves the IDs of the appointments of a doctor in a paginated format.
+	 * 
+	 * @param id       The doctor ID.
+	 * @param pageable Pagination information.
+	 * @return A ResponseEntity containing a paginated list of appointment IDs or
+	 *         an error message.
+	 */
+	@GetMapping("/{doctor-id}/appointments")
+	public ResponseEntity getDoctorAppointments(@Valid @PathVariable("doctor-id") String id, Pageable pageable) {
+		log.debug("Getting the appointments of a doctor");
+
+		try {
+			return ResponseEntity.ok(doctorServiceInputPort.getDoctorAppointments(id, pageable));
+		} catch (ClinicLogicException e) {
+			return ResponseEntity.badRequest().body(e.getMessage());
+		}
+	}
+
 	/**
 	 * Retrieves a doctor by its document.
 	 * 
@@ -110,7 +205,8 @@ public class DoctorsController {
 	 * Creates a new doctor.
 	 * 
 	 * @param doctor The DTO with the information of the doctor to create.
-	 * @return A ResponseEntity with the location of the new doctor.
+	 * @return A ResponseEntity with the location of the new doctor, a 409 status if
+	 *         another doctor holds its document, or an error message.
 	 */
 	@PostMapping
 	public ResponseEntity postDoctor(@Valid @RequestBody PostPutDoctorDto doctor) {
@@ -118,7 +214,14 @@ public class DoctorsController {
 
 		Doctor domainDoc = doctorToPostPutDoctorDtoMapper.fromOutputToInput(doctor);
 
-		String idNewDoctor = doctorServiceInputPort.createDoctor(domainDoc);
+		String idNewDoctor;
+		try {
+			idNewDoctor = doctorServiceInputPort.createDoctor(domainDoc);
+		} catch (ClinicConflictException e) {
+			return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+		} catch (ClinicLogicException e) {
+			return ResponseEntity.badRequest().body(e.getMessage());
+		}
 
 		URI locationHeader = ServletUriComponentsBuilder.fromCurrentContextPath().path("/{id}")
 				.buildAndExpand(idNewDoctor).toUri();
@@ -126,13 +229,35 @@ public class DoctorsController {
 		return ResponseEntity.created(locationHeader).build();
 	}
 
+	/**
+	 * Creates a batch of doctors, each succeeding or failing on its own.
+	 * 
+	 * @param doctors The DTOs with the information of the doctors to create.
+	 * @return A ResponseEntity containing the result of every doctor, in the order
+	 *         given, or an error message.
+	 */
+	@PostMapping("/batch")
+	public ResponseEntity postDoctors(@RequestBody List<PostPutDoctorDto> doctors) {
+		log.debug("Creating a batch of doctors");
+
+		try {
+			List<BatchItemResult> results = doctorServiceInputPort
+					.createDoctors(doctorToPostPutDoctorDtoMapper.fromOutputToInput(doctors));
+
+			return ResponseEntity.ok(batchItemResultToResponseBatchItemDtoMapper.fromInputToOutput(results));
+		} catch (ClinicLogicException e) {
+			return ResponseEntity.badRequest().body(e.getMessage());
+		}
+	}
+
 	/**
 	 * Fully modifies an existing doctor.
 	 * 
 	 * @param id     The ID of the doctor to modify.
 	 * @param doctor The DTO with the updated doctor information.
-	 * @return A ResponseEntity with a 204 status if successfully modified or an
-	 *         error message.
+	 * @return A ResponseEntity with a 204 status if successfully modified, a 409
+	 *         status if modified concurrently or another doctor holds its
+	 *         document, or an error message.
 	 */
 	@PutMapping("/{doctor-id}")
 	public ResponseEntity putDoctor(@Valid @PathVariable("doctor-id") String id,
@@ -140,9 +265,12 @@ public class DoctorsController {
 		log.debug("Totally modifying a doctor");
 
 		Doctor inputDoc = doctorToPostPutDoctorDtoMapper.fromOutputToInput(doctor);
+		inputDoc.setId(id);
 
 		try {
 			doctorServiceInputPort.totalModificationDoctor(inputDoc);
+		} catch (ClinicConflictException e) {
+			return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
 		} catch (ClinicLogicException e) {
 			return ResponseEntity.badRequest().body(e.getMessage());
 		}
@@ -155,7 +283,8 @@ public class DoctorsController {
 	 * 
 	 * @param id     The ID of the doctor to modify.
 	 * @param doctor The DTO with the partial doctor information.
-	 * @return A ResponseEntity containing the modified doctor or an error message.
+	 * @return A ResponseEntity containing the modified doctor, a 409 status if
+	 *         another doctor holds its document, or an error message.
 	 */
 	@PatchMapping("/{doctor-id}")
 	public ResponseEntity patchDoctor(@Valid @PathVariable("doctor-id") String id,
@@ -167,6 +296,8 @@ public class DoctorsController {
 
 		try {
 			doctorServiceInputPort.partialModificationDoctor(inputDoc);
+		} catch (ClinicConflictException e) {
+			return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
 		} catch (ClinicLogicException e) {
 			return ResponseEntity.badRequest().body(e.getMessage());
 		}
@@ -182,13 +313,20 @@ public class DoctorsController {
 	 * Deletes a doctor by its ID.
 	 * 
 	 * @param id The ID of the doctor to delete.
-	 * @return A ResponseEntity with a 204 status if successfully deleted.
+	 * @return A ResponseEntity with a 204 status if successfully deleted, or a 409
+	 *         status if modified concurrently.
 	 */
 	@DeleteMapping("/{doctor-id}")
 	public ResponseEntity deleteDoctor(@Valid @PathVariable("doctor-id") String id) {
 		log.debug("Deleting doctor");
 
-		doctorServiceInputPort.deleteDoctor(id);
+		try {
+			doctorServiceInputPort.deleteDoctor(id);
+		} catch (ClinicConflictException e) {
+			return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+		} catch (ClinicLogicException e) {
+			return ResponseEntity.badRequest().body(e.getMessage());
+		}
 
 		return ResponseEntity.noContent().build();
 	}
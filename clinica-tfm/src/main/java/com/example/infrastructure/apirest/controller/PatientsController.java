@@ -1,10 +1,18 @@
 package com.example.infrastructure.apirest.controller;
 
 import java.net.URI;
+import java.util.List;
 import java.util.Optional;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -15,17 +23,26 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import com.example.application.port.input.PatientServiceInputPort;
+import com.example.application.util.BatchItemResult;
+import com.example.application.util.ClinicConflictException;
 import com.example.application.util.ClinicLogicException;
 import com.example.domain.model.Patient;
 import com.example.infrastructure.apirest.dto.request.patient_object.PatchPatientDto;
 import com.example.infrastructure.apirest.dto.request.patient_object.PostPutPatientDto;
+import com.example.infrastructure.apirest.export.ClinicNdjsonWriter;
+import com.example.infrastructure.apirest.mapper.common.BatchItemResultToResponseBatchItemDtoMapper;
+import com.example.infrastructure.apirest.mapper.common.WindowToResponseWindowDtoMapper;
 import com.example.infrastructure.apirest.mapper.patient_object.PatientToPatchPatientDto;
 import com.example.infrastructure.apirest.mapper.patient_object.PatientToPostPutPatientDtoMapper;
 import com.example.infrastructure.apirest.mapper.patient_object.PatientToResponsePatientDtoMapper;
+import com.example.infrastructure.apirest.mapper.patient_object.PatientViewToResponsePatientDtoMapper;
+import com.example.infrastructure.repository.mongodb.projection.PatientView;
+import com.example.infrastructure.repository.mongodb.service.patient_entity.PatientQueryService;
 
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
@@ -43,6 +60,7 @@ import lombok.extern.slf4j.Slf4j;
  */
 @Slf4j
 @RestController
+@Profile("!reactive")
 @RequestMapping("/patients")
 @CrossOrigin(origins = "http://localhost:4200")
 public class PatientsController {
@@ -59,20 +77,79 @@ public class PatientsController {
 	@Autowired
 	private PatientToResponsePatientDtoMapper patientToResponsePatientDtoMapper;
 
+	@Autowired
+	private WindowToResponseWindowDtoMapper windowToResponseWindowDtoMapper;
+
+	@Autowired
+	private BatchItemResultToResponseBatchItemDtoMapper batchItemResultToResponseBatchItemDtoMapper;
+
+	@Autowired
+	private PatientQueryService patientQueryService;
+
+	@Autowired
+	private PatientViewToResponsePatientDtoMapper patientViewToResponsePatientDtoMapper;
+
+	@Autowired
+	private ClinicNdjsonWriter clinicNdjsonWriter;
+
 	/**
-	 * Retrieves all patients in a paginated format.
+	 * Retrieves all patients in a paginated format. With a cursor (empty for the
+	 * first window), the patients are paginated by keyset instead of by page number,
+	 * and the response carries the cursor of the next window.
 	 * 
-	 * @param pageable Pagination information.
-	 * @return A ResponseEntity containing a paginated list of patients.
+	 * @param pageable Pagination information, only size and sort with a cursor.
+	 * @param cursor   The cursor returned with the previous window, optional.
+	 * @return A ResponseEntity containing a paginated list of patients or an error
+	 *         message.
 	 */
 	@GetMapping
-	public ResponseEntity getAllPatients(@Valid Pageable pageable) {
+	public ResponseEntity getAllPatients(@Valid Pageable pageable,
+			@RequestParam(name = "cursor", required = false) String cursor) {
 		log.debug("Getting all patients");
 
+		if (cursor != null) {
+			try {
+				ScrollPosition position = windowToResponseWindowDtoMapper.positionOf(cursor, pageable.getSort(),
+						"id");
+				Window<PatientView> window = patientQueryService.getAllPatients(position, pageable.getPageSize(),
+						pageable.getSort());
+
+				return ResponseEntity.ok(windowToResponseWindowDtoMapper.fromInputToOutput(window,
+						patientViewToResponsePatientDtoMapper.fromInputToOutput(window.getContent())));
+			} catch (ClinicLogicException e) {
+				return ResponseEntity.badRequest().body(e.getMessage());
+			}
+		}
+
 		return ResponseEntity.ok(
 				patientToResponsePatientDtoMapper.fromInputToOutput(patientServiceInputPort.getAllPatients(pageable)));
 	}
 
+	/**
+	 * Exports the patients as newline-delimited JSON, in ID order, read from a
+	 * single cursor and written as they are read, with no pagination nor count.
+	 * After a disconnection, the export resumes after the ID of the last patient
+	 * received.
+	 * 
+	 * @param after The ID of the last patient received, optional.
+	 * @return A ResponseEntity streaming the patients, one per line, or an error
+	 *         message.
+	 */
+	@GetMapping(path = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+	public ResponseEntity exportPatients(@RequestParam(name = "after", required = false) String after) {
+		log.debug("Exporting patients");
+
+		Supplier<Stream<PatientView>> patients;
+		try {
+			patients = patientQueryService.exportPatients(after);
+		} catch (ClinicLogicException e) {
+			return ResponseEntity.badRequest().body(e.getMessage());
+		}
+
+		return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON)
+				.body(clinicNdjsonWriter.write(patients, patientViewToResponsePatientDtoMapper::fromInputToOutput));
+	}
+
 	/**
 	 * Retrieves a patient by its ID.
 	 * 
@@ -87,6 +164,25 @@ public class PatientsController {
 				.ok(patientToResponsePatientDtoMapper.fromInputToOutput(patientServiceInputPort.getPatient(id)));
 	}
 
+	/**
+	 * Retrieves the IDs of the appointments of a patient in a paginated format.
+	 * 
+	 * @param id       The patient ID.
+	 * @param pageable Pagination information.
+	 * @return A ResponseEntity containing a paginated list of appointment IDs or
+	 *         an error message.
+	 */
+	@GetMapping("/{patient-id}/appointments")
+	public ResponseEntity getPatientAppointments(@Valid @PathVariable("patient-id") String id, Pageable pageable) {
+		log.debug("Getting the appointments of a patient");
+
+		try {
+			return ResponseEntity.ok(patientServiceInputPort.getPatientAppointments(id, pageable));
+		} catch (ClinicLogicException e) {
+			return ResponseEntity.badRequest().body(e.getMessage());
+		}
+	}
+
 	/**
 	 * Retrieves a patient by its document.
 	 * 
@@ -110,7 +206,8 @@ public class PatientsController {
 	 * Creates a new patient.
 	 * 
 	 * @param patient The DTO with the information of the patient to create.
-	 * @return A ResponseEntity with the location of the new patient.
+	 * @return A ResponseEntity with the location of the new patient, a 409 status if
+	 *         another patient holds its document, or an error message.
 	 */
 	@PostMapping
 	public ResponseEntity postPatient(@Valid @RequestBody PostPutPatientDto patient) {
@@ -118,7 +215,14 @@ public class PatientsController {
 
 		Patient domainPatient = patientToPostPutPatientDtoMapper.fromOutputToInput(patient);
 
-		String idNewPatient = patientServiceInputPort.createPatient(domainPatient);
+		String idNewPatient;
+		try {
+			idNewPatient = patientServiceInputPort.createPatient(domainPatient);
+		} catch (ClinicConflictException e) {
+			return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+		} catch (ClinicLogicException e) {
+			return ResponseEntity.badRequest().body(e.getMessage());
+		}
 
 		URI locationHeader = ServletUriComponentsBuilder.fromCurrentContextPath().path("/{id}")
 				.buildAndExpand(idNewPatient).toUri();
@@ -126,13 +230,35 @@ public class PatientsController {
 		return ResponseEntity.created(locationHeader).build();
 	}
 
+	/**
+	 * Creates a batch of patients, each succeeding or failing on its own.
+	 * 
+	 * @param patients The DTOs with the information of the patients to create.
+	 * @return A ResponseEntity containing the result of every patient, in the order
+	 *         given, or an error message.
+	 */
+	@PostMapping("/batch")
+	public ResponseEntity postPatients(@RequestBody List<PostPutPatientDto> patients) {
+		log.debug("Creating a batch of patients");
+
+		try {
+			List<BatchItemResult> results = patientServiceInputPort
+					.createPatients(patientToPostPutPatientDtoMapper.fromOutputToInput(patients));
+
+			return ResponseEntity.ok(batchItemResultToResponseBatchItemDtoMapper.fromInputToOutput(results));
+		} catch (ClinicLogicException e) {
+			return ResponseEntity.badRequest().body(e.getMessage());
+		}
+	}
+
 	/**
 	 * Completely modifies an existing patient.
 	 * 
 	 * @param id      The ID of the patient to modify.
 	 * @param patient The DTO with the updated patient information.
-	 * @return A ResponseEntity with a 204 status if successfully modified or an
-	 *         error message.
+	 * @return A ResponseEntity with a 204 status if successfully modified, a 409
+	 *         status if modified concurrently or another patient holds its
+	 *         document, or an error message.
 	 */
 	@PutMapping("/{patient-id}")
 	public ResponseEntity putPatient(@Valid @PathVariable("patient-id") String id,
@@ -140,9 +266,12 @@ public class PatientsController {
 		log.debug("Totally modifying a patient");
 
 		Patient inputPatient = patientToPostPutPatientDtoMapper.fromOutputToInput(patient);
+		inputPatient.setId(id);
 
 		try {
 			patientServiceInputPort.totalModificationPatient(inputPatient);
+		} catch (ClinicConflictException e) {
+			return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
 		} catch (ClinicLogicException e) {
 			return ResponseEntity.badRequest().body(e.getMessage());
 		}
@@ -155,7 +284,8 @@ public class PatientsController {
 	 * 
 	 * @param id      The ID of the patient to modify.
 	 * @param patient The DTO with the partial patient information.
-	 * @return A ResponseEntity containing the modified patient or an error message.
+	 * @return A ResponseEntity containing the modified patient, a 409 status if
+	 *         another patient holds its document, or an error message.
 	 */
 	@PatchMapping("/{patient-id}")
 	public ResponseEntity patchPatient(@Valid @PathVariable("patient-id") String id,
@@ -169,6 +299,8 @@ public class PatientsController {
 		try {
 			patientServiceInputPort.partialModificationPatient(inputPatient);
 			return ResponseEntity.noContent().build();
+		} catch (ClinicConflictException e) {
+			return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
 		} catch (ClinicLogicException e) {
 			return ResponseEntity.badRequest().body(e.getMessage());
 		}
@@ -178,13 +310,20 @@ public class PatientsController {
 	 * Deletes a patient by its ID.
 	 * 
 	 * @param id The ID of the patient to delete.
-	 * @return A ResponseEntity with a 204 status if successfully deleted.
+	 * @return A ResponseEntity with a 204 status if successfully deleted, or a 409
+	 *         status if modified concurrently.
 	 */
 	@DeleteMapping("/{patient-id}")
 	public ResponseEntity deletePatient(@Valid @PathVariable("patient-id") String id) {
 		log.debug("Deleting patient");
 
-		patientServiceInputPort.deletePatient(id);
+		try {
+			patientServiceInputPort.deletePatient(id);
+		} catch (ClinicConflictException e) {
+			return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+		} catch (ClinicLogicException e) {
+			return ResponseEntity.badRequest().body(e.getMessage());
+		}
 
 		return ResponseEntity.noContent().build();
 	}
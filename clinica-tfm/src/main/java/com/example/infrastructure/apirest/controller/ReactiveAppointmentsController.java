@@ -0,0 +1,110 @@
+package com.example.infrastructure.apirest.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.application.port.input.ReactiveAppointmentServiceInputPort;
+import com.example.infrastructure.apirest.dto.response.ResponseAppointmentDto;
+import com.example.infrastructure.apirest.mapper.appointment_object.AppointmentToResponseAppointmentDtoMapper;
+import com.example.infrastructure.apirest.mapper.appointment_object.AppointmentViewToResponseAppointmentDtoMapper;
+import com.example.infrastructure.repository.mongodb.service.appointment_entity.ReactiveAppointmentQueryService;
+
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * WebFlux controller serving the reads of the appointments in the reactive
+ * profile. A single appointment is read on the same path as in
+ * {@link AppointmentsController}; the lists, instead of pages, are streamed
+ * under {@code /appointments/stream} as newline-delimited JSON, each
+ * appointment written as soon as it is read, and read only as fast as the
+ * client takes them. The doctor and the patient are given as their summaries.
+ * 
+ * Allows access from http://localhost:4200.
+ */
+@Slf4j
+@RestController
+@Profile("reactive")
+@RequestMapping("/appointments")
+@CrossOrigin(origins = "http://localhost:4200")
+public class ReactiveAppointmentsController {
+
+	@Autowired
+	private ReactiveAppointmentServiceInputPort reactiveAppointmentServiceInputPort;
+
+	@Autowired
+	private ReactiveAppointmentQueryService reactiveAppointmentQueryService;
+
+	@Autowired
+	private AppointmentViewToResponseAppointmentDtoMapper appointmentViewToResponseAppointmentDtoMapper;
+
+	@Autowired
+	private AppointmentToResponseAppointmentDtoMapper appointmentToResponseAppointmentDtoMapper;
+
+	/**
+	 * Streams all appointments, in ID order.
+	 * 
+	 * @return The appointments, one per line.
+	 */
+	@GetMapping(path = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+	public Flux<ResponseAppointmentDto> streamAppointments() {
+		log.debug("Streaming all appointments");
+
+		return reactiveAppointmentQueryService.streamAppointments()
+				.map(appointmentViewToResponseAppointmentDtoMapper::fromInputToOutput);
+	}
+
+	/**
+	 * Streams the appointments of a doctor by the doctor's document, in ID order.
+	 * 
+	 * @param document The doctor's document.
+	 * @return The appointments, one per line.
+	 */
+	@GetMapping(path = "/stream/doctors/{document}", produces = MediaType.APPLICATION_NDJSON_VALUE)
+	public Flux<ResponseAppointmentDto> streamAppointmentsByDoctorDocument(@PathVariable("document") String document) {
+		log.debug("Streaming appointments by doctor's document");
+
+		return reactiveAppointmentQueryService.streamAppointmentsByDoctorDocument(document)
+				.map(appointmentViewToResponseAppointmentDtoMapper::fromInputToOutput);
+	}
+
+	/**
+	 * Streams the appointments of a patient by the patient's document, in ID
+	 * order.
+	 * 
+	 * @param document The patient's document.
+	 * @return The appointments, one per line.
+	 */
+	@GetMapping(path = "/stream/patients/{document}", produces = MediaType.APPLICATION_NDJSON_VALUE)
+	public Flux<ResponseAppointmentDto> streamAppointmentsByPatientDocument(@PathVariable("document") String document) {
+		log.debug("Streaming appointments by patient's document");
+
+		return reactiveAppointmentQueryService.streamAppointmentsByPatientDocument(document)
+				.map(appointmentViewToResponseAppointmentDtoMapper::fromInputToOutput);
+	}
+
+	/**
+	 * Retrieves an appointment by its ID.
+	 * 
+	 * @param idAppo The appointment ID.
+	 * @return A ResponseEntity containing the appointment or a 204 status if not
+	 *         found.
+	 */
+	@GetMapping("/{appointment-id}")
+	public Mono<ResponseEntity<ResponseAppointmentDto>> getAppointment(
+			@PathVariable("appointment-id") String idAppo) {
+		log.debug("Getting an appointment");
+
+		return reactiveAppointmentServiceInputPort.getAppointment(idAppo)
+				.map(appointmentToResponseAppointmentDtoMapper::fromInputToOutput).map(ResponseEntity::ok)
+				.defaultIfEmpty(ResponseEntity.noContent().build());
+	}
+}
@@ -0,0 +1,119 @@
+package com.example.infrastructure.apirest.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.application.port.input.ReactiveDoctorServiceInputPort;
+import com.example.application.util.ClinicLogicException;
+import com.example.infrastructure.apirest.dto.response.ResponseDoctorDto;
+import com.example.infrastructure.apirest.mapper.doctor_object.DoctorToResponseDoctorDtoMapper;
+import com.example.infrastructure.apirest.mapper.doctor_object.DoctorViewToResponseDoctorDtoMapper;
+import com.example.infrastructure.repository.mongodb.service.doctor_entity.ReactiveDoctorQueryService;
+
+import jakarta.validation.Valid;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * WebFlux controller serving the reads of the doctors in the reactive profile.
+ * A single doctor is read on the same paths as in {@link DoctorsController}; the
+ * lists, instead of pages, are streamed under paths ending in {@code /stream}
+ * as newline-delimited JSON, each doctor written as soon as it is read, and read
+ * only as fast as the client takes them.
+ * 
+ * Allows access from http://localhost:4200.
+ */
+@Slf4j
+@RestController
+@Profile("reactive")
+@RequestMapping("/doctors")
+@CrossOrigin(origins = "http://localhost:4200")
+public class ReactiveDoctorsController {
+
+	@Autowired
+	private ReactiveDoctorServiceInputPort reactiveDoctorServiceInputPort;
+
+	@Autowired
+	private ReactiveDoctorQueryService reactiveDoctorQueryService;
+
+	@Autowired
+	private DoctorViewToResponseDoctorDtoMapper doctorViewToResponseDoctorDtoMapper;
+
+	@Autowired
+	private DoctorToResponseDoctorDtoMapper doctorToResponseDoctorDtoMapper;
+
+	/**
+	 * Streams all doctors, in ID order.
+	 * 
+	 * @return The doctors, one per line.
+	 */
+	@GetMapping(path = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+	public Flux<ResponseDoctorDto> streamDoctors() {
+		log.debug("Streaming all doctors");
+
+		return reactiveDoctorQueryService.streamDoctors().map(doctorViewToResponseDoctorDtoMapper::fromInputToOutput);
+	}
+
+	/**
+	 * Retrieves a doctor by its ID.
+	 * 
+	 * @param id The doctor ID.
+	 * @return A ResponseEntity containing the found doctor, or a 404 status.
+	 */
+	@GetMapping("/{doctor-id}")
+	public Mono<ResponseEntity<ResponseDoctorDto>> getDoctor(@Valid @PathVariable("doctor-id") String id) {
+		log.debug("Getting doctor");
+
+		return reactiveDoctorServiceInputPort.getDoctor(id).map(doctorToResponseDoctorDtoMapper::fromInputToOutput)
+				.map(ResponseEntity::ok).defaultIfEmpty(ResponseEntity.notFound().build());
+	}
+
+	/**
+	 * Streams the IDs of the appointments of a doctor, in ID order.
+	 * 
+	 * @param id The doctor ID.
+	 * @return The appointment IDs, one per line.
+	 */
+	@GetMapping(path = "/{doctor-id}/appointments/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+	public Flux<String> streamDoctorAppointments(@Valid @PathVariable("doctor-id") String id) {
+		log.debug("Streaming the appointments of a doctor");
+
+		return reactiveDoctorServiceInputPort.getDoctorAppointments(id);
+	}
+
+	/**
+	 * Retrieves a doctor by its document.
+	 * 
+	 * @param document The doctor's document.
+	 * @return A ResponseEntity containing the found doctor, or a 404 status.
+	 */
+	@GetMapping("/list/{document}")
+	public Mono<ResponseEntity<ResponseDoctorDto>> getDoctorByDocument(@PathVariable("document") String document) {
+		log.debug("Getting doctor with document");
+
+		return reactiveDoctorServiceInputPort.getDoctorByDocument(document)
+				.map(doctorToResponseDoctorDtoMapper::fromInputToOutput).map(ResponseEntity::ok)
+				.defaultIfEmpty(ResponseEntity.notFound().build());
+	}
+
+	/**
+	 * Answers the errors raised before anything of the response is written, such
+	 * as a doctor not found.
+	 * 
+	 * @param e The error.
+	 * @return A ResponseEntity containing the error message.
+	 */
+	@ExceptionHandler(ClinicLogicException.class)
+	public ResponseEntity<String> handleClinicLogicException(ClinicLogicException e) {
+		return ResponseEntity.badRequest().body(e.getMessage());
+	}
+}
@@ -0,0 +1,120 @@
+package com.example.infrastructure.apirest.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.application.port.input.ReactivePatientServiceInputPort;
+import com.example.application.util.ClinicLogicException;
+import com.example.infrastructure.apirest.dto.response.ResponsePatientDto;
+import com.example.infrastructure.apirest.mapper.patient_object.PatientToResponsePatientDtoMapper;
+import com.example.infrastructure.apirest.mapper.patient_object.PatientViewToResponsePatientDtoMapper;
+import com.example.infrastructure.repository.mongodb.service.patient_entity.ReactivePatientQueryService;
+
+import jakarta.validation.Valid;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * WebFlux controller serving the reads of the patients in the reactive profile.
+ * A single patient is read on the same paths as in {@link PatientsController}; the
+ * lists, instead of pages, are streamed under paths ending in {@code /stream}
+ * as newline-delimited JSON, each patient written as soon as it is read, and read
+ * only as fast as the client takes them.
+ * 
+ * Allows access from http://localhost:4200.
+ */
+@Slf4j
+@RestController
+@Profile("reactive")
+@RequestMapping("/patients")
+@CrossOrigin(origins = "http://localhost:4200")
+public class ReactivePatientsController {
+
+	@Autowired
+	private ReactivePatientServiceInputPort reactivePatientServiceInputPort;
+
+	@Autowired
+	private ReactivePatientQueryService reactivePatientQueryService;
+
+	@Autowired
+	private PatientViewToResponsePatientDtoMapper patientViewToResponsePatientDtoMapper;
+
+	@Autowired
+	private PatientToResponsePatientDtoMapper patientToResponsePatientDtoMapper;
+
+	/**
+	 * Streams all patients, in ID order.
+	 * 
+	 * @return The patients, one per line.
+	 */
+	@GetMapping(path = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+	public Flux<ResponsePatientDto> streamPatients() {
+		log.debug("Streaming all patients");
+
+		return reactivePatientQueryService.streamPatients()
+				.map(patientViewToResponsePatientDtoMapper::fromInputToOutput);
+	}
+
+	/**
+	 * Retrieves a patient by its ID.
+	 * 
+	 * @param id The patient ID.
+	 * @return A ResponseEntity containing the found patient, or a 404 status.
+	 */
+	@GetMapping("/{patient-id}")
+	public Mono<ResponseEntity<ResponsePatientDto>> getPatient(@Valid @PathVariable("patient-id") String id) {
+		log.debug("Getting patient");
+
+		return reactivePatientServiceInputPort.getPatient(id).map(patientToResponsePatientDtoMapper::fromInputToOutput)
+				.map(ResponseEntity::ok).defaultIfEmpty(ResponseEntity.notFound().build());
+	}
+
+	/**
+	 * Streams the IDs of the appointments of a patient, in ID order.
+	 * 
+	 * @param id The patient ID.
+	 * @return The appointment IDs, one per line.
+	 */
+	@GetMapping(path = "/{patient-id}/appointments/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+	public Flux<String> streamPatientAppointments(@Valid @PathVariable("patient-id") String id) {
+		log.debug("Streaming the appointments of a patient");
+
+		return reactivePatientServiceInputPort.getPatientAppointments(id);
+	}
+
+	/**
+	 * Retrieves a patient by its document.
+	 * 
+	 * @param document The patient's document.
+	 * @return A ResponseEntity containing the found patient, or a 404 status.
+	 */
+	@GetMapping("/list/{document}")
+	public Mono<ResponseEntity<ResponsePatientDto>> getPatientByDocument(@PathVariable("document") String document) {
+		log.debug("Getting patient with document");
+
+		return reactivePatientServiceInputPort.getPatientByDocument(document)
+				.map(patientToResponsePatientDtoMapper::fromInputToOutput).map(ResponseEntity::ok)
+				.defaultIfEmpty(ResponseEntity.notFound().build());
+	}
+
+	/**
+	 * Answers the errors raised before anything of the response is written, such
+	 * as a patient not found.
+	 * 
+	 * @param e The error.
+	 * @return A ResponseEntity containing the error message.
+	 */
+	@ExceptionHandler(ClinicLogicException.class)
+	public ResponseEntity<String> handleClinicLogicException(ClinicLogicException e) {
+		return ResponseEntity.badRequest().body(e.getMessage());
+	}
+}
@@ -22,4 +22,5 @@ public class PostAppointmentDto {
 	LocalDateTime date;
 	String diagnostic;
 	String treatment;
+	Long version;
 }
@@ -21,5 +21,4 @@ public class PatchDoctorDto {
 	LocalDate mirDate;
 	PersonalInformationDto personalInformationDto;
 	List<String> specializations;
-	List<String> idDoctorAppointments;
 }
@@ -21,5 +21,5 @@ public class PostPutDoctorDto {
 	LocalDate mirDate;
 	PersonalInformationDto personalInformationDto;
 	List<String> specializations;
-	List<String> idDoctorAppointments;
+	Long version;
 }
\ No newline at end of file
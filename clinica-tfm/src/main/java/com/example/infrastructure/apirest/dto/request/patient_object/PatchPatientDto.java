@@ -1,7 +1,5 @@
 package com.example.infrastructure.apirest.dto.request.patient_object;
 
-import java.util.List;
-
 import com.example.infrastructure.apirest.dto.common.PersonalInformationDto;
 
 import lombok.AllArgsConstructor;
@@ -19,7 +17,6 @@ public class PatchPatientDto {
 	String id;
 	String socialSecurityNumber;
 	PersonalInformationDto personalInformationDto;
-	double height;
-	double weight;
-	List<String> idPatientAppointments;
+	Double height;
+	Double weight;
 }
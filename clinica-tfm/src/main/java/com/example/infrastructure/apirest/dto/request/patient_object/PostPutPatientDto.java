@@ -1,7 +1,5 @@
 package com.example.infrastructure.apirest.dto.request.patient_object;
 
-import java.util.List;
-
 import com.example.infrastructure.apirest.dto.common.PersonalInformationDto;
 
 import lombok.AllArgsConstructor;
@@ -20,5 +18,5 @@ public class PostPutPatientDto {
 	PersonalInformationDto personalInformationDto;
 	double height;
 	double weight;
-	List<String> idPatientAppointments;
+	Long version;
 }
@@ -23,4 +23,5 @@ public class ResponseAppointmentDto {
 	LocalDateTime date;
 	String diagnostic;
 	String treatment;
+	Long version;
 }
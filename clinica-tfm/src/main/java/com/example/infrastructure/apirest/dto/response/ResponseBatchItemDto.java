@@ -0,0 +1,18 @@
+package com.example.infrastructure.apirest.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.extern.jackson.Jacksonized;
+
+@Data
+@Builder
+@Jacksonized
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResponseBatchItemDto {
+	int index;
+	String id;
+	String error;
+}
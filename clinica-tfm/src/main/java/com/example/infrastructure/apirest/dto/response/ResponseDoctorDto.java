@@ -22,5 +22,5 @@ public class ResponseDoctorDto {
 	LocalDate mirDate;
 	PersonalInformationDto personalInformationDto;
 	List<String> specializations;
-	List<String> idDoctorAppointments;
+	Long version;
 }
\ No newline at end of file
@@ -1,7 +1,5 @@
 package com.example.infrastructure.apirest.dto.response;
 
-import java.util.List;
-
 import com.example.infrastructure.apirest.dto.common.PersonalInformationDto;
 
 import lombok.AllArgsConstructor;
@@ -21,5 +19,5 @@ public class ResponsePatientDto {
 	PersonalInformationDto personalInformationDto;
 	double height;
 	double weight;
-	List<String> idPatientAppointments;
+	Long version;
 }
\ No newline at end of file
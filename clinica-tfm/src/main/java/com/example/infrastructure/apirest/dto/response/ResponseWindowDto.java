@@ -0,0 +1,21 @@
+package com.example.infrastructure.apirest.dto.response;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.extern.jackson.Jacksonized;
+
+@Data
+@Builder
+@Jacksonized
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResponseWindowDto<T> {
+	List<T> content;
+	int size;
+	boolean hasNext;
+	String nextCursor;
+}
@@ -0,0 +1,87 @@
+package com.example.infrastructure.apirest.export;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Writes a stream of rows as newline-delimited JSON, one row per line, as they
+ * are read. The rows are written straight to the response, which is flushed
+ * every batch, so a slow client blocks the reading instead of it piling up in
+ * memory. The rows are only read once the body is written, on the thread
+ * writing it, so a request thread never holds a cursor. When the client
+ * disconnects, the stream, and so its cursor, is closed.
+ *
+ * An export may last much longer than other asynchronous requests, so the
+ * request writing it is given the timeout of the exports alone.
+ */
+@Slf4j
+@Component
+public class ClinicNdjsonWriter {
+
+	private static final byte NEW_LINE = '\n';
+
+	@Autowired
+	ObjectMapper objectMapper;
+
+	@Value("${custom.export.batch-size:500}")
+	int batchSize;
+
+	@Value("${custom.export.timeout:1h}")
+	Duration timeout;
+
+	/**
+	 * Builds the body writing the given rows, opening them when it is written and
+	 * closing them once written or on failure, and sets the timeout of the exports
+	 * on the current request.
+	 * 
+	 * @param rows   The opening of the rows to write, read as they are written.
+	 * @param mapper The conversion of every row to the object to write.
+	 * @return The body of the response.
+	 */
+	public <T, R> StreamingResponseBody write(Supplier<Stream<T>> rows, Function<T, R> mapper) {
+		setTimeout();
+
+		return out -> {
+			long written = 0;
+			try (Stream<T> opened = rows.get()) {
+				Iterator<T> iterator = opened.iterator();
+				while (iterator.hasNext()) {
+					out.write(objectMapper.writeValueAsBytes(mapper.apply(iterator.next())));
+					out.write(NEW_LINE);
+					if (++written % batchSize == 0) {
+						out.flush();
+					}
+				}
+				out.flush();
+			} finally {
+				log.debug("Exported " + written + " rows");
+			}
+		};
+	}
+
+	private void setTimeout() {
+		if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes) {
+			AsyncWebRequest asyncWebRequest = WebAsyncUtils.getAsyncManager(attributes.getRequest())
+					.getAsyncWebRequest();
+			if (asyncWebRequest != null) {
+				asyncWebRequest.setTimeout(timeout.toMillis());
+			}
+		}
+	}
+}
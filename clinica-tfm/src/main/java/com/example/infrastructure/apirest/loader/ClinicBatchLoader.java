@@ -0,0 +1,107 @@
+package com.example.infrastructure.apirest.loader;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.annotation.RequestScope;
+
+import com.example.application.port.input.DoctorServiceInputPort;
+import com.example.application.port.input.PatientServiceInputPort;
+import com.example.domain.model.Doctor;
+import com.example.domain.model.Patient;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Loads the doctors and patients referenced while building a response. The IDs
+ * are first announced, and the first lookup resolves every ID announced so far
+ * with a single multi-get per kind, which reads the cache first. Results are
+ * kept until the end of the request, so each ID is resolved once.
+ */
+@Slf4j
+@Component
+@RequestScope
+public class ClinicBatchLoader {
+
+	@Autowired
+	DoctorServiceInputPort doctorServiceInputPort;
+
+	@Autowired
+	PatientServiceInputPort patientServiceInputPort;
+
+	private final Map<String, Optional<Doctor>> doctors = new HashMap<>();
+
+	private final Map<String, Optional<Patient>> patients = new HashMap<>();
+
+	private final Set<String> pendingDoctors = new HashSet<>();
+
+	private final Set<String> pendingPatients = new HashSet<>();
+
+	/**
+	 * Announces a doctor that will be looked up.
+	 * 
+	 * @param id The ID of the doctor, ignored if null.
+	 */
+	public void addDoctor(String id) {
+		if (id != null && !doctors.containsKey(id)) {
+			pendingDoctors.add(id);
+		}
+	}
+
+	/**
+	 * Announces a patient that will be looked up.
+	 * 
+	 * @param id The ID of the patient, ignored if null.
+	 */
+	public void addPatient(String id) {
+		if (id != null && !patients.containsKey(id)) {
+			pendingPatients.add(id);
+		}
+	}
+
+	/**
+	 * Looks up a doctor, together with every doctor announced and not resolved.
+	 * 
+	 * @param id The ID of the doctor.
+	 * @return An Optional containing the doctor if found, or empty if not found.
+	 */
+	public Optional<Doctor> getDoctor(String id) {
+		addDoctor(id);
+		if (!pendingDoctors.isEmpty()) {
+			resolve(pendingDoctors, doctors, doctorServiceInputPort::getDoctors);
+		}
+		return id == null ? Optional.empty() : doctors.get(id);
+	}
+
+	/**
+	 * Looks up a patient, together with every patient announced and not resolved.
+	 * 
+	 * @param id The ID of the patient.
+	 * @return An Optional containing the patient if found, or empty if not found.
+	 */
+	public Optional<Patient> getPatient(String id) {
+		addPatient(id);
+		if (!pendingPatients.isEmpty()) {
+			resolve(pendingPatients, patients, patientServiceInputPort::getPatients);
+		}
+		return id == null ? Optional.empty() : patients.get(id);
+	}
+
+	private <T> void resolve(Set<String> pending, Map<String, Optional<T>> resolved,
+			Function<Collection<String>, Map<String, T>> multiGet) {
+		log.debug("Resolving " + pending.size() + " references");
+
+		Map<String, T> found = multiGet.apply(pending);
+		for (String id : pending) {
+			resolved.put(id, Optional.ofNullable(found.get(id)));
+		}
+		pending.clear();
+	}
+}
@@ -0,0 +1,29 @@
+package com.example.infrastructure.apirest.mapper.appointment_object;
+
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.ReportingPolicy;
+
+import com.example.domain.mapper.BaseMapper;
+import com.example.infrastructure.apirest.dto.response.ResponseAppointmentDto;
+import com.example.infrastructure.apirest.dto.response.ResponseDoctorDto;
+import com.example.infrastructure.apirest.dto.response.ResponsePatientDto;
+import com.example.infrastructure.repository.mongodb.entity.DoctorSummaryEntity;
+import com.example.infrastructure.repository.mongodb.entity.PatientSummaryEntity;
+import com.example.infrastructure.repository.mongodb.projection.AppointmentView;
+
+@Mapper(componentModel = "spring", unmappedTargetPolicy = ReportingPolicy.IGNORE)
+public interface AppointmentViewToResponseAppointmentDtoMapper
+		extends BaseMapper<AppointmentView, ResponseAppointmentDto> {
+	@Mapping(source = "personalInformation", target = "personalInformationDto")
+	ResponseDoctorDto doctorSummaryToResponseDoctorDto(DoctorSummaryEntity doctor);
+
+	@Mapping(source = "personalInformationDto", target = "personalInformation")
+	DoctorSummaryEntity responseDoctorDtoToDoctorSummary(ResponseDoctorDto doctor);
+
+	@Mapping(source = "personalInformation", target = "personalInformationDto")
+	ResponsePatientDto patientSummaryToResponsePatientDto(PatientSummaryEntity patient);
+
+	@Mapping(source = "personalInformationDto", target = "personalInformation")
+	PatientSummaryEntity responsePatientDtoToPatientSummary(ResponsePatientDto patient);
+}
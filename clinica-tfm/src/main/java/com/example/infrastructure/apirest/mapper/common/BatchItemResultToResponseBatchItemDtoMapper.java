@@ -0,0 +1,14 @@
+package com.example.infrastructure.apirest.mapper.common;
+
+import org.mapstruct.Mapper;
+import org.mapstruct.ReportingPolicy;
+
+import com.example.application.util.BatchItemResult;
+import com.example.domain.mapper.BaseMapper;
+import com.example.infrastructure.apirest.dto.response.ResponseBatchItemDto;
+
+@Mapper(componentModel = "spring", unmappedTargetPolicy = ReportingPolicy.IGNORE)
+public interface BatchItemResultToResponseBatchItemDtoMapper
+		extends BaseMapper<BatchItemResult, ResponseBatchItemDto> {
+
+}
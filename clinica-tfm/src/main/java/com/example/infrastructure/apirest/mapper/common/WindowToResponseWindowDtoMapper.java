@@ -0,0 +1,151 @@
+package com.example.infrastructure.apirest.mapper.common;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.stereotype.Component;
+
+import com.example.application.util.ClinicLogicException;
+import com.example.application.util.Errors;
+import com.example.infrastructure.apirest.dto.response.ResponseWindowDto;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Maps the windows of the keyset pagination to their response, and the
+ * continuation tokens (cursors) sent by the clients back to positions.
+ * 
+ * A cursor is the keyset of the last element of a window (the values of the
+ * sort properties and the ID) with the type of every value, as URL-safe Base64
+ * JSON. Clients must treat it as opaque, and send the same sort with it: a
+ * cursor whose keys are not exactly the properties of the sort and the ID is
+ * rejected, as its keys end up in the query.
+ */
+@Component
+public class WindowToResponseWindowDtoMapper {
+
+	@Autowired
+	ObjectMapper objectMapper;
+
+	/**
+	 * Maps a window to its response.
+	 * 
+	 * @param window  The window.
+	 * @param content The content of the window, already mapped.
+	 * @return The response, with the cursor of the next window if any.
+	 */
+	public <T> ResponseWindowDto<T> fromInputToOutput(Window<?> window, List<T> content) {
+		String nextCursor = window.hasNext() && !window.isEmpty() ? toCursor(window.positionAt(window.size() - 1))
+				: null;
+
+		return ResponseWindowDto.<T>builder().content(content).size(content.size()).hasNext(window.hasNext())
+				.nextCursor(nextCursor).build();
+	}
+
+	/**
+	 * Maps a cursor to the position it continues from.
+	 * 
+	 * @param cursor     The cursor, empty for the first window.
+	 * @param sort       The sort the window is requested with.
+	 * @param idProperty The name of the ID property of the listed view.
+	 * @return The position.
+	 * @throws ClinicLogicException If the cursor is not valid, or was not issued
+	 *                              for that sort.
+	 */
+	public ScrollPosition positionOf(String cursor, Sort sort, String idProperty) throws ClinicLogicException {
+		if (cursor == null || cursor.isBlank()) {
+			return ScrollPosition.keyset();
+		}
+
+		try {
+			List<List<String>> keys = objectMapper.readValue(Base64.getUrlDecoder().decode(cursor),
+					new TypeReference<List<List<String>>>() {
+					});
+
+			Map<String, Object> keyset = new LinkedHashMap<>();
+			for (List<String> key : keys) {
+				keyset.put(key.get(0), valueOf(key.get(1), key.get(2)));
+			}
+
+			Set<String> expected = new HashSet<>();
+			expected.add(idProperty);
+			sort.forEach(order -> expected.add(order.getProperty()));
+			if (keys.size() != keyset.size() || !keyset.keySet().equals(expected)) {
+				throw new ClinicLogicException(Errors.INVALID_CURSOR);
+			}
+			return ScrollPosition.forward(keyset);
+		} catch (IOException | RuntimeException ex) {
+			throw new ClinicLogicException(Errors.INVALID_CURSOR);
+		}
+	}
+
+	private String toCursor(ScrollPosition position) {
+		if (!(position instanceof KeysetScrollPosition keyset)) {
+			return null;
+		}
+
+		List<List<String>> keys = new ArrayList<>();
+		keyset.getKeys().forEach((name, value) -> keys.add(Arrays.asList(name, typeOf(value),
+				value == null ? null : value.toString())));
+
+		try {
+			return Base64.getUrlEncoder().withoutPadding().encodeToString(objectMapper.writeValueAsBytes(keys));
+		} catch (IOException ex) {
+			throw new IllegalStateException(ex);
+		}
+	}
+
+	private String typeOf(Object value) {
+		if (value == null) {
+			return "N";
+		}
+		if (value instanceof ObjectId) {
+			return "O";
+		}
+		if (value instanceof LocalDate) {
+			return "D";
+		}
+		if (value instanceof LocalDateTime) {
+			return "T";
+		}
+		if (value instanceof Double || value instanceof Float) {
+			return "F";
+		}
+		if (value instanceof Integer || value instanceof Long) {
+			return "L";
+		}
+		if (value instanceof Boolean) {
+			return "B";
+		}
+		return "S";
+	}
+
+	private Object valueOf(String type, String value) {
+		return switch (type) {
+		case "N" -> null;
+		case "O" -> new ObjectId(value);
+		case "D" -> LocalDate.parse(value);
+		case "T" -> LocalDateTime.parse(value);
+		case "F" -> Double.valueOf(value);
+		case "L" -> Long.valueOf(value);
+		case "B" -> Boolean.valueOf(value);
+		case "S" -> value;
+		default -> throw new IllegalArgumentException("Unknown cursor value type " + type);
+		};
+	}
+}
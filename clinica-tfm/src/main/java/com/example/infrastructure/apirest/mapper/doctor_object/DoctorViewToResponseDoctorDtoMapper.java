@@ -0,0 +1,18 @@
+package com.example.infrastructure.apirest.mapper.doctor_object;
+
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.ReportingPolicy;
+
+import com.example.domain.mapper.BaseMapper;
+import com.example.infrastructure.apirest.dto.response.ResponseDoctorDto;
+import com.example.infrastructure.repository.mongodb.projection.DoctorView;
+
+@Mapper(componentModel = "spring", unmappedTargetPolicy = ReportingPolicy.IGNORE)
+public interface DoctorViewToResponseDoctorDtoMapper extends BaseMapper<DoctorView, ResponseDoctorDto> {
+	@Mapping(source = "personalInformationDto", target = "personalInformationEntity")
+	DoctorView fromOutputToInput(ResponseDoctorDto input);
+
+	@Mapping(source = "personalInformationEntity", target = "personalInformationDto")
+	ResponseDoctorDto fromInputToOutput(DoctorView input);
+}
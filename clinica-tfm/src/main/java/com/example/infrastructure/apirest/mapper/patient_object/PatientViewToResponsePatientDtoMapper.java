@@ -0,0 +1,18 @@
+package com.example.infrastructure.apirest.mapper.patient_object;
+
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.ReportingPolicy;
+
+import com.example.domain.mapper.BaseMapper;
+import com.example.infrastructure.apirest.dto.response.ResponsePatientDto;
+import com.example.infrastructure.repository.mongodb.projection.PatientView;
+
+@Mapper(componentModel = "spring", unmappedTargetPolicy = ReportingPolicy.IGNORE)
+public interface PatientViewToResponsePatientDtoMapper extends BaseMapper<PatientView, ResponsePatientDto> {
+	@Mapping(source = "personalInformationDto", target = "personalInformationEntity")
+	PatientView fromOutputToInput(ResponsePatientDto input);
+
+	@Mapping(source = "personalInformationEntity", target = "personalInformationDto")
+	ResponsePatientDto fromInputToOutput(PatientView input);
+}
@@ -0,0 +1,27 @@
+package com.example.infrastructure.cache.configuration;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.messaging.DefaultMessageListenerContainer;
+import org.springframework.data.mongodb.core.messaging.MessageListenerContainer;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Container running the change streams that keep the cache of every instance
+ * in sync with the collections, see
+ * {@link com.example.infrastructure.cache.service.ClinicCacheChangeStreamListener}.
+ * It is started and stopped with the application context. The resume tokens
+ * are written by a scheduled task.
+ */
+@Configuration
+@EnableScheduling
+@ConditionalOnProperty(prefix = "custom.cache.change-stream", name = "enabled", havingValue = "true")
+public class CacheChangeStreamConfiguration {
+
+	@Bean
+	MessageListenerContainer cacheChangeStreamContainer(MongoTemplate mongoTemplate) {
+		return new DefaultMessageListenerContainer(mongoTemplate);
+	}
+}
@@ -0,0 +1,110 @@
+package com.example.infrastructure.cache.configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.support.SimpleCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.example.infrastructure.cache.service.CacheTagIndex;
+import com.example.infrastructure.cache.service.ClinicCaffeineCache;
+import com.example.infrastructure.cache.service.SharedCacheTier;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalListener;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Builds one bounded Caffeine (W-TinyLFU) cache per configured region. Every
+ * region records statistics, which actuator exports as the {@code cache.gets},
+ * {@code cache.puts} and {@code cache.evictions} metrics, and keeps a tag index
+ * used for targeted eviction.
+ *
+ * Lookups that found nothing are kept apart, in a smaller cache with a shorter
+ * expiration, so that misses cannot push real entries out of the region.
+ *
+ * When a {@link SharedCacheTier} is configured ({@code custom.cache.shared.tier}),
+ * every region sits in front of it.
+ */
+@Slf4j
+@Configuration
+@EnableConfigurationProperties(CacheProperties.class)
+public class CacheConfiguration {
+
+	@Bean
+	CacheManager cacheManager(CacheProperties cacheProperties, ObjectProvider<SharedCacheTier> sharedCacheTier) {
+		List<ClinicCaffeineCache> caches = new ArrayList<>();
+
+		for (Map.Entry<String, CacheProperties.Region> region : cacheProperties.getRegions().entrySet()) {
+			log.debug("Configuring cache region " + region.getKey() + " with " + region.getValue());
+
+			CacheTagIndex tagIndex = new CacheTagIndex();
+			AtomicReference<ClinicCaffeineCache> cache = new AtomicReference<>();
+
+			// Removals are reported once done, and the key may have been stored again
+			// meanwhile, found or not found.
+			RemovalListener<Object, Object> untagIfGone = (key, value, cause) -> cache.get().untagIfGone(key);
+
+			cache.set(new ClinicCaffeineCache(region.getKey(), buildCache(region.getValue(), tagIndex),
+					buildNegativeCache(region.getValue(), untagIfGone), tagIndex, sharedCacheTier.getIfAvailable()));
+			caches.add(cache.get());
+		}
+
+		SimpleCacheManager cacheManager = new SimpleCacheManager();
+		cacheManager.setCaches(caches);
+		return cacheManager;
+	}
+
+	/**
+	 * Exports how many loads each region ran and how many were avoided by joining
+	 * a load of the same key already in flight, and the statistics of the
+	 * "not found" results of each region as the {@code <region>.negative} cache.
+	 */
+	@Bean
+	MeterBinder cacheLoadMetrics(CacheManager cacheManager) {
+		return registry -> {
+			for (String name : cacheManager.getCacheNames()) {
+				if (cacheManager.getCache(name) instanceof ClinicCaffeineCache clinicCache) {
+					FunctionCounter.builder("cache.loads", clinicCache, ClinicCaffeineCache::getLoads)
+							.tag("cache", name).description("Loads executed on synchronized cache misses")
+							.register(registry);
+					FunctionCounter.builder("cache.loads.coalesced", clinicCache, ClinicCaffeineCache::getCoalesced)
+							.tag("cache", name).description("Loads avoided by joining a load already in flight")
+							.register(registry);
+					CaffeineCacheMetrics.monitor(registry, clinicCache.getNegativeCache(), name + ".negative");
+				}
+			}
+		};
+	}
+
+	private Cache<Object, Object> buildCache(CacheProperties.Region region, CacheTagIndex tagIndex) {
+		Caffeine<Object, Object> builder = Caffeine.newBuilder().maximumSize(region.getMaximumSize())
+				.expireAfterWrite(region.getExpireAfterWrite()).recordStats()
+				.evictionListener((key, value, cause) -> tagIndex.untag(key));
+
+		// Values are produced by the @Cacheable methods, there is no loader to refresh
+		// them with: an entry is served until it expires or a write evicts it.
+		return builder.build();
+	}
+
+	private Cache<Object, Boolean> buildNegativeCache(CacheProperties.Region region,
+			RemovalListener<Object, Object> untagIfGone) {
+		return Caffeine.newBuilder().maximumSize(region.getNegativeMaximumSize())
+				.expireAfterWrite(region.getNegativeExpireAfterWrite()).recordStats()
+				.removalListener((key, value, cause) -> {
+					if (cause.wasEvicted()) {
+						untagIfGone.onRemoval(key, value, cause);
+					}
+				}).build();
+	}
+}
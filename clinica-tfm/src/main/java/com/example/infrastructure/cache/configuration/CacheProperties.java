@@ -0,0 +1,127 @@
+package com.example.infrastructure.cache.configuration;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+/**
+ * Sizing and expiration settings for every cache region, bound from
+ * {@code custom.cache.regions.<region>}, the startup warm-up, bound from
+ * {@code custom.cache.warm-up}, and the invalidation from MongoDB change
+ * streams, bound from {@code custom.cache.change-stream}, the shared tier,
+ * bound from {@code custom.cache.shared}, and the cached totals of the
+ * listings, bound from {@code custom.cache.counts}.
+ */
+@Data
+@ConfigurationProperties(prefix = "custom.cache")
+public class CacheProperties {
+
+	private Map<String, Region> regions = new LinkedHashMap<>();
+
+	private WarmUp warmUp = new WarmUp();
+
+	private ChangeStream changeStream = new ChangeStream();
+
+	private Shared shared = new Shared();
+
+	private Counts counts = new Counts();
+
+	/**
+	 * Retrieves the settings of a region.
+	 *
+	 * @param name The name of the region.
+	 * @return The settings of the region, or the defaults if not configured.
+	 */
+	public Region region(String name) {
+		return regions.getOrDefault(name, new Region());
+	}
+
+	@Data
+	public static class Region {
+		/** Maximum number of entries kept in the region. */
+		private long maximumSize = 1000;
+
+		/** Time after which an entry is dropped from the region. */
+		private Duration expireAfterWrite = Duration.ofMinutes(10);
+
+		/** Maximum number of "not found" results kept in the region. */
+		private long negativeMaximumSize = 1000;
+
+		/** Time after which a "not found" result is dropped from the region. */
+		private Duration negativeExpireAfterWrite = Duration.ofMinutes(1);
+	}
+
+	@Data
+	public static class WarmUp {
+		/** Whether active doctors and patients are loaded into the cache at startup. */
+		private boolean enabled = false;
+
+		/** Time after which the warm-up stops and the application starts anyway. */
+		private Duration timeout = Duration.ofSeconds(30);
+
+		/** Maximum number of doctors, and of patients, loaded. */
+		private int maxEntries = 10000;
+
+		/** Number of documents read from MongoDB and cached per task. */
+		private int batchSize = 500;
+
+		/** Number of threads loading the batches. */
+		private int parallelism = 4;
+	}
+
+	@Data
+	public static class ChangeStream {
+		/**
+		 * Whether writes made by any instance, as seen on the collections, evict the
+		 * local cache. Requires MongoDB to run as a replica set.
+		 */
+		private boolean enabled = false;
+
+		/** Collection where every instance keeps its resume tokens. */
+		private String resumeTokenCollection = "CACHE_RESUME_TOKENS";
+
+		/** Name of this instance in the resume token collection, the host name if unset. */
+		private String nodeId;
+
+		/** Time waited before reopening a change stream that failed. */
+		private Duration retryDelay = Duration.ofSeconds(5);
+
+		/** Time between two writes of the resume tokens of this instance. */
+		private Duration tokenFlushInterval = Duration.ofSeconds(5);
+	}
+
+	@Data
+	public static class Shared {
+		/**
+		 * Tier shared by every instance behind the local regions: {@code none},
+		 * {@code redis}, or {@code memory}, an in-process stand-in for tests.
+		 */
+		private String tier = "none";
+
+		/** Whether evictions are broadcast over Kafka to the other instances. */
+		private boolean broadcastInvalidations = false;
+
+		/** Identifies the invalidations sent by this instance, so that it skips them. */
+		private String nodeId = UUID.randomUUID().toString();
+	}
+
+	@Data
+	public static class Counts {
+		/** Maximum number of filters whose total is kept. */
+		private long maximumSize = 1000;
+
+		/**
+		 * Age after which a total is counted again in the background, on its next
+		 * read. It is still served meanwhile.
+		 */
+		private Duration refreshAfterWrite = Duration.ofSeconds(30);
+
+		/** Time after which a total that was not refreshed meanwhile is dropped. */
+		private Duration expireAfterWrite = Duration.ofMinutes(10);
+	}
+}
@@ -0,0 +1,101 @@
+package com.example.infrastructure.cache.key;
+
+import java.util.Objects;
+
+import com.example.application.util.CountMode;
+
+import lombok.Getter;
+
+/**
+ * Immutable cache key identifying one repository lookup: the entity type, the
+ * kind of lookup, the id or document it was made with and, for paged lookups,
+ * the page, size, sort and count mode. The hash is computed once, as keys are hashed on
+ * every cache access.
+ */
+@Getter
+public final class ClinicCacheKey {
+
+	public enum EntityType {
+		PATIENT, DOCTOR, APPOINTMENT
+	}
+
+	public enum Operation {
+		BY_ID, BY_DOCUMENT, PAGE, PAGE_BY_DOCTOR_DOCUMENT, PAGE_BY_PATIENT_DOCUMENT
+	}
+
+	private static final int UNPAGED = -1;
+
+	private final EntityType entityType;
+	private final Operation operation;
+	private final String value;
+	private final int page;
+	private final int size;
+	private final String sort;
+	private final CountMode countMode;
+	private final int hash;
+
+	ClinicCacheKey(EntityType entityType, Operation operation, String value, int page, int size, String sort,
+			CountMode countMode) {
+		this.entityType = entityType;
+		this.operation = operation;
+		this.value = value;
+		this.page = page;
+		this.size = size;
+		this.sort = sort;
+		this.countMode = countMode;
+		this.hash = Objects.hash(entityType, operation, value, page, size, sort, countMode);
+	}
+
+	static ClinicCacheKey single(EntityType entityType, Operation operation, String value) {
+		return new ClinicCacheKey(entityType, operation, value, UNPAGED, UNPAGED, null, null);
+	}
+
+	static ClinicCacheKey unpaged(EntityType entityType, Operation operation, String value, CountMode countMode) {
+		return new ClinicCacheKey(entityType, operation, value, UNPAGED, UNPAGED, null, countMode);
+	}
+
+	/**
+	 * Scope shared by every key of the same lookup regardless of the page, used
+	 * to evict all the pages of a listing at once.
+	 *
+	 * @return The scope of the key.
+	 */
+	public String scope() {
+		return scope(operation, value);
+	}
+
+	/**
+	 * Builds the scope of the keys of a lookup.
+	 *
+	 * @param operation The kind of lookup.
+	 * @param value     The id or document of the lookup, null for plain listings.
+	 * @return The scope.
+	 */
+	public static String scope(Operation operation, String value) {
+		return value == null ? operation.name() : operation.name() + ":" + value;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof ClinicCacheKey other)) {
+			return false;
+		}
+		return hash == other.hash && page == other.page && size == other.size && entityType == other.entityType
+				&& operation == other.operation && countMode == other.countMode && Objects.equals(value, other.value)
+				&& Objects.equals(sort, other.sort);
+	}
+
+	@Override
+	public int hashCode() {
+		return hash;
+	}
+
+	@Override
+	public String toString() {
+		return page == UNPAGED ? entityType + ":" + scope()
+				: entityType + ":" + scope() + ":" + page + ":" + size + ":" + sort + ":" + countMode;
+	}
+}
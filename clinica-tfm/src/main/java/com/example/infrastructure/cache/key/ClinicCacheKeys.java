@@ -0,0 +1,49 @@
+package com.example.infrastructure.cache.key;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+import com.example.application.util.CountMode;
+import com.example.infrastructure.cache.key.ClinicCacheKey.EntityType;
+import com.example.infrastructure.cache.key.ClinicCacheKey.Operation;
+
+/**
+ * Factory of {@link ClinicCacheKey}, referenced from the {@code @Cacheable}
+ * expressions as {@code @clinicCacheKeys}.
+ */
+@Component("clinicCacheKeys")
+public class ClinicCacheKeys {
+
+	public ClinicCacheKey byId(EntityType entityType, String id) {
+		return ClinicCacheKey.single(entityType, Operation.BY_ID, id);
+	}
+
+	public ClinicCacheKey byDocument(EntityType entityType, String document) {
+		return ClinicCacheKey.single(entityType, Operation.BY_DOCUMENT, document);
+	}
+
+	public ClinicCacheKey page(EntityType entityType, Pageable pageable) {
+		return page(entityType, pageable, CountMode.EXACT);
+	}
+
+	public ClinicCacheKey page(EntityType entityType, Pageable pageable, CountMode countMode) {
+		return paged(entityType, Operation.PAGE, null, pageable, countMode);
+	}
+
+	public ClinicCacheKey pageByDoctorDocument(String document, Pageable pageable, CountMode countMode) {
+		return paged(EntityType.APPOINTMENT, Operation.PAGE_BY_DOCTOR_DOCUMENT, document, pageable, countMode);
+	}
+
+	public ClinicCacheKey pageByPatientDocument(String document, Pageable pageable, CountMode countMode) {
+		return paged(EntityType.APPOINTMENT, Operation.PAGE_BY_PATIENT_DOCUMENT, document, pageable, countMode);
+	}
+
+	private ClinicCacheKey paged(EntityType entityType, Operation operation, String value, Pageable pageable,
+			CountMode countMode) {
+		if (pageable == null || pageable.isUnpaged()) {
+			return ClinicCacheKey.unpaged(entityType, operation, value, countMode);
+		}
+		return new ClinicCacheKey(entityType, operation, value, pageable.getPageNumber(), pageable.getPageSize(),
+				pageable.getSort().toString(), countMode);
+	}
+}
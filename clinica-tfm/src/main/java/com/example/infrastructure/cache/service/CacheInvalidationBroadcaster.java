@@ -0,0 +1,16 @@
+package com.example.infrastructure.cache.service;
+
+/**
+ * Tells the other instances about the evictions made by this one, so that they
+ * drop the stale entries of their local regions.
+ */
+public interface CacheInvalidationBroadcaster {
+
+	/**
+	 * Broadcasts the eviction of a tag.
+	 *
+	 * @param region The cache region.
+	 * @param tag    The evicted tag, see {@link CacheTags}.
+	 */
+	void broadcast(String region, String tag);
+}
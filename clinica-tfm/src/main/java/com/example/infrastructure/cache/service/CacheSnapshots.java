@@ -0,0 +1,253 @@
+package com.example.infrastructure.cache.service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+
+import com.example.domain.model.Appointment;
+import com.example.domain.model.Doctor;
+import com.example.domain.model.IdDocument;
+import com.example.domain.model.Patient;
+import com.example.domain.model.PersonalInformation;
+
+/**
+ * Builds the copies stored in the cache regions. A snapshot shares nothing with
+ * the object returned to the caller that loaded it, its setters throw
+ * {@link UnsupportedOperationException} and its lists are unmodifiable, so
+ * mutating a cached value fails fast instead of silently corrupting what every
+ * other request reads.
+ *
+ * The copy is made once, when the value is stored. Hits return the snapshot
+ * itself, so code about to modify a value read from a repository port must
+ * copy it first (see {@link com.example.domain.mapper.ClinicPatchMapper}).
+ */
+public class CacheSnapshots {
+
+	private CacheSnapshots() {
+		// Private Constructor
+	}
+
+	/**
+	 * Returns the snapshot of a value about to be cached.
+	 *
+	 * @param value The value as loaded from the repository.
+	 * @return An independent, read-only copy of the value.
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T> T of(T value) {
+		if (value instanceof Page<?> page) {
+			List<Object> content = new ArrayList<>(page.getNumberOfElements());
+			page.forEach(element -> content.add(of(element)));
+			return (T) new PageImpl<>(Collections.unmodifiableList(content), page.getPageable(),
+					page.getTotalElements());
+		}
+		if (value instanceof Slice<?> slice) {
+			List<Object> content = new ArrayList<>(slice.getNumberOfElements());
+			slice.forEach(element -> content.add(of(element)));
+			return (T) new SliceImpl<>(Collections.unmodifiableList(content), slice.getPageable(), slice.hasNext());
+		}
+		if (value instanceof Patient patient) {
+			return (T) snapshot(patient);
+		}
+		if (value instanceof Doctor doctor) {
+			return (T) snapshot(doctor);
+		}
+		if (value instanceof Appointment appointment) {
+			return (T) new ReadOnlyAppointment(appointment.getAppointmentId(), snapshot(appointment.getDoctor()),
+					snapshot(appointment.getPatient()), appointment.getDate(), appointment.getDiagnostic(),
+					appointment.getTreatment(), appointment.getVersion());
+		}
+		return value;
+	}
+
+	private static Patient snapshot(Patient patient) {
+		return patient == null ? null
+				: new ReadOnlyPatient(patient.getId(), patient.getSocialSecurityNumber(),
+						snapshot(patient.getPersonalInformation()), patient.getHeight(), patient.getWeight(),
+						readOnly(patient.getIdPatientAppointments()), patient.getVersion());
+	}
+
+	private static Doctor snapshot(Doctor doctor) {
+		return doctor == null ? null
+				: new ReadOnlyDoctor(doctor.getId(), doctor.getLicenseNum(), doctor.getMirDate(),
+						snapshot(doctor.getPersonalInformation()), readOnly(doctor.getSpecializations()),
+						readOnly(doctor.getIdDoctorAppointments()), doctor.getVersion());
+	}
+
+	private static PersonalInformation snapshot(PersonalInformation info) {
+		return info == null ? null
+				: new ReadOnlyPersonalInformation(info.getName(), info.getSurname(), info.getIdDocument(),
+						info.getDocument());
+	}
+
+	private static <E> List<E> readOnly(List<E> list) {
+		return list == null ? null : Collections.unmodifiableList(new ArrayList<>(list));
+	}
+
+	private static UnsupportedOperationException cachedValue() {
+		return new UnsupportedOperationException("Cached values are read-only, copy it before modifying it");
+	}
+
+	private static final class ReadOnlyPatient extends Patient {
+
+		ReadOnlyPatient(String id, String socialSecurityNumber, PersonalInformation personalInformation,
+				Double height, Double weight, List<String> idPatientAppointments, Long version) {
+			super(id, socialSecurityNumber, personalInformation, height, weight, idPatientAppointments, version);
+		}
+
+		@Override
+		public void setId(String id) {
+			throw cachedValue();
+		}
+
+		@Override
+		public void setSocialSecurityNumber(String socialSecurityNumber) {
+			throw cachedValue();
+		}
+
+		@Override
+		public void setPersonalInformation(PersonalInformation personalInformation) {
+			throw cachedValue();
+		}
+
+		@Override
+		public void setHeight(Double height) {
+			throw cachedValue();
+		}
+
+		@Override
+		public void setWeight(Double weight) {
+			throw cachedValue();
+		}
+
+		@Override
+		public void setIdPatientAppointments(List<String> idPatientAppointments) {
+			throw cachedValue();
+		}
+
+		@Override
+		public void setVersion(Long version) {
+			throw cachedValue();
+		}
+	}
+
+	private static final class ReadOnlyDoctor extends Doctor {
+
+		ReadOnlyDoctor(String id, String licenseNum, LocalDate mirDate, PersonalInformation personalInformation,
+				List<String> specializations, List<String> idDoctorAppointments, Long version) {
+			super(id, licenseNum, mirDate, personalInformation, specializations, idDoctorAppointments, version);
+		}
+
+		@Override
+		public void setId(String id) {
+			throw cachedValue();
+		}
+
+		@Override
+		public void setLicenseNum(String licenseNum) {
+			throw cachedValue();
+		}
+
+		@Override
+		public void setMirDate(LocalDate mirDate) {
+			throw cachedValue();
+		}
+
+		@Override
+		public void setPersonalInformation(PersonalInformation personalInformation) {
+			throw cachedValue();
+		}
+
+		@Override
+		public void setSpecializations(List<String> specializations) {
+			throw cachedValue();
+		}
+
+		@Override
+		public void setIdDoctorAppointments(List<String> idDoctorAppointments) {
+			throw cachedValue();
+		}
+
+		@Override
+		public void setVersion(Long version) {
+			throw cachedValue();
+		}
+	}
+
+	private static final class ReadOnlyAppointment extends Appointment {
+
+		ReadOnlyAppointment(String appointmentId, Doctor doctor, Patient patient, LocalDateTime date,
+				String diagnostic, String treatment, Long version) {
+			super(appointmentId, doctor, patient, date, diagnostic, treatment, version);
+		}
+
+		@Override
+		public void setAppointmentId(String appointmentId) {
+			throw cachedValue();
+		}
+
+		@Override
+		public void setDoctor(Doctor doctor) {
+			throw cachedValue();
+		}
+
+		@Override
+		public void setPatient(Patient patient) {
+			throw cachedValue();
+		}
+
+		@Override
+		public void setDate(LocalDateTime date) {
+			throw cachedValue();
+		}
+
+		@Override
+		public void setDiagnostic(String diagnostic) {
+			throw cachedValue();
+		}
+
+		@Override
+		public void setTreatment(String treatment) {
+			throw cachedValue();
+		}
+
+		@Override
+		public void setVersion(Long version) {
+			throw cachedValue();
+		}
+	}
+
+	private static final class ReadOnlyPersonalInformation extends PersonalInformation {
+
+		ReadOnlyPersonalInformation(String name, String surname, IdDocument idDocument, String document) {
+			super(name, surname, idDocument, document);
+		}
+
+		@Override
+		public void setName(String name) {
+			throw cachedValue();
+		}
+
+		@Override
+		public void setSurname(String surname) {
+			throw cachedValue();
+		}
+
+		@Override
+		public void setIdDocument(IdDocument idDocument) {
+			throw cachedValue();
+		}
+
+		@Override
+		public void setDocument(String document) {
+			throw cachedValue();
+		}
+	}
+}
@@ -0,0 +1,85 @@
+package com.example.infrastructure.cache.service;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Reverse index from a tag (for instance the id of an entity) to the cache keys
+ * whose values carry that tag. It lets a write evict only the keys that hold
+ * the changed entity instead of wiping the whole region.
+ */
+public class CacheTagIndex {
+
+	private final Map<String, Set<Object>> keysByTag = new ConcurrentHashMap<>();
+
+	private final Map<Object, Set<String>> tagsByKey = new ConcurrentHashMap<>();
+
+	/**
+	 * Replaces the tags registered for a key. The key is added to its new tags
+	 * before leaving the old ones, so a tag kept by the new value never misses
+	 * it, and every change of a tag's key set happens inside the compute of that
+	 * tag, so an add cannot land in a set that a concurrent removal has just
+	 * emptied and unlinked.
+	 *
+	 * @param key  The cache key.
+	 * @param tags The tags of the value now stored under the key.
+	 */
+	public void tag(Object key, Set<String> tags) {
+		for (String tag : tags) {
+			keysByTag.compute(tag, (t, keys) -> {
+				Set<Object> tagged = keys == null ? ConcurrentHashMap.newKeySet() : keys;
+
+				tagged.add(key);
+				return tagged;
+			});
+		}
+
+		Set<String> previous = tagsByKey.put(key, tags);
+
+		if (previous != null) {
+			removeFromTags(key, previous.stream().filter(tag -> !tags.contains(tag)).toList());
+		}
+	}
+
+	/**
+	 * Forgets a key that is no longer stored in the cache.
+	 *
+	 * @param key The cache key.
+	 */
+	public void untag(Object key) {
+		Set<String> tags = tagsByKey.remove(key);
+
+		if (tags != null) {
+			removeFromTags(key, tags);
+		}
+	}
+
+	/**
+	 * Returns the keys currently registered under a tag.
+	 *
+	 * @param tag The tag.
+	 * @return The keys holding the tag, never null.
+	 */
+	public Collection<Object> keysOf(String tag) {
+		Set<Object> keys = keysByTag.get(tag);
+
+		return keys == null ? Collections.emptySet() : Set.copyOf(keys);
+	}
+
+	public void clear() {
+		keysByTag.clear();
+		tagsByKey.clear();
+	}
+
+	private void removeFromTags(Object key, Collection<String> tags) {
+		for (String tag : tags) {
+			keysByTag.computeIfPresent(tag, (t, keys) -> {
+				keys.remove(key);
+				return keys.isEmpty() ? null : keys;
+			});
+		}
+	}
+}
@@ -0,0 +1,77 @@
+package com.example.infrastructure.cache.service;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import com.example.domain.model.Appointment;
+import com.example.domain.model.Doctor;
+import com.example.domain.model.Patient;
+import com.example.infrastructure.cache.key.ClinicCacheKey;
+
+/**
+ * Tags attached to cached values so that writes can find the keys they affect.
+ * A key is tagged with its scope (see {@link ClinicCacheKey#scope()}) and with
+ * the id of every entity its value holds, which for an appointment includes its
+ * doctor and patient, whose summaries it holds.
+ */
+public class CacheTags {
+
+	private CacheTags() {
+		// Private Constructor
+	}
+
+	/**
+	 * Tag of every key whose value is, or contains, the given entity.
+	 *
+	 * @param id The id of the entity.
+	 * @return The tag.
+	 */
+	public static String entity(String id) {
+		return "id:" + id;
+	}
+
+	/**
+	 * Computes the tags of a value about to be cached.
+	 *
+	 * @param key   The key of the value.
+	 * @param value The value, null when the lookup found nothing.
+	 * @return The tags of the value.
+	 */
+	public static Set<String> of(Object key, Object value) {
+		Set<String> tags = new HashSet<>();
+
+		if (key instanceof ClinicCacheKey clinicKey) {
+			tags.add(clinicKey.scope());
+		}
+
+		if (value instanceof Iterable<?> iterable) {
+			// Pages and plain lists alike.
+			iterable.forEach(element -> addEntity(tags, element));
+		} else {
+			addEntity(tags, value);
+		}
+		return tags;
+	}
+
+	private static void addEntity(Set<String> tags, Object value) {
+		String id = null;
+
+		if (value instanceof Patient patient) {
+			id = patient.getId();
+		} else if (value instanceof Doctor doctor) {
+			id = doctor.getId();
+		} else if (value instanceof Appointment appointment) {
+			id = appointment.getAppointmentId();
+			if (appointment.getDoctor() != null && appointment.getDoctor().getId() != null) {
+				tags.add(entity(appointment.getDoctor().getId()));
+			}
+			if (appointment.getPatient() != null && appointment.getPatient().getId() != null) {
+				tags.add(entity(appointment.getPatient().getId()));
+			}
+		}
+
+		if (id != null) {
+			tags.add(entity(id));
+		}
+	}
+}
@@ -0,0 +1,136 @@
+package com.example.infrastructure.cache.service;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.example.infrastructure.cache.configuration.CacheProperties;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Keeps, per instance and watched collection, the resume token of the last
+ * change handled, so that a restarted instance resumes its change streams where
+ * it left them instead of missing the changes made while it was down.
+ *
+ * Tokens are kept in memory as changes are handled, and only the latest of each
+ * collection is written, every {@code token-flush-interval} and on shutdown.
+ * An instance stopping abruptly replays the changes of its last interval, whose
+ * evictions are harmless.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "custom.cache.change-stream", name = "enabled", havingValue = "true")
+public class ChangeStreamResumeTokens {
+
+	private static final String DATA = "_data";
+
+	@Autowired
+	MongoTemplate mongoTemplate;
+
+	@Autowired
+	CacheProperties cacheProperties;
+
+	private final Map<String, String> pending = new ConcurrentHashMap<>();
+
+	/**
+	 * Retrieves the token to resume the change stream of a collection from.
+	 *
+	 * @param collection The watched collection.
+	 * @return The token, or empty if the stream must start from now.
+	 */
+	public Optional<BsonDocument> load(String collection) {
+		Document saved = mongoTemplate.findById(idOf(collection), Document.class, tokenCollection());
+
+		if (saved == null || saved.getString("token") == null) {
+			return Optional.empty();
+		}
+		return Optional.of(new BsonDocument(DATA, new BsonString(saved.getString("token"))));
+	}
+
+	/**
+	 * Records the token of the last change handled on a collection, to be
+	 * written with the next flush.
+	 *
+	 * @param collection  The watched collection.
+	 * @param resumeToken The resume token of the change.
+	 */
+	public void save(String collection, BsonDocument resumeToken) {
+		if (resumeToken != null && resumeToken.isString(DATA)) {
+			pending.put(collection, resumeToken.getString(DATA).getValue());
+		}
+	}
+
+	/**
+	 * Writes the latest token recorded for every collection since the last flush.
+	 * A token that could not be written is kept for the next one, unless a newer
+	 * token was recorded meanwhile.
+	 */
+	@PreDestroy
+	@Scheduled(initialDelayString = "${custom.cache.change-stream.token-flush-interval:PT5S}",
+			fixedDelayString = "${custom.cache.change-stream.token-flush-interval:PT5S}")
+	public void flush() {
+		for (String collection : pending.keySet()) {
+			String token = pending.remove(collection);
+
+			if (token == null) {
+				continue;
+			}
+			try {
+				mongoTemplate.upsert(Query.query(Criteria.where("_id").is(idOf(collection))),
+						Update.update("token", token).set("savedAt", Instant.now()), tokenCollection());
+			} catch (DataAccessException ex) {
+				log.error("Could not save the resume token of " + collection, ex);
+				pending.putIfAbsent(collection, token);
+			}
+		}
+	}
+
+	/**
+	 * Forgets the token of a collection, so that its stream starts from now.
+	 *
+	 * @param collection The watched collection.
+	 */
+	public void discard(String collection) {
+		pending.remove(collection);
+		mongoTemplate.remove(Query.query(Criteria.where("_id").is(idOf(collection))), tokenCollection());
+	}
+
+	private String tokenCollection() {
+		return cacheProperties.getChangeStream().getResumeTokenCollection();
+	}
+
+	private String idOf(String collection) {
+		return nodeId() + ":" + collection;
+	}
+
+	private String nodeId() {
+		String nodeId = cacheProperties.getChangeStream().getNodeId();
+
+		if (nodeId != null && !nodeId.isBlank()) {
+			return nodeId;
+		}
+		try {
+			return InetAddress.getLocalHost().getHostName();
+		} catch (UnknownHostException ex) {
+			return "localhost";
+		}
+	}
+}
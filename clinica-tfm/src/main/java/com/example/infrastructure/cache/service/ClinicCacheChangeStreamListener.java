@@ -0,0 +1,201 @@
+package com.example.infrastructure.cache.service;
+
+import java.util.Optional;
+
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.messaging.ChangeStreamRequest;
+import org.springframework.data.mongodb.core.messaging.ChangeStreamRequest.ChangeStreamRequestBuilder;
+import org.springframework.data.mongodb.core.messaging.Message;
+import org.springframework.data.mongodb.core.messaging.MessageListener;
+import org.springframework.data.mongodb.core.messaging.MessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import com.example.infrastructure.cache.configuration.CacheProperties;
+import com.example.infrastructure.repository.mongodb.entity.AppointmentEntity;
+import com.example.infrastructure.repository.mongodb.entity.DoctorEntity;
+import com.example.infrastructure.repository.mongodb.entity.PatientEntity;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.FullDocument;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Watches the doctor, patient and appointment collections and evicts, through
+ * {@link ClinicCacheEvictor#localOnly()}, the local cache entries affected by
+ * every change, whichever instance made it. The shared tier and the other
+ * instances are left alone: the instance making the write already evicted the
+ * former, and the latter watch the same streams. Changes made by this instance
+ * are evicted a second time, which is harmless.
+ *
+ * Each stream resumes after the last change handled (see
+ * {@link ChangeStreamResumeTokens}), or shortly before it, as the tokens are
+ * saved periodically. When a stream fails, or cannot resume because its token
+ * is no longer in the oplog, the changes in between are lost: the region of the
+ * collection is cleared and the stream is reopened from now.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "custom.cache.change-stream", name = "enabled", havingValue = "true")
+public class ClinicCacheChangeStreamListener implements MessageListener<ChangeStreamDocument<Document>, Document> {
+
+	@Autowired
+	MessageListenerContainer cacheChangeStreamContainer;
+
+	@Autowired
+	MongoTemplate mongoTemplate;
+
+	@Autowired
+	CacheManager cacheManager;
+
+	@Autowired
+	CacheProperties cacheProperties;
+
+	@Autowired
+	ClinicCacheEvictor clinicCacheEvictor;
+
+	@Autowired
+	ChangeStreamResumeTokens changeStreamResumeTokens;
+
+	private ClinicCacheEvictor localEvictor;
+
+	@PostConstruct
+	void watchCollections() {
+		localEvictor = clinicCacheEvictor.localOnly();
+		watch(mongoTemplate.getCollectionName(DoctorEntity.class));
+		watch(mongoTemplate.getCollectionName(PatientEntity.class));
+		watch(mongoTemplate.getCollectionName(AppointmentEntity.class));
+	}
+
+	@Override
+	public void onMessage(Message<ChangeStreamDocument<Document>, Document> message) {
+		ChangeStreamDocument<Document> change = message.getRaw();
+		String collection = message.getProperties().getCollectionName();
+
+		if (change == null || collection == null) {
+			return;
+		}
+
+		try {
+			evict(collection, change);
+		} catch (RuntimeException ex) {
+			// Whatever the change touched may still be cached.
+			log.error("Could not evict the change on " + collection + ", clearing its region", ex);
+			clearRegion(collection);
+		}
+		changeStreamResumeTokens.save(collection, change.getResumeToken());
+	}
+
+	private void evict(String collection, ChangeStreamDocument<Document> change) {
+		String id = idOf(change.getDocumentKey());
+		Document document = change.getFullDocument();
+
+		log.debug("Change " + change.getOperationType() + " of " + id + " on " + collection);
+
+		if (collection.equals(mongoTemplate.getCollectionName(AppointmentEntity.class))) {
+			localEvictor.appointmentChanged(id, documentOf(document, "doctor", "personalInformation"),
+					documentOf(document, "patient", "personalInformation"));
+			return;
+		}
+
+		String region = regionOf(collection);
+		String entityDocument = documentOf(document, "personalInformationEntity");
+
+		switch (change.getOperationType()) {
+		case INSERT -> localEvictor.entityCreated(region, entityDocument);
+		case UPDATE, REPLACE -> localEvictor.entityModified(region, id, entityDocument);
+		case DELETE -> localEvictor.entityDeleted(region, id);
+		default -> clearRegion(collection);
+		}
+	}
+
+	private void watch(String collection) {
+		ChangeStreamRequestBuilder<Document> request = ChangeStreamRequest.builder(this).collection(collection)
+				.fullDocumentLookup(FullDocument.UPDATE_LOOKUP);
+		Optional<BsonDocument> resumeToken = Optional.empty();
+
+		try {
+			resumeToken = changeStreamResumeTokens.load(collection);
+		} catch (DataAccessException ex) {
+			log.error("Could not read the resume token of " + collection + ", watching it from now", ex);
+		}
+		resumeToken.ifPresent(request::resumeToken);
+		cacheChangeStreamContainer.register(request.build(), Document.class,
+				error -> streamFailed(collection, error));
+	}
+
+	private void streamFailed(String collection, Throwable error) {
+		log.error("Change stream on " + collection + " failed, reopening it from now", error);
+
+		clearRegion(collection);
+		try {
+			changeStreamResumeTokens.discard(collection);
+		} catch (DataAccessException ex) {
+			log.error("Could not discard the resume token of " + collection, ex);
+		}
+
+		try {
+			Thread.sleep(cacheProperties.getChangeStream().getRetryDelay().toMillis());
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			return;
+		}
+		if (cacheChangeStreamContainer.isRunning()) {
+			watch(collection);
+		}
+	}
+
+	private void clearRegion(String collection) {
+		Cache cache = cacheManager.getCache(regionOf(collection));
+
+		if (cache != null) {
+			cache.clear();
+		}
+	}
+
+	private String regionOf(String collection) {
+		if (collection.equals(mongoTemplate.getCollectionName(DoctorEntity.class))) {
+			return "doctors";
+		}
+		if (collection.equals(mongoTemplate.getCollectionName(PatientEntity.class))) {
+			return "patients";
+		}
+		return "appointments";
+	}
+
+	private String idOf(BsonDocument documentKey) {
+		BsonValue id = documentKey == null ? null : documentKey.get("_id");
+
+		if (id == null) {
+			return null;
+		}
+		if (id.isObjectId()) {
+			return id.asObjectId().getValue().toHexString();
+		}
+		return id.isString() ? id.asString().getValue() : id.toString();
+	}
+
+	/**
+	 * Reads the {@code document} field of the personal information found under
+	 * the given path of a stored document.
+	 */
+	private String documentOf(Document document, String... path) {
+		Object current = document;
+
+		for (String field : path) {
+			if (!(current instanceof Document nested)) {
+				return null;
+			}
+			current = nested.get(field);
+		}
+		return current instanceof Document personalInformation ? personalInformation.getString("document") : null;
+	}
+}
@@ -0,0 +1,195 @@
+package com.example.infrastructure.cache.service;
+
+import java.util.Collection;
+import java.util.HashSet;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import com.example.infrastructure.cache.key.ClinicCacheKey;
+import com.example.infrastructure.cache.key.ClinicCacheKey.Operation;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Entity-aware invalidation of the cache regions. Used by the repository
+ * services after every write instead of wiping the whole region. Evictions
+ * reach the shared tier, if any, and are broadcast to the other instances when
+ * {@code custom.cache.shared.broadcast-invalidations} is set, except those of
+ * the evictor returned by {@link #localOnly()}.
+ */
+@Slf4j
+@Component
+public class ClinicCacheEvictor {
+
+	@Autowired
+	CacheManager cacheManager;
+
+	@Autowired
+	ObjectProvider<CacheInvalidationBroadcaster> cacheInvalidationBroadcaster;
+
+	private boolean local;
+
+	/**
+	 * Returns an evictor applying the same evictions to the regions of this
+	 * instance only, for writes whose instance already evicted the shared tier
+	 * and notified the others.
+	 *
+	 * @return The local evictor.
+	 */
+	public ClinicCacheEvictor localOnly() {
+		ClinicCacheEvictor localOnly = new ClinicCacheEvictor();
+
+		localOnly.cacheManager = cacheManager;
+		localOnly.local = true;
+		return localOnly;
+	}
+
+	/**
+	 * A new patient or doctor was stored. Evicts the cached listings and the
+	 * "not found" lookup of its document.
+	 *
+	 * @param region   The cache region of the entity.
+	 * @param document The document of the new entity, may be null.
+	 */
+	public void entityCreated(String region, String document) {
+		log.debug("Evicting listings of region " + region);
+
+		evictTag(region, ClinicCacheKey.scope(Operation.PAGE, null));
+		evictDocument(region, document);
+	}
+
+	/**
+	 * A batch of patients or doctors was stored. Evicts the cached listings once,
+	 * and the "not found" lookups of their documents.
+	 *
+	 * @param region    The cache region of the entities.
+	 * @param documents The documents of the new entities.
+	 */
+	public void entitiesCreated(String region, Collection<String> documents) {
+		log.debug("Evicting listings of region " + region + " after a batch");
+
+		evictTag(region, ClinicCacheKey.scope(Operation.PAGE, null));
+		documents.forEach(document -> evictDocument(region, document));
+	}
+
+	/**
+	 * An existing patient or doctor was modified. Evicts every key holding it,
+	 * including the pages it appears in, and the lookup of its (maybe new)
+	 * document.
+	 *
+	 * @param region   The cache region of the entity.
+	 * @param id       The id of the entity.
+	 * @param document The current document of the entity, may be null.
+	 */
+	public void entityModified(String region, String id, String document) {
+		log.debug("Evicting entity " + id + " of region " + region);
+
+		evictTag(region, CacheTags.entity(id));
+		evictDocument(region, document);
+	}
+
+	/**
+	 * An entity was deleted. Evicts every key holding it.
+	 *
+	 * @param region The cache region of the entity.
+	 * @param id     The id of the entity.
+	 */
+	public void entityDeleted(String region, String id) {
+		log.debug("Evicting deleted entity " + id + " of region " + region);
+
+		evictTag(region, CacheTags.entity(id));
+	}
+
+	/**
+	 * An appointment was created or moved to a doctor and patient. Evicts the
+	 * plain listings, the listings of both parties and, for an existing
+	 * appointment, every key holding it.
+	 *
+	 * @param id              The id of the appointment.
+	 * @param doctorDocument  The document of its doctor, may be null.
+	 * @param patientDocument The document of its patient, may be null.
+	 */
+	public void appointmentChanged(String id, String doctorDocument, String patientDocument) {
+		log.debug("Evicting appointment " + id);
+
+		evictTag("appointments", CacheTags.entity(id));
+		evictTag("appointments", ClinicCacheKey.scope(Operation.PAGE, null));
+		if (doctorDocument != null) {
+			evictTag("appointments", ClinicCacheKey.scope(Operation.PAGE_BY_DOCTOR_DOCUMENT, doctorDocument));
+		}
+		if (patientDocument != null) {
+			evictTag("appointments", ClinicCacheKey.scope(Operation.PAGE_BY_PATIENT_DOCUMENT, patientDocument));
+		}
+	}
+
+	/**
+	 * A doctor or patient was modified, and so the summaries of it held by its
+	 * appointments. Evicts every key holding one of those appointments, and the
+	 * listings by its current document, which may have been cached empty.
+	 *
+	 * @param id         The id of the doctor or patient.
+	 * @param byDocument The listing of the appointments by its document.
+	 * @param document   The current document of the doctor or patient, may be null.
+	 */
+	public void appointmentPartyModified(String id, Operation byDocument, String document) {
+		log.debug("Evicting the appointments of " + id);
+
+		evictTag("appointments", CacheTags.entity(id));
+		if (document != null) {
+			evictTag("appointments", ClinicCacheKey.scope(byDocument, document));
+		}
+	}
+
+	/**
+	 * A batch of appointments was created. Evicts the plain listings once, and
+	 * the listings of every party involved once.
+	 *
+	 * @param doctorDocuments  The documents of their doctors.
+	 * @param patientDocuments The documents of their patients.
+	 */
+	public void appointmentsCreated(Collection<String> doctorDocuments, Collection<String> patientDocuments) {
+		log.debug("Evicting appointment listings after a batch");
+
+		evictTag("appointments", ClinicCacheKey.scope(Operation.PAGE, null));
+		for (String document : new HashSet<>(doctorDocuments)) {
+			if (document != null) {
+				evictTag("appointments", ClinicCacheKey.scope(Operation.PAGE_BY_DOCTOR_DOCUMENT, document));
+			}
+		}
+		for (String document : new HashSet<>(patientDocuments)) {
+			if (document != null) {
+				evictTag("appointments", ClinicCacheKey.scope(Operation.PAGE_BY_PATIENT_DOCUMENT, document));
+			}
+		}
+	}
+
+	private void evictDocument(String region, String document) {
+		if (document != null) {
+			evictTag(region, ClinicCacheKey.scope(Operation.BY_DOCUMENT, document));
+		}
+	}
+
+	private void evictTag(String region, String tag) {
+		Cache cache = cacheManager.getCache(region);
+
+		if (local) {
+			if (cache instanceof ClinicCaffeineCache clinicCache) {
+				clinicCache.evictLocalTag(tag);
+			} else if (cache != null) {
+				cache.clear();
+			}
+			return;
+		}
+
+		if (cache instanceof ClinicCaffeineCache clinicCache) {
+			clinicCache.evictTag(tag);
+		} else if (cache != null) {
+			cache.clear();
+		}
+		cacheInvalidationBroadcaster.ifAvailable(broadcaster -> broadcaster.broadcast(region, tag));
+	}
+}
@@ -0,0 +1,173 @@
+package com.example.infrastructure.cache.service;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import com.example.domain.model.Doctor;
+import com.example.domain.model.Patient;
+import com.example.domain.model.PersonalInformation;
+import com.example.infrastructure.cache.configuration.CacheProperties;
+import com.example.infrastructure.cache.key.ClinicCacheKey.EntityType;
+import com.example.infrastructure.cache.key.ClinicCacheKeys;
+import com.example.infrastructure.repository.mongodb.entity.DoctorEntity;
+import com.example.infrastructure.repository.mongodb.entity.PatientEntity;
+import com.example.infrastructure.repository.mongodb.mapper.DoctorToDoctorEntityMapper;
+import com.example.infrastructure.repository.mongodb.mapper.PatientToPatientEntityMapper;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Loads the active doctors and patients into their cache regions at startup,
+ * under the keys of the lookups by id and by document.
+ *
+ * Both collections are streamed at the same time and cached in batches by a
+ * small pool of threads, within the time and entry budgets of
+ * {@code custom.cache.warm-up}. Application runners complete before the
+ * application reports itself ready, so no traffic is accepted until the
+ * warm-up finishes or times out. A failed warm-up only leaves the cache cold.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "custom.cache.warm-up", name = "enabled", havingValue = "true")
+public class ClinicCacheWarmer implements ApplicationRunner {
+
+	@Autowired
+	MongoTemplate mongoTemplate;
+
+	@Autowired
+	CacheManager cacheManager;
+
+	@Autowired
+	CacheProperties cacheProperties;
+
+	@Autowired
+	ClinicCacheKeys clinicCacheKeys;
+
+	@Autowired
+	DoctorToDoctorEntityMapper doctorToDoctorEntityMapper;
+
+	@Autowired
+	PatientToPatientEntityMapper patientToPatientEntityMapper;
+
+	@Override
+	public void run(ApplicationArguments args) {
+		CacheProperties.WarmUp warmUp = cacheProperties.getWarmUp();
+		long deadline = System.nanoTime() + warmUp.getTimeout().toNanos();
+		ExecutorService executor = Executors.newFixedThreadPool(warmUp.getParallelism());
+		LongAdder doctors = new LongAdder();
+		LongAdder patients = new LongAdder();
+
+		log.debug("Warming up the cache");
+
+		try {
+			CompletableFuture<?> doctorsWarmed = CompletableFuture
+					.supplyAsync(() -> stream(DoctorEntity.class, batch -> cacheDoctors(batch, doctors), deadline,
+							executor), executor)
+					.thenCompose(batches -> batches);
+			CompletableFuture<?> patientsWarmed = CompletableFuture
+					.supplyAsync(() -> stream(PatientEntity.class, batch -> cachePatients(batch, patients), deadline,
+							executor), executor)
+					.thenCompose(batches -> batches);
+
+			CompletableFuture.allOf(doctorsWarmed, patientsWarmed).get(Math.max(0, deadline - System.nanoTime()),
+					TimeUnit.NANOSECONDS);
+			log.debug("Cache warmed up with " + doctors.sum() + " doctors and " + patients.sum() + " patients");
+		} catch (TimeoutException ex) {
+			log.debug("Cache warm-up timed out after " + doctors.sum() + " doctors and " + patients.sum()
+					+ " patients");
+		} catch (ExecutionException ex) {
+			log.error("Cache warm-up failed, starting with a cold cache", ex.getCause());
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Streams the active documents of a collection and hands them to the loader
+	 * in batches, until the collection, the entry budget or the time budget runs
+	 * out.
+	 *
+	 * @return A future completed once every batch handed over is cached.
+	 */
+	private <E> CompletableFuture<Void> stream(Class<E> entityClass, Consumer<List<E>> loader, long deadline,
+			ExecutorService executor) {
+		CacheProperties.WarmUp warmUp = cacheProperties.getWarmUp();
+		Query query = new Query(Criteria.where("deleted").is(false)).limit(warmUp.getMaxEntries())
+				.cursorBatchSize(warmUp.getBatchSize());
+		List<CompletableFuture<Void>> batches = new ArrayList<>();
+
+		try (Stream<E> documents = mongoTemplate.stream(query, entityClass)) {
+			Iterator<E> iterator = documents.iterator();
+			List<E> batch = new ArrayList<>(warmUp.getBatchSize());
+
+			while (System.nanoTime() < deadline && iterator.hasNext()) {
+				batch.add(iterator.next());
+
+				if (batch.size() == warmUp.getBatchSize() || !iterator.hasNext()) {
+					List<E> full = batch;
+					batches.add(CompletableFuture.runAsync(() -> loader.accept(full), executor));
+					batch = new ArrayList<>(warmUp.getBatchSize());
+				}
+			}
+		}
+		return CompletableFuture.allOf(batches.toArray(CompletableFuture[]::new));
+	}
+
+	private void cacheDoctors(List<DoctorEntity> entities, LongAdder cached) {
+		Cache cache = cacheManager.getCache("doctors");
+
+		for (DoctorEntity entity : entities) {
+			Doctor doctor = doctorToDoctorEntityMapper.fromOutputToInput(entity);
+			put(cache, EntityType.DOCTOR, doctor.getId(), doctor.getPersonalInformation(), doctor);
+			cached.increment();
+		}
+	}
+
+	private void cachePatients(List<PatientEntity> entities, LongAdder cached) {
+		Cache cache = cacheManager.getCache("patients");
+
+		for (PatientEntity entity : entities) {
+			Patient patient = patientToPatientEntityMapper.fromOutputToInput(entity);
+			put(cache, EntityType.PATIENT, patient.getId(), patient.getPersonalInformation(), patient);
+			cached.increment();
+		}
+	}
+
+	/**
+	 * Caches the value under the keys of both lookups, without replacing what the
+	 * lookups themselves may have cached meanwhile.
+	 */
+	private void put(Cache cache, EntityType entityType, String id, PersonalInformation personalInformation,
+			Object value) {
+		if (cache == null) {
+			return;
+		}
+		cache.putIfAbsent(clinicCacheKeys.byId(entityType, id), value);
+		if (personalInformation != null && personalInformation.getDocument() != null) {
+			cache.putIfAbsent(clinicCacheKeys.byDocument(entityType, personalInformation.getDocument()), value);
+		}
+	}
+}
@@ -0,0 +1,306 @@
+package com.example.infrastructure.cache.service;
+
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.cache.caffeine.CaffeineCache;
+
+import com.example.infrastructure.cache.key.ClinicCacheKey;
+import com.example.infrastructure.cache.key.ClinicCacheKey.Operation;
+import com.github.benmanes.caffeine.cache.Cache;
+
+/**
+ * Caffeine cache region that keeps a {@link CacheTagIndex} of what every key
+ * holds, so that a write can evict just the keys of the entity it touched.
+ * Values are stored as read-only snapshots, see {@link CacheSnapshots}, and
+ * concurrent synchronized misses of the same key share one load, run inside
+ * the compute of the key on the native cache. Lookups that found nothing are kept in a separate,
+ * short-lived negative cache, and are evicted through the same tags (the scope
+ * of a document lookup) when the entity gets created.
+ *
+ * With a {@link SharedCacheTier}, single-entity lookups missing locally are
+ * looked for in the shared tier before loading them, and loaded ones are
+ * written to it. Evictions reach the shared tier too, except those received
+ * from other instances ({@link #evictLocalTag(String)}), which already did.
+ *
+ * Every local write or eviction of a key changes the value and its tags inside
+ * one compute of that key on the native cache, so a key is never held without
+ * being indexed under the tags of its value. Keys dropped by Caffeine itself
+ * (size, expiration) must be reported through {@link #getTagIndex()} by the
+ * eviction listener of the native cache, and through
+ * {@link #untagIfGone(Object)} by the one of the negative cache.
+ */
+public class ClinicCaffeineCache extends CaffeineCache {
+
+	private final CacheTagIndex tagIndex;
+
+	private final Cache<Object, Boolean> negativeCache;
+
+	private final SharedCacheTier sharedTier;
+
+	private final LongAdder loads = new LongAdder();
+
+	private final LongAdder coalesced = new LongAdder();
+
+	/**
+	 * Creates the region.
+	 *
+	 * @param name          The name of the region.
+	 * @param cache         The cache of the entries found.
+	 * @param negativeCache The cache of the keys not found.
+	 * @param tagIndex      The tag index of both caches.
+	 * @param sharedTier    The shared tier, null if none.
+	 */
+	public ClinicCaffeineCache(String name, Cache<Object, Object> cache, Cache<Object, Boolean> negativeCache,
+			CacheTagIndex tagIndex, SharedCacheTier sharedTier) {
+		super(name, cache);
+		this.negativeCache = negativeCache;
+		this.tagIndex = tagIndex;
+		this.sharedTier = sharedTier;
+	}
+
+	public CacheTagIndex getTagIndex() {
+		return tagIndex;
+	}
+
+	/** Loads executed on synchronized misses. */
+	public long getLoads() {
+		return loads.sum();
+	}
+
+	/** Synchronized misses served by a load of the same key run by another caller. */
+	public long getCoalesced() {
+		return coalesced.sum();
+	}
+
+	public Cache<Object, Boolean> getNegativeCache() {
+		return negativeCache;
+	}
+
+	/**
+	 * Forgets the tags of a key dropped from the negative cache, unless it has
+	 * been stored again meanwhile.
+	 *
+	 * @param key The key.
+	 */
+	public void untagIfGone(Object key) {
+		getNativeCache().asMap().computeIfAbsent(key, k -> {
+			if (!negativeCache.asMap().containsKey(k)) {
+				tagIndex.untag(k);
+			}
+			return null;
+		});
+	}
+
+	@Override
+	protected Object lookup(Object key) {
+		if (negativeCache.getIfPresent(key) != null) {
+			return toStoreValue(null);
+		}
+
+		Object local = super.lookup(key);
+		if (local != null || !isShared(key)) {
+			return local;
+		}
+
+		Object shared = sharedTier.get(getName(), (ClinicCacheKey) key);
+		if (shared == null) {
+			return null;
+		}
+		Object snapshot = CacheSnapshots.of(shared);
+		storeLocally(key, snapshot, CacheTags.of(key, snapshot));
+		return snapshot;
+	}
+
+	/**
+	 * Used by {@code @Cacheable(sync = true)}. On a miss, the loader runs once per
+	 * key no matter how many requests miss it at the same time, and all of them
+	 * get the same snapshot: it runs inside the compute of the key, which the
+	 * other callers wait for. The loader must therefore not write to this region.
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public <T> T get(Object key, Callable<T> valueLoader) {
+		ValueWrapper cached = get(key);
+
+		if (cached != null) {
+			return (T) cached.get();
+		}
+
+		boolean[] loaded = { false };
+		Object value = getNativeCache().asMap().computeIfAbsent(key, k -> {
+			// A load of the same key may have found nothing right before this one.
+			if (negativeCache.asMap().containsKey(k)) {
+				return null;
+			}
+			loaded[0] = true;
+
+			Object snapshot = CacheSnapshots.of(call(k, valueLoader));
+			if (snapshot == null) {
+				negativeCache.put(k, Boolean.TRUE);
+			} else {
+				negativeCache.invalidate(k);
+			}
+			tagIndex.tag(k, CacheTags.of(k, snapshot));
+			return snapshot;
+		});
+
+		if (!loaded[0]) {
+			coalesced.increment();
+		} else {
+			loads.increment();
+			if (value != null && isShared(key)) {
+				sharedTier.put(getName(), (ClinicCacheKey) key, value, CacheTags.of(key, value));
+			}
+		}
+		return (T) value;
+	}
+
+	private Object call(Object key, Callable<?> valueLoader) {
+		try {
+			return valueLoader.call();
+		} catch (Exception ex) {
+			throw new ValueRetrievalException(key, valueLoader, ex);
+		}
+	}
+
+	@Override
+	public void put(Object key, Object value) {
+		store(key, CacheSnapshots.of(value));
+	}
+
+	@Override
+	public ValueWrapper putIfAbsent(Object key, Object value) {
+		if (value == null) {
+			ValueWrapper existing = get(key);
+
+			if (existing == null) {
+				store(key, null);
+			}
+			return existing;
+		}
+
+		Object snapshot = CacheSnapshots.of(value);
+		Set<String> tags = CacheTags.of(key, snapshot);
+		Object stored = getNativeCache().asMap().computeIfAbsent(key, k -> {
+			negativeCache.invalidate(k);
+			tagIndex.tag(k, tags);
+			return snapshot;
+		});
+
+		if (stored != snapshot) {
+			return toValueWrapper(stored);
+		}
+		if (isShared(key)) {
+			sharedTier.put(getName(), (ClinicCacheKey) key, snapshot, tags);
+		}
+		return null;
+	}
+
+	@Override
+	public void evict(Object key) {
+		evictLocally(key);
+		if (isShared(key)) {
+			sharedTier.evict(getName(), (ClinicCacheKey) key);
+		}
+	}
+
+	@Override
+	public boolean evictIfPresent(Object key) {
+		boolean present = evictLocally(key);
+
+		if (isShared(key)) {
+			sharedTier.evict(getName(), (ClinicCacheKey) key);
+		}
+		return present;
+	}
+
+	/**
+	 * Clears the region of this instance only, the shared tier is kept.
+	 */
+	@Override
+	public void clear() {
+		super.clear();
+		negativeCache.invalidateAll();
+		tagIndex.clear();
+	}
+
+	@Override
+	public boolean invalidate() {
+		boolean notEmpty = super.invalidate() | !negativeCache.asMap().isEmpty();
+		negativeCache.invalidateAll();
+		tagIndex.clear();
+		return notEmpty;
+	}
+
+	private void store(Object key, Object snapshot) {
+		Set<String> tags = CacheTags.of(key, snapshot);
+
+		storeLocally(key, snapshot, tags);
+		if (snapshot != null && isShared(key)) {
+			sharedTier.put(getName(), (ClinicCacheKey) key, snapshot, tags);
+		}
+	}
+
+	private void storeLocally(Object key, Object snapshot, Set<String> tags) {
+		getNativeCache().asMap().compute(key, (k, current) -> {
+			if (snapshot == null) {
+				negativeCache.put(k, Boolean.TRUE);
+			} else {
+				negativeCache.invalidate(k);
+			}
+			tagIndex.tag(k, tags);
+			return snapshot;
+		});
+	}
+
+	/**
+	 * Drops the key from both caches and the index.
+	 *
+	 * @return True if the key was cached, found or not found.
+	 */
+	private boolean evictLocally(Object key) {
+		boolean[] present = { false };
+
+		getNativeCache().asMap().compute(key, (k, current) -> {
+			present[0] = current != null | negativeCache.asMap().remove(k) != null;
+			tagIndex.untag(k);
+			return null;
+		});
+		return present[0];
+	}
+
+	/**
+	 * Only single-entity lookups go to the shared tier. Pages are invalidated far
+	 * more often than they are read by a second instance.
+	 */
+	private boolean isShared(Object key) {
+		return sharedTier != null && key instanceof ClinicCacheKey clinicKey
+				&& (clinicKey.getOperation() == Operation.BY_ID || clinicKey.getOperation() == Operation.BY_DOCUMENT);
+	}
+
+	/**
+	 * Evicts every key whose value carries the given tag.
+	 *
+	 * @param tag The tag, see {@link CacheTags}.
+	 */
+	public void evictTag(String tag) {
+		evictLocalTag(tag);
+		if (sharedTier != null) {
+			sharedTier.evictTag(getName(), tag);
+		}
+	}
+
+	/**
+	 * Evicts every key of this instance whose value carries the given tag, for
+	 * evictions already applied to the shared tier by another instance.
+	 *
+	 * @param tag The tag, see {@link CacheTags}.
+	 */
+	public void evictLocalTag(String tag) {
+		for (Object key : tagIndex.keysOf(tag)) {
+			evictLocally(key);
+		}
+	}
+}
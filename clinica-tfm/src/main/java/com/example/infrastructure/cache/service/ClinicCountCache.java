@@ -0,0 +1,97 @@
+package com.example.infrastructure.cache.service;
+
+import java.util.concurrent.Executors;
+
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.BasicQuery;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.stereotype.Component;
+
+import com.example.infrastructure.cache.configuration.CacheProperties;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Totals of the paginated listings, counted once per filter and kept for the
+ * following pages and requests. A total older than
+ * {@code custom.cache.counts.refresh-after-write} is counted again in the
+ * background on its next read, which still gets the old one, so the totals may
+ * be slightly behind the latest writes but never delay a request after the
+ * first one.
+ *
+ * Exported, as any cache, under the name {@code counts}.
+ */
+@Slf4j
+@Component
+public class ClinicCountCache implements MeterBinder {
+
+	@Autowired
+	MongoTemplate mongoTemplate;
+
+	@Autowired
+	CacheProperties cacheProperties;
+
+	@Autowired
+	Environment environment;
+
+	private LoadingCache<CountKey, Long> counts;
+
+	@PostConstruct
+	void buildCache() {
+		CacheProperties.Counts settings = cacheProperties.getCounts();
+
+		Caffeine<Object, Object> builder = Caffeine.newBuilder().maximumSize(settings.getMaximumSize())
+				.refreshAfterWrite(settings.getRefreshAfterWrite()).expireAfterWrite(settings.getExpireAfterWrite())
+				.recordStats();
+		if (Threading.VIRTUAL.isActive(environment)) {
+			// The refreshes block on MongoDB, better not on the common pool then.
+			builder.executor(Executors.newVirtualThreadPerTaskExecutor());
+		}
+		counts = builder.build(this::count);
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		CaffeineCacheMetrics.monitor(registry, counts, "counts");
+	}
+
+	/**
+	 * Completes a slice with the total of its listing.
+	 *
+	 * @param slice       The slice, fetched without counting.
+	 * @param entityClass The entity of the collection listed.
+	 * @param filter      The filter of the listing.
+	 * @return The slice as a page, with the cached total.
+	 */
+	public <T> Page<T> withTotal(Slice<T> slice, Class<?> entityClass, Criteria filter) {
+		long total = counts.get(new CountKey(entityClass, filter.getCriteriaObject()));
+
+		if (slice.hasNext()) {
+			// A total behind the writes must not hide the next page.
+			total = Math.max(total, slice.getPageable().getOffset() + slice.getNumberOfElements() + 1);
+		}
+		return new PageImpl<>(slice.getContent(), slice.getPageable(), total);
+	}
+
+	private long count(CountKey key) {
+		log.debug("Counting " + key.entityClass().getSimpleName() + " matching " + key.filter().toJson());
+
+		return mongoTemplate.count(new BasicQuery(key.filter()), key.entityClass());
+	}
+
+	private record CountKey(Class<?> entityClass, Document filter) {
+	}
+}
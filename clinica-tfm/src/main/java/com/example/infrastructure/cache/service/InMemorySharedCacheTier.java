@@ -0,0 +1,76 @@
+package com.example.infrastructure.cache.service;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.example.infrastructure.cache.configuration.CacheProperties;
+import com.example.infrastructure.cache.key.ClinicCacheKey;
+
+/**
+ * In-process {@link SharedCacheTier}, standing in for the real one in tests.
+ * Entries expire like those of the Redis tier, and both pass the same
+ * {@code SharedCacheTierContractTest}.
+ */
+@Component
+@ConditionalOnProperty(prefix = "custom.cache.shared", name = "tier", havingValue = "memory")
+public class InMemorySharedCacheTier implements SharedCacheTier {
+
+	@Autowired
+	CacheProperties cacheProperties;
+
+	private final Map<String, Map<ClinicCacheKey, Entry>> entries = new ConcurrentHashMap<>();
+
+	private final Map<String, CacheTagIndex> tagIndexes = new ConcurrentHashMap<>();
+
+	@Override
+	public Object get(String region, ClinicCacheKey key) {
+		Entry entry = entriesOf(region).get(key);
+
+		if (entry == null) {
+			return null;
+		}
+		if (entry.expiresAt() < System.nanoTime()) {
+			evict(region, key);
+			return null;
+		}
+		return entry.value();
+	}
+
+	@Override
+	public void put(String region, ClinicCacheKey key, Object value, Set<String> tags) {
+		Duration ttl = cacheProperties.region(region).getExpireAfterWrite();
+
+		entriesOf(region).put(key, new Entry(value, System.nanoTime() + ttl.toNanos()));
+		tagIndexOf(region).tag(key, tags);
+	}
+
+	@Override
+	public void evict(String region, ClinicCacheKey key) {
+		entriesOf(region).remove(key);
+		tagIndexOf(region).untag(key);
+	}
+
+	@Override
+	public void evictTag(String region, String tag) {
+		for (Object key : tagIndexOf(region).keysOf(tag)) {
+			evict(region, (ClinicCacheKey) key);
+		}
+	}
+
+	private Map<ClinicCacheKey, Entry> entriesOf(String region) {
+		return entries.computeIfAbsent(region, name -> new ConcurrentHashMap<>());
+	}
+
+	private CacheTagIndex tagIndexOf(String region) {
+		return tagIndexes.computeIfAbsent(region, name -> new CacheTagIndex());
+	}
+
+	private record Entry(Object value, long expiresAt) {
+	}
+}
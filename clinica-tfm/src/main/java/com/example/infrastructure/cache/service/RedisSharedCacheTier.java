@@ -0,0 +1,137 @@
+package com.example.infrastructure.cache.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import com.example.domain.model.Appointment;
+import com.example.domain.model.Doctor;
+import com.example.domain.model.Patient;
+import com.example.infrastructure.cache.configuration.CacheProperties;
+import com.example.infrastructure.cache.key.ClinicCacheKey;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * {@link SharedCacheTier} kept in Redis. Values are stored as JSON under
+ * {@code clinic:cache:<region>:<key>}, with the expiration of their region, and
+ * every tag is a set of the keys carrying it.
+ *
+ * Storing a value with its tags, and evicting a tag with its keys, are each one
+ * Lua script: a single round trip that Redis runs atomically, so a key cannot
+ * be added to a tag between the read of its members and their deletion. The
+ * scripts touch keys they are not given (the members of a tag), so the tier
+ * needs a standalone or replicated Redis, not a cluster.
+ *
+ * Redis errors are logged and the tier then behaves as empty, the request
+ * falling back to MongoDB.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "custom.cache.shared", name = "tier", havingValue = "redis")
+public class RedisSharedCacheTier implements SharedCacheTier {
+
+	private static final String PREFIX = "clinic:cache:";
+
+	/** KEYS: the value, then its tags. ARGV: the JSON, the expiration in ms. */
+	private static final RedisScript<Long> PUT = RedisScript.of("""
+			redis.call('SET', KEYS[1], ARGV[1], 'PX', ARGV[2])
+			for i = 2, #KEYS do
+				redis.call('SADD', KEYS[i], KEYS[1])
+				redis.call('PEXPIRE', KEYS[i], ARGV[2])
+			end
+			return #KEYS - 1
+			""", Long.class);
+
+	/** KEYS: the tag. Deletes its keys in chunks, below the limit of unpack. */
+	private static final RedisScript<Long> EVICT_TAG = RedisScript.of("""
+			local keys = redis.call('SMEMBERS', KEYS[1])
+			for i = 1, #keys, 1000 do
+				redis.call('DEL', unpack(keys, i, math.min(i + 999, #keys)))
+			end
+			redis.call('DEL', KEYS[1])
+			return #keys
+			""", Long.class);
+
+	@Autowired
+	StringRedisTemplate stringRedisTemplate;
+
+	@Autowired
+	ObjectMapper objectMapper;
+
+	@Autowired
+	CacheProperties cacheProperties;
+
+	@Override
+	public Object get(String region, ClinicCacheKey key) {
+		try {
+			String json = stringRedisTemplate.opsForValue().get(keyOf(region, key));
+
+			return json == null ? null : objectMapper.readValue(json, typeOf(key));
+		} catch (JsonProcessingException | RuntimeException ex) {
+			log.error("Could not read " + key + " from the shared cache", ex);
+			return null;
+		}
+	}
+
+	@Override
+	public void put(String region, ClinicCacheKey key, Object value, Set<String> tags) {
+		Duration ttl = cacheProperties.region(region).getExpireAfterWrite();
+		List<String> keys = new ArrayList<>(tags.size() + 1);
+
+		keys.add(keyOf(region, key));
+		for (String tag : tags) {
+			keys.add(tagKeyOf(region, tag));
+		}
+
+		try {
+			stringRedisTemplate.execute(PUT, keys, objectMapper.writeValueAsString(value),
+					String.valueOf(ttl.toMillis()));
+		} catch (JsonProcessingException | RuntimeException ex) {
+			log.error("Could not write " + key + " to the shared cache", ex);
+		}
+	}
+
+	@Override
+	public void evict(String region, ClinicCacheKey key) {
+		try {
+			stringRedisTemplate.delete(keyOf(region, key));
+		} catch (RuntimeException ex) {
+			log.error("Could not evict " + key + " from the shared cache", ex);
+		}
+	}
+
+	@Override
+	public void evictTag(String region, String tag) {
+		try {
+			stringRedisTemplate.execute(EVICT_TAG, List.of(tagKeyOf(region, tag)));
+		} catch (RuntimeException ex) {
+			log.error("Could not evict tag " + tag + " from the shared cache", ex);
+		}
+	}
+
+	private String keyOf(String region, ClinicCacheKey key) {
+		return PREFIX + region + ":" + key;
+	}
+
+	private String tagKeyOf(String region, String tag) {
+		return PREFIX + region + ":tag:" + tag;
+	}
+
+	private Class<?> typeOf(ClinicCacheKey key) {
+		return switch (key.getEntityType()) {
+		case DOCTOR -> Doctor.class;
+		case PATIENT -> Patient.class;
+		case APPOINTMENT -> Appointment.class;
+		};
+	}
+}
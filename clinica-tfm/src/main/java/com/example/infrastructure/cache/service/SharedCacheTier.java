@@ -0,0 +1,52 @@
+package com.example.infrastructure.cache.service;
+
+import java.util.Set;
+
+import com.example.infrastructure.cache.key.ClinicCacheKey;
+
+/**
+ * Cache tier shared by every instance, behind the local regions. It only holds
+ * the single-entity lookups (by id and by document), so an instance starting
+ * cold or missing locally still avoids MongoDB when any other instance loaded
+ * the entity.
+ *
+ * Implementations must never fail the request using them: an unavailable tier
+ * behaves as an empty one.
+ */
+public interface SharedCacheTier {
+
+	/**
+	 * Retrieves a value.
+	 *
+	 * @param region The cache region.
+	 * @param key    The key.
+	 * @return The value, or null if absent.
+	 */
+	Object get(String region, ClinicCacheKey key);
+
+	/**
+	 * Stores a value for the expiration of its region.
+	 *
+	 * @param region The cache region.
+	 * @param key    The key.
+	 * @param value  The value, never null.
+	 * @param tags   The tags of the value, see {@link CacheTags}.
+	 */
+	void put(String region, ClinicCacheKey key, Object value, Set<String> tags);
+
+	/**
+	 * Removes a value.
+	 *
+	 * @param region The cache region.
+	 * @param key    The key.
+	 */
+	void evict(String region, ClinicCacheKey key);
+
+	/**
+	 * Removes every value carrying the given tag.
+	 *
+	 * @param region The cache region.
+	 * @param tag    The tag.
+	 */
+	void evictTag(String region, String tag);
+}
@@ -0,0 +1,44 @@
+package com.example.infrastructure.integrationevents.consumer;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.CacheManager;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+import com.example.infrastructure.cache.configuration.CacheProperties;
+import com.example.infrastructure.cache.service.ClinicCaffeineCache;
+import com.example.infrastructure.integrationevents.dto.CacheInvalidationDtoEvent;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Applies the evictions broadcast by the other instances to the local regions.
+ * Every instance consumes every invalidation, so each one joins with a group
+ * of its own, from the latest offset.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "custom.cache.shared", name = "broadcast-invalidations", havingValue = "true")
+public class CacheInvalidationConsumerService {
+
+	@Autowired
+	CacheManager cacheManager;
+
+	@Autowired
+	CacheProperties cacheProperties;
+
+	@KafkaListener(topics = "${custom.topic.cache.invalidated}",
+			groupId = "cache-invalidation-#{T(java.util.UUID).randomUUID()}", containerFactory = "containerFactory",
+			properties = "auto.offset.reset=latest")
+	public void invalidated(CacheInvalidationDtoEvent event) {
+		if (cacheProperties.getShared().getNodeId().equals(event.getNodeId())) {
+			return;
+		}
+		log.debug("Evicting " + event.getTag() + " in " + event.getRegion() + " from node " + event.getNodeId());
+
+		if (cacheManager.getCache(event.getRegion()) instanceof ClinicCaffeineCache clinicCache) {
+			clinicCache.evictLocalTag(event.getTag());
+		}
+	}
+}
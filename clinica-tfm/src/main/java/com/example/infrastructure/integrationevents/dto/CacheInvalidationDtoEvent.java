@@ -0,0 +1,18 @@
+package com.example.infrastructure.integrationevents.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.extern.jackson.Jacksonized;
+
+@Data
+@Builder
+@Jacksonized
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheInvalidationDtoEvent {
+	String nodeId;
+	String region;
+	String tag;
+}
@@ -0,0 +1,36 @@
+package com.example.infrastructure.integrationevents.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.example.infrastructure.cache.configuration.CacheProperties;
+import com.example.infrastructure.cache.service.CacheInvalidationBroadcaster;
+import com.example.infrastructure.integrationevents.dto.CacheInvalidationDtoEvent;
+import com.example.infrastructure.integrationevents.producer.ClinicProducerEvent;
+
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "custom.cache.shared", name = "broadcast-invalidations", havingValue = "true")
+public class CacheInvalidationProducerService implements CacheInvalidationBroadcaster {
+
+	@Value("${custom.topic.cache.invalidated}")
+	private String topicCacheInvalidated;
+
+	@Autowired
+	CacheProperties cacheProperties;
+
+	@Autowired
+	ClinicProducerEvent clinicProducerEvent;
+
+	@Override
+	public void broadcast(String region, String tag) {
+		log.debug("Broadcasting eviction of " + tag + " in " + region);
+
+		clinicProducerEvent.sendMessageAssync(topicCacheInvalidated, CacheInvalidationDtoEvent.builder()
+				.nodeId(cacheProperties.getShared().getNodeId()).region(region).tag(tag).build());
+	}
+}
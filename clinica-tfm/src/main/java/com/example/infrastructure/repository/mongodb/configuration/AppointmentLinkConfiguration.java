@@ -0,0 +1,15 @@
+package com.example.infrastructure.repository.mongodb.configuration;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables the scheduled migration of the appointment id arrays to the
+ * appointment links.
+ */
+@Configuration
+@EnableScheduling
+@EnableConfigurationProperties(AppointmentLinkProperties.class)
+public class AppointmentLinkConfiguration {
+}
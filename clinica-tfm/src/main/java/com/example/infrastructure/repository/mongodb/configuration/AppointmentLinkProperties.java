@@ -0,0 +1,34 @@
+package com.example.infrastructure.repository.mongodb.configuration;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+/**
+ * Settings of the migration of the appointment id arrays of the doctors and
+ * patients to the appointment links, bound from
+ * {@code custom.appointment-links.migration}.
+ */
+@Data
+@ConfigurationProperties(prefix = "custom.appointment-links")
+public class AppointmentLinkProperties {
+
+	private Migration migration = new Migration();
+
+	@Data
+	public static class Migration {
+		/**
+		 * Whether the arrays are drained into the links in the background, until a
+		 * run finds nothing left.
+		 */
+		private boolean enabled = false;
+
+		/** Time between two runs, each draining every array left. */
+		private Duration interval = Duration.ofMinutes(1);
+
+		/** Number of doctors, or patients, drained per batch. */
+		private int batchSize = 100;
+	}
+}
@@ -0,0 +1,139 @@
+package com.example.infrastructure.repository.mongodb.configuration;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.ApplicationContext;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexField;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentProperty;
+import org.springframework.data.repository.core.RepositoryInformation;
+import org.springframework.data.repository.query.parser.Part;
+import org.springframework.data.repository.query.parser.PartTree;
+import org.springframework.data.repository.support.Repositories;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Creates, at startup, the indexes declared on the entities with
+ * {@code @CompoundIndex}, and then reports every derived query method of the
+ * repositories that no index of its collection serves.
+ *
+ * An index serves a query when its leading keys are exactly the fields the
+ * query filters on, or when it is unique and all its keys are filtered on. The
+ * fields of the partial filter of an index (the {@code deleted} flag) are taken
+ * as satisfied, assuming the query asks for active documents. Failing to create
+ * an index (duplicated documents for a unique one, for instance) is logged, and
+ * never stops the application.
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class MongoIndexInitializer implements ApplicationRunner {
+
+	@Autowired
+	MongoTemplate mongoTemplate;
+
+	@Autowired
+	MongoMappingContext mongoMappingContext;
+
+	@Autowired
+	ApplicationContext applicationContext;
+
+	@Override
+	public void run(ApplicationArguments args) {
+		Repositories repositories = new Repositories(applicationContext);
+		IndexResolver indexResolver = IndexResolver.create(mongoMappingContext);
+
+		try {
+			for (Class<?> domainType : repositories) {
+				ensureIndexes(domainType, indexResolver);
+			}
+			for (Class<?> domainType : repositories) {
+				repositories.getRepositoryInformationFor(domainType)
+						.ifPresent(information -> verifyQueryMethods(domainType, information));
+			}
+		} catch (DataAccessResourceFailureException ex) {
+			log.error("MongoDB unreachable, indexes not verified", ex);
+		}
+	}
+
+	private void ensureIndexes(Class<?> domainType, IndexResolver indexResolver) {
+		IndexOperations indexOperations = mongoTemplate.indexOps(domainType);
+
+		for (IndexDefinition index : indexResolver.resolveIndexFor(domainType)) {
+			try {
+				String name = indexOperations.ensureIndex(index);
+				log.debug("Index " + name + " ensured on " + mongoTemplate.getCollectionName(domainType));
+			} catch (DataAccessResourceFailureException ex) {
+				throw ex;
+			} catch (RuntimeException ex) {
+				log.error("Could not create index " + index.getIndexKeys() + " on "
+						+ mongoTemplate.getCollectionName(domainType), ex);
+			}
+		}
+	}
+
+	private void verifyQueryMethods(Class<?> domainType, RepositoryInformation information) {
+		List<IndexInfo> indexes = mongoTemplate.indexOps(domainType).getIndexInfo();
+
+		for (Method method : information.getQueryMethods()) {
+			Set<String> fields = filteredFields(method, domainType);
+
+			if (!fields.isEmpty() && indexes.stream().noneMatch(index -> serves(index, fields))) {
+				log.warn("No index of " + mongoTemplate.getCollectionName(domainType) + " serves "
+						+ information.getRepositoryInterface().getSimpleName() + "." + method.getName() + " on "
+						+ fields);
+			}
+		}
+	}
+
+	private Set<String> filteredFields(Method method, Class<?> domainType) {
+		Set<String> fields = new HashSet<>();
+
+		try {
+			for (Part part : new PartTree(method.getName(), domainType).getParts()) {
+				fields.add(mongoMappingContext.getPersistentPropertyPath(part.getProperty())
+						.toDotPath(MongoPersistentProperty::getFieldName));
+			}
+		} catch (RuntimeException ex) {
+			// Not a derived query.
+			fields.clear();
+		}
+		return fields;
+	}
+
+	private boolean serves(IndexInfo index, Set<String> fields) {
+		List<String> keys = new ArrayList<>();
+		for (IndexField field : index.getIndexFields()) {
+			keys.add(field.getKey());
+		}
+
+		if ((index.isUnique() || "_id_".equals(index.getName())) && fields.containsAll(keys)) {
+			return true;
+		}
+
+		Set<String> remaining = new HashSet<>(fields);
+		if (index.getPartialFilterExpression() != null) {
+			remaining.removeAll(Document.parse(index.getPartialFilterExpression()).keySet());
+		}
+		return !remaining.isEmpty() && keys.size() >= remaining.size()
+				&& remaining.equals(new HashSet<>(keys.subList(0, remaining.size())));
+	}
+}
@@ -0,0 +1,61 @@
+package com.example.infrastructure.repository.mongodb.configuration;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import com.mongodb.client.result.UpdateResult;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Sets, at startup, the version of the documents stored before their entity was
+ * versioned. A versioned entity read without version would be inserted again
+ * when saved, and one saved with the first version would never match them.
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+@ConditionalOnProperty(prefix = "custom.optimistic-locking.initialization", name = "enabled",
+		havingValue = "true", matchIfMissing = true)
+public class MongoVersionInitializer implements ApplicationRunner {
+
+	@Autowired
+	MongoTemplate mongoTemplate;
+
+	@Autowired
+	MongoMappingContext mongoMappingContext;
+
+	@Override
+	public void run(ApplicationArguments args) {
+		for (MongoPersistentEntity<?> entity : mongoMappingContext.getPersistentEntities()) {
+			if (!entity.hasVersionProperty() || !entity.isAnnotationPresent(Document.class)) {
+				continue;
+			}
+
+			String field = entity.getRequiredVersionProperty().getFieldName();
+			try {
+				UpdateResult result = mongoTemplate.updateMulti(Query.query(Criteria.where(field).exists(false)),
+						Update.update(field, 0L), entity.getType());
+
+				if (result.getModifiedCount() > 0) {
+					log.info("Versioned " + result.getModifiedCount() + " documents of " + entity.getCollection());
+				}
+			} catch (DataAccessException ex) {
+				log.error("Could not version the documents of " + entity.getCollection(), ex);
+			}
+		}
+	}
+}
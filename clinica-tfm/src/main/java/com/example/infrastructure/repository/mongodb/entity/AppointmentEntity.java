@@ -3,10 +3,10 @@ package com.example.infrastructure.repository.mongodb.entity;
 import java.time.LocalDateTime;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.Document;
 
-import com.example.domain.model.Doctor;
-import com.example.domain.model.Patient;
 import com.fasterxml.jackson.annotation.JsonFormat;
 
 import lombok.AllArgsConstructor;
@@ -15,20 +15,35 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.extern.jackson.Jacksonized;
 
+/**
+ * Appointment as stored. The doctor and the patient are kept as their ID plus a
+ * summary (name, document and specializations), under the same field paths as
+ * the whole objects embedded before, so that indexes and queries still apply;
+ * their full profiles are looked up apart when asked for.
+ */
 @Data
 @Builder
 @Document(collection = "APPOINTMENTS")
+@CompoundIndex(name = "active_doctor_document_id", def = "{'doctor.personalInformation.document': 1, '_id': 1}",
+		partialFilter = "{'deleted': false}")
+@CompoundIndex(name = "active_patient_document_id", def = "{'patient.personalInformation.document': 1, '_id': 1}",
+		partialFilter = "{'deleted': false}")
+@CompoundIndex(name = "active_doctor_id", def = "{'doctor._id': 1}", partialFilter = "{'deleted': false}")
+@CompoundIndex(name = "active_patient_id", def = "{'patient._id': 1}", partialFilter = "{'deleted': false}")
+@CompoundIndex(name = "deleted_id", def = "{'deleted': 1, '_id': 1}")
 @Jacksonized
 @NoArgsConstructor
 @AllArgsConstructor
 public class AppointmentEntity {
 	@Id
 	String appointmentId;
-	Doctor doctor;
-	Patient patient;
+	DoctorSummaryEntity doctor;
+	PatientSummaryEntity patient;
 	@JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss")
 	LocalDateTime date;
 	String diagnostic;
 	String treatment;
 	boolean deleted;
+	@Version
+	Long version;
 }
\ No newline at end of file
@@ -0,0 +1,31 @@
+package com.example.infrastructure.repository.mongodb.entity;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.extern.jackson.Jacksonized;
+
+/**
+ * Membership of an active appointment, linking it to its doctor and patient.
+ * One small document per appointment replaces the id arrays once kept on the
+ * doctors and patients, which grew without limit.
+ */
+@Data
+@Builder
+@Document(collection = "APPOINTMENT_LINKS")
+@CompoundIndex(name = "doctor_id", def = "{'doctorId': 1, '_id': 1}")
+@CompoundIndex(name = "patient_id", def = "{'patientId': 1, '_id': 1}")
+@Jacksonized
+@NoArgsConstructor
+@AllArgsConstructor
+public class AppointmentLinkEntity {
+	@Id
+	String appointmentId;
+	String doctorId;
+	String patientId;
+}
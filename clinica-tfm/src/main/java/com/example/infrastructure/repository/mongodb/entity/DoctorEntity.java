@@ -4,6 +4,8 @@ import java.time.LocalDate;
 import java.util.List;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import lombok.AllArgsConstructor;
@@ -15,6 +17,9 @@ import lombok.extern.jackson.Jacksonized;
 @Data
 @Builder
 @Document(collection = "DOCTORS")
+@CompoundIndex(name = "active_document_unique", def = "{'personalInformationEntity.document': 1}", unique = true,
+		partialFilter = "{'deleted': false}")
+@CompoundIndex(name = "deleted_id", def = "{'deleted': 1, '_id': 1}")
 @Jacksonized
 @NoArgsConstructor
 @AllArgsConstructor
@@ -27,4 +32,6 @@ public class DoctorEntity {
 	List<String> specializations;
 	List<String> idDoctorAppointments;
 	boolean deleted;
+	@Version
+	Long version;
 }
\ No newline at end of file
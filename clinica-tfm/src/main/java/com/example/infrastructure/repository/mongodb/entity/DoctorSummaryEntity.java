@@ -0,0 +1,22 @@
+package com.example.infrastructure.repository.mongodb.entity;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Summary of the doctor of an appointment, stored in the appointment instead of the
+ * whole doctor.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DoctorSummaryEntity {
+	String id;
+	PersonalSummaryEntity personalInformation;
+	List<String> specializations;
+}
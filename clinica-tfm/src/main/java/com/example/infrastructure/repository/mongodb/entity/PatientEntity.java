@@ -3,6 +3,8 @@ package com.example.infrastructure.repository.mongodb.entity;
 import java.util.List;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import lombok.AllArgsConstructor;
@@ -14,6 +16,9 @@ import lombok.extern.jackson.Jacksonized;
 @Data
 @Builder
 @Document(collection = "PATIENTS")
+@CompoundIndex(name = "active_document_unique", def = "{'personalInformationEntity.document': 1}", unique = true,
+		partialFilter = "{'deleted': false}")
+@CompoundIndex(name = "deleted_id", def = "{'deleted': 1, '_id': 1}")
 @Jacksonized
 @NoArgsConstructor
 @AllArgsConstructor
@@ -22,8 +27,10 @@ public class PatientEntity {
 	String id;
 	String socialSecurityNumber;
 	PersonalInformationEntity personalInformationEntity;
-	double height;
-	double weight;
+	Double height;
+	Double weight;
 	List<String> idPatientAppointments;
 	boolean deleted;
+	@Version
+	Long version;
 }
@@ -0,0 +1,19 @@
+package com.example.infrastructure.repository.mongodb.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Summary of the patient of an appointment, stored in the appointment instead of
+ * the whole patient.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PatientSummaryEntity {
+	String id;
+	PersonalSummaryEntity personalInformation;
+}
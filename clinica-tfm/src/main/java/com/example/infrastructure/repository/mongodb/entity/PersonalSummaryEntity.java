@@ -0,0 +1,19 @@
+package com.example.infrastructure.repository.mongodb.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Name and document of the doctor or patient of an appointment.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PersonalSummaryEntity {
+	String name;
+	String surname;
+	String document;
+}
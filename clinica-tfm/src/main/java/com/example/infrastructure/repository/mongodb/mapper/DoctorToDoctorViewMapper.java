@@ -0,0 +1,18 @@
+package com.example.infrastructure.repository.mongodb.mapper;
+
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.ReportingPolicy;
+
+import com.example.domain.mapper.BaseMapper;
+import com.example.domain.model.Doctor;
+import com.example.infrastructure.repository.mongodb.projection.DoctorView;
+
+@Mapper(componentModel = "spring", unmappedTargetPolicy = ReportingPolicy.IGNORE)
+public interface DoctorToDoctorViewMapper extends BaseMapper<Doctor, DoctorView> {
+	@Mapping(source = "personalInformationEntity", target = "personalInformation")
+	Doctor fromOutputToInput(DoctorView input);
+
+	@Mapping(source = "personalInformation", target = "personalInformationEntity")
+	DoctorView fromInputToOutput(Doctor input);
+}
@@ -0,0 +1,18 @@
+package com.example.infrastructure.repository.mongodb.mapper;
+
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.ReportingPolicy;
+
+import com.example.domain.mapper.BaseMapper;
+import com.example.domain.model.Patient;
+import com.example.infrastructure.repository.mongodb.projection.PatientView;
+
+@Mapper(componentModel = "spring", unmappedTargetPolicy = ReportingPolicy.IGNORE)
+public interface PatientToPatientViewMapper extends BaseMapper<Patient, PatientView> {
+	@Mapping(source = "personalInformationEntity", target = "personalInformation")
+	Patient fromOutputToInput(PatientView input);
+
+	@Mapping(source = "personalInformation", target = "personalInformationEntity")
+	PatientView fromInputToOutput(Patient input);
+}
\ No newline at end of file
@@ -0,0 +1,32 @@
+package com.example.infrastructure.repository.mongodb.projection;
+
+import java.time.LocalDateTime;
+
+import org.springframework.data.annotation.Id;
+
+import com.example.infrastructure.repository.mongodb.entity.DoctorSummaryEntity;
+import com.example.infrastructure.repository.mongodb.entity.PatientSummaryEntity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Appointment as listed. Read as a projection of {@code APPOINTMENTS}, it leaves
+ * out the deleted flag.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AppointmentView {
+	@Id
+	String appointmentId;
+	DoctorSummaryEntity doctor;
+	PatientSummaryEntity patient;
+	LocalDateTime date;
+	String diagnostic;
+	String treatment;
+	Long version;
+}
@@ -0,0 +1,28 @@
+package com.example.infrastructure.repository.mongodb.projection;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import com.example.infrastructure.repository.mongodb.entity.PersonalInformationEntity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Doctor as listed. Read as a projection of {@code DOCTORS}, it leaves out the
+ * appointment ids and the deleted flag.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DoctorView {
+	String id;
+	String licenseNum;
+	LocalDate mirDate;
+	PersonalInformationEntity personalInformationEntity;
+	List<String> specializations;
+	Long version;
+}
@@ -0,0 +1,25 @@
+package com.example.infrastructure.repository.mongodb.projection;
+
+import com.example.infrastructure.repository.mongodb.entity.PersonalInformationEntity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Patient as listed. Read as a projection of {@code PATIENTS}, it leaves out
+ * the appointment ids and the deleted flag.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PatientView {
+	String id;
+	String socialSecurityNumber;
+	PersonalInformationEntity personalInformationEntity;
+	double height;
+	double weight;
+	Long version;
+}
@@ -0,0 +1,53 @@
+package com.example.infrastructure.repository.mongodb.service;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import com.example.application.util.Errors;
+import com.mongodb.ErrorCategory;
+import com.mongodb.bulk.BulkWriteError;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Writes batches of documents as a single unordered bulk operation, so that a
+ * failing document neither stops nor rolls back the others.
+ */
+@Slf4j
+@Component
+public class ClinicBulkWriter {
+
+	@Autowired
+	MongoTemplate mongoTemplate;
+
+	/**
+	 * Inserts the given entities, which must already hold their IDs.
+	 * 
+	 * @param entityClass The class of the entities.
+	 * @param entities    The entities to insert.
+	 * @return Why each entity that could not be inserted failed, by its index.
+	 */
+	public Map<Integer, String> insert(Class<?> entityClass, List<?> entities) {
+		log.debug("Inserting " + entities.size() + " documents into " + mongoTemplate.getCollectionName(entityClass));
+
+		Map<Integer, String> errors = new HashMap<>();
+		try {
+			mongoTemplate.bulkOps(BulkMode.UNORDERED, entityClass).insert(entities).execute();
+		} catch (BulkOperationException ex) {
+			for (BulkWriteError error : ex.getErrors()) {
+				errors.put(error.getIndex(),
+						ErrorCategory.fromErrorCode(error.getCode()) == ErrorCategory.DUPLICATE_KEY
+								? Errors.DUPLICATED_DOCUMENT
+								: error.getMessage());
+			}
+		}
+		return errors;
+	}
+}
@@ -0,0 +1,46 @@
+package com.example.infrastructure.repository.mongodb.service;
+
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import com.example.application.util.ClinicConflictException;
+import com.example.application.util.Errors;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Repeats the writes that are conditional on the version of the document they
+ * read, when another write modified it meanwhile. Only for writes that do not
+ * depend on what that other write changed, and so can be applied on top of it.
+ */
+@Slf4j
+@Component
+public class ClinicOptimisticRetry {
+
+	@Value("${custom.optimistic-locking.max-attempts:3}")
+	int maxAttempts;
+
+	/**
+	 * Runs the given attempt, which must read the document again, until it is not
+	 * rejected by a concurrent modification or the attempts are exhausted.
+	 * 
+	 * @param attempt The read and the conditional write.
+	 * @return The result of the attempt that succeeded.
+	 * @throws ClinicConflictException If every attempt was rejected.
+	 */
+	public <T> T run(Supplier<T> attempt) throws ClinicConflictException {
+		for (int i = 1;; i++) {
+			try {
+				return attempt.get();
+			} catch (OptimisticLockingFailureException ex) {
+				if (i >= maxAttempts) {
+					throw new ClinicConflictException(Errors.CONCURRENT_MODIFICATION);
+				}
+				log.debug("Concurrent modification, attempt " + i + " of " + maxAttempts + " rejected");
+			}
+		}
+	}
+}
@@ -0,0 +1,95 @@
+package com.example.infrastructure.repository.mongodb.service;
+
+import java.util.Map;
+import java.util.Set;
+
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Applies partial modifications as a single conditional update, which sets only
+ * the fields present in the patch, nested ones by their dotted path. Patches of
+ * different fields of the same document do not overwrite each other.
+ */
+@Slf4j
+@Component
+public class ClinicPatchWriter {
+
+	private static final Set<String> SKIPPED_FIELDS = Set.of("_id", "_class", "deleted", "version");
+
+	@Autowired
+	MongoTemplate mongoTemplate;
+
+	/**
+	 * Sets the non-null fields of the given entity on the active document with the
+	 * given ID, and moves it to its next version. The ID, the deleted flag and the
+	 * version of the entity are never set.
+	 *
+	 * @param entityClass The class of the entity.
+	 * @param id          The ID of the document to modify.
+	 * @param patch       The entity holding only the fields to set.
+	 * @return The document as it was before the modification, or null if there is
+	 *         no active document with the given ID.
+	 */
+	public <T> T patch(Class<T> entityClass, String id, Object patch) {
+		return patch(entityClass, id, patch, Set.of());
+	}
+
+	/**
+	 * Sets the non-null fields of the given entity as {@link #patch(Class, String,
+	 * Object)} does, except the given top-level fields, which, when present, are
+	 * set whole, replacing the previous value with all its nested fields.
+	 *
+	 * @param entityClass The class of the entity.
+	 * @param id          The ID of the document to modify.
+	 * @param patch       The entity holding only the fields to set.
+	 * @param replaced    The top-level fields set whole.
+	 * @return The document as it was before the modification, or null if there is
+	 *         no active document with the given ID.
+	 */
+	public <T> T patch(Class<T> entityClass, String id, Object patch, Set<String> replaced) {
+		Query query = Query.query(Criteria.where("_id").is(id).and("deleted").is(false));
+
+		Document document = new Document();
+		mongoTemplate.getConverter().write(patch, document);
+
+		Update update = new Update();
+		set(update, null, document, replaced);
+		for (String field : replaced) {
+			if (document.get(field) != null) {
+				update.set(field, document.get(field));
+			}
+		}
+
+		if (update.getUpdateObject().isEmpty()) {
+			return mongoTemplate.findOne(query, entityClass);
+		}
+		update.inc("version", 1);
+
+		log.debug("Patching " + update.getUpdateObject() + " on " + mongoTemplate.getCollectionName(entityClass));
+		return mongoTemplate.findAndModify(query, update, entityClass);
+	}
+
+	private void set(Update update, String prefix, Document document, Set<String> replaced) {
+		for (Map.Entry<String, Object> field : document.entrySet()) {
+			if (field.getValue() == null || SKIPPED_FIELDS.contains(field.getKey())
+					|| prefix == null && replaced.contains(field.getKey())) {
+				continue;
+			}
+
+			String path = prefix == null ? field.getKey() : prefix + "." + field.getKey();
+			if (field.getValue() instanceof Document nested) {
+				set(update, path, nested, replaced);
+			} else {
+				update.set(path, field.getValue());
+			}
+		}
+	}
+}
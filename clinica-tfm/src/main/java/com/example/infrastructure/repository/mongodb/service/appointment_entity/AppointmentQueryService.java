@@ -0,0 +1,110 @@
+package com.example.infrastructure.repository.mongodb.service.appointment_entity;
+
+import java.time.LocalDateTime;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import com.example.application.util.ClinicLogicException;
+import com.example.application.util.Errors;
+import com.example.infrastructure.repository.mongodb.entity.AppointmentEntity;
+import com.example.infrastructure.repository.mongodb.projection.AppointmentView;
+
+import jakarta.validation.Valid;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Read-only queries on the appointments, returning their views as read,
+ * without going through the domain model, for the endpoints that only show
+ * them.
+ */
+@Slf4j
+@Component
+public class AppointmentQueryService {
+
+	@Autowired
+	AppointmentRepository appointmentRepository;
+
+	@Autowired
+	MongoTemplate mongoTemplate;
+
+	@Value("${custom.export.batch-size:500}")
+	int exportBatchSize;
+
+	/**
+	 * Retrieves the appointments following the given position, in the given order
+	 * and then by ID. The position is a keyset, so fetching a window costs the same
+	 * at any depth, and no count is run.
+	 * 
+	 * @param position The position to continue from.
+	 * @param size     The maximum number of appointments.
+	 * @param sort     The order of the appointments.
+	 * @return A window of appointments.
+	 * @throws ClinicLogicException If the size exceeds the maximum allowed.
+	 */
+	public Window<AppointmentView> getAllAppointments(@Valid ScrollPosition position, int size, Sort sort)
+			throws ClinicLogicException {
+		log.debug("Scrolling all appointments");
+
+		if (size >= 100) {
+			throw new ClinicLogicException(Errors.MAXIMUM_PAGINATION);
+		}
+
+		return appointmentRepository.findByDeleted(false, position, Limit.of(size), sort);
+	}
+
+	/**
+	 * Reads the active appointments in ID order from a single cursor, fetched a
+	 * batch at a time as the stream is consumed, so memory stays the same however
+	 * many there are. The validation is done at once, and the cursor only opened
+	 * when the stream is asked for, by the thread consuming it; the stream must
+	 * then be closed to release the cursor.
+	 * 
+	 * @param after  The ID of the last appointment already read, to resume from,
+	 *               optional.
+	 * @param from   The earliest date of the appointments, optional.
+	 * @param to     The date the appointments are before, optional.
+	 * @param doctor The document of the doctor of the appointments, optional.
+	 * @return The opening of the stream over the cursor of the appointments.
+	 * @throws ClinicLogicException If the ID to resume from is not valid.
+	 */
+	public Supplier<Stream<AppointmentView>> exportAppointments(String after, LocalDateTime from, LocalDateTime to,
+			String doctor) throws ClinicLogicException {
+		log.debug("Exporting appointments after " + after);
+
+		Criteria criteria = Criteria.where("deleted").is(false);
+		if (after != null) {
+			if (!ObjectId.isValid(after)) {
+				throw new ClinicLogicException(Errors.INVALID_RESUME_TOKEN);
+			}
+			criteria.and("appointmentId").gt(after);
+		}
+		if (from != null || to != null) {
+			Criteria date = criteria.and("date");
+			if (from != null) {
+				date.gte(from);
+			}
+			if (to != null) {
+				date.lt(to);
+			}
+		}
+		if (doctor != null) {
+			criteria.and("doctor.personalInformation.document").is(doctor);
+		}
+
+		Query query = Query.query(criteria).with(Sort.by("appointmentId")).cursorBatchSize(exportBatchSize);
+
+		return () -> mongoTemplate.query(AppointmentEntity.class).as(AppointmentView.class).matching(query).stream();
+	}
+}
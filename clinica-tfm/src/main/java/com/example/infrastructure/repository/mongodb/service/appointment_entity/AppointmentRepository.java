@@ -2,12 +2,18 @@ package com.example.infrastructure.repository.mongodb.service.appointment_entity
 
 import java.util.Optional;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.stereotype.Repository;
 
 import com.example.infrastructure.repository.mongodb.entity.AppointmentEntity;
+import com.example.infrastructure.repository.mongodb.projection.AppointmentView;
 
 import jakarta.validation.Valid;
 
@@ -16,11 +22,21 @@ public interface AppointmentRepository extends MongoRepository<AppointmentEntity
 
 	Optional<AppointmentEntity> findByAppointmentIdAndDeleted(@Valid String id, boolean deleted);
 
-	Page<AppointmentEntity> findByDeleted(@Valid Pageable pageable, boolean deleted);
+	Page<AppointmentView> findByDeleted(@Valid Pageable pageable, boolean deleted);
 
-	Page<AppointmentEntity> findByDoctorPersonalInformationDocumentAndDeleted(String document, boolean deleted,
+	Slice<AppointmentView> findSliceByDeleted(boolean deleted, Pageable pageable);
+
+	Window<AppointmentView> findByDeleted(boolean deleted, ScrollPosition position, Limit limit, Sort sort);
+
+	Page<AppointmentView> findByDoctorPersonalInformationDocumentAndDeleted(String document, boolean deleted,
+			Pageable pageable);
+
+	Slice<AppointmentView> findSliceByDoctorPersonalInformationDocumentAndDeleted(String document, boolean deleted,
+			Pageable pageable);
+
+	Page<AppointmentView> findByPatientPersonalInformationDocumentAndDeleted(String document, boolean deleted,
 			Pageable pageable);
 
-	Page<AppointmentEntity> findByPatientPersonalInformationDocumentAndDeleted(String document, boolean deleted,
+	Slice<AppointmentView> findSliceByPatientPersonalInformationDocumentAndDeleted(String document, boolean deleted,
 			Pageable pageable);
 }
@@ -0,0 +1,95 @@
+package com.example.infrastructure.repository.mongodb.service.appointment_entity;
+
+import java.util.List;
+
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.example.infrastructure.repository.mongodb.entity.AppointmentEntity;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Removes, while the application serves requests, from the appointments stored
+ * before the summaries, the fields of their doctor and patient that the
+ * summaries leave out. Those fields are not read anymore, so this only frees
+ * their space.
+ *
+ * A run walks the appointments once in ID order, a batch at a time, resuming
+ * each batch after the last ID of the previous one, so that no appointment is
+ * read twice, and unsets the fields on exactly the IDs of the batch.
+ * Appointments written since hold the summaries alone, so the first run that
+ * completes is the last one of this instance. Opt-in, for the instances of a
+ * deployment whose data predates the summaries.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "custom.appointment-summaries.compaction", name = "enabled", havingValue = "true")
+public class AppointmentSummaryCompaction {
+
+	private static final String[] REMOVED_FIELDS = { "doctor.licenseNum", "doctor.mirDate",
+			"doctor.idDoctorAppointments", "doctor.personalInformation.idDocument", "patient.socialSecurityNumber",
+			"patient.height", "patient.weight", "patient.idPatientAppointments",
+			"patient.personalInformation.idDocument" };
+
+	@Autowired
+	MongoTemplate mongoTemplate;
+
+	@Value("${custom.appointment-summaries.compaction.batch-size:500}")
+	int batchSize;
+
+	private volatile boolean finished;
+
+	@Scheduled(initialDelayString = "${custom.appointment-summaries.compaction.interval:PT1M}",
+			fixedDelayString = "${custom.appointment-summaries.compaction.interval:PT1M}")
+	public void compact() {
+		if (finished) {
+			return;
+		}
+
+		Criteria[] stored = new Criteria[REMOVED_FIELDS.length];
+		Update update = new Update();
+
+		for (int i = 0; i < REMOVED_FIELDS.length; i++) {
+			stored[i] = Criteria.where(REMOVED_FIELDS[i]).exists(true);
+			update.unset(REMOVED_FIELDS[i]);
+		}
+
+		try {
+			long compacted = 0;
+			Object lastId = null;
+			List<Document> batch;
+
+			do {
+				Criteria criteria = lastId == null ? new Criteria() : Criteria.where("_id").gt(lastId);
+				Query query = Query.query(criteria.orOperator(stored)).with(Sort.by("_id")).limit(batchSize);
+				query.fields().include("_id");
+				batch = mongoTemplate.find(query, Document.class,
+						mongoTemplate.getCollectionName(AppointmentEntity.class));
+
+				if (!batch.isEmpty()) {
+					List<Object> ids = batch.stream().map(appointment -> appointment.get("_id")).toList();
+					compacted += mongoTemplate.updateMulti(Query.query(Criteria.where("_id").in(ids)), update,
+							AppointmentEntity.class).getModifiedCount();
+					lastId = ids.get(ids.size() - 1);
+				}
+			} while (batch.size() == batchSize);
+
+			finished = true;
+			log.info("Compacted the doctor and patient of " + compacted
+					+ " appointments, the compaction is finished");
+		} catch (DataAccessException ex) {
+			log.error("Could not compact the doctor and patient of the appointments", ex);
+		}
+	}
+}
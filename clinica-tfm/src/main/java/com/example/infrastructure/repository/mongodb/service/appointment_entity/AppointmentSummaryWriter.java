@@ -0,0 +1,107 @@
+package com.example.infrastructure.repository.mongodb.service.appointment_entity;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import com.example.infrastructure.cache.key.ClinicCacheKey.Operation;
+import com.example.infrastructure.cache.service.ClinicCacheEvictor;
+import com.example.infrastructure.repository.mongodb.entity.AppointmentEntity;
+import com.example.infrastructure.repository.mongodb.entity.DoctorEntity;
+import com.example.infrastructure.repository.mongodb.entity.PatientEntity;
+import com.example.infrastructure.repository.mongodb.entity.PersonalInformationEntity;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Copies the changes of a doctor or patient to the summaries of it held by its
+ * appointments, with a single update of all of them by its ID, and evicts the
+ * cached appointments holding those summaries.
+ *
+ * A replaced doctor or patient sets every field of the summaries; a patch sets
+ * only the fields it holds, as the patch of the doctor or patient itself.
+ */
+@Slf4j
+@Component
+public class AppointmentSummaryWriter {
+
+	@Autowired
+	MongoTemplate mongoTemplate;
+
+	@Autowired
+	ClinicCacheEvictor clinicCacheEvictor;
+
+	/**
+	 * A doctor was replaced or patched.
+	 *
+	 * @param doctor  The doctor as written, or the patch.
+	 * @param partial Whether only the fields present are written.
+	 */
+	public void doctorModified(DoctorEntity doctor, boolean partial) {
+		Update update = new Update();
+
+		setPersonalInformation(update, "doctor", doctor.getPersonalInformationEntity(), partial);
+		set(update, "doctor.specializations", doctor.getSpecializations(), partial);
+
+		write(update, "doctor", doctor.getId(), Operation.PAGE_BY_DOCTOR_DOCUMENT,
+				documentOf(doctor.getPersonalInformationEntity()));
+	}
+
+	/**
+	 * A patient was replaced or patched.
+	 *
+	 * @param patient The patient as written, or the patch.
+	 * @param partial Whether only the fields present are written.
+	 */
+	public void patientModified(PatientEntity patient, boolean partial) {
+		Update update = new Update();
+
+		setPersonalInformation(update, "patient", patient.getPersonalInformationEntity(), partial);
+
+		write(update, "patient", patient.getId(), Operation.PAGE_BY_PATIENT_DOCUMENT,
+				documentOf(patient.getPersonalInformationEntity()));
+	}
+
+	private void write(Update update, String party, String id, Operation byDocument, String document) {
+		if (update.getUpdateObject().isEmpty()) {
+			return;
+		}
+		log.debug("Updating the " + party + " summaries of the appointments of " + id);
+
+		// Only the active appointments are shown, and the index covers only those.
+		long modified = mongoTemplate.updateMulti(
+				Query.query(Criteria.where(party + ".id").is(id).and("deleted").is(false)), update,
+				AppointmentEntity.class).getModifiedCount();
+
+		if (modified > 0) {
+			clinicCacheEvictor.appointmentPartyModified(id, byDocument, document);
+		}
+	}
+
+	private void setPersonalInformation(Update update, String party, PersonalInformationEntity personalInformation,
+			boolean partial) {
+		if (personalInformation == null) {
+			if (!partial) {
+				update.unset(party + ".personalInformation");
+			}
+			return;
+		}
+
+		set(update, party + ".personalInformation.name", personalInformation.getName(), partial);
+		set(update, party + ".personalInformation.surname", personalInformation.getSurname(), partial);
+		set(update, party + ".personalInformation.document", personalInformation.getDocument(), partial);
+	}
+
+	private void set(Update update, String field, Object value, boolean partial) {
+		if (value != null || !partial) {
+			update.set(field, value);
+		}
+	}
+
+	private String documentOf(PersonalInformationEntity personalInformation) {
+		return personalInformation == null ? null : personalInformation.getDocument();
+	}
+}
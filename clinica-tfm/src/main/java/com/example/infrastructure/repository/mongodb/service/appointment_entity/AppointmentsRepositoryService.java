@@ -1,22 +1,46 @@
 package com.example.infrastructure.repository.mongodb.service.appointment_entity;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
+import org.bson.types.ObjectId;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.example.application.port.output.AppointmentRepositoryOutputPort;
 import com.example.application.port.output.DoctorRepositoryOutputPort;
 import com.example.application.port.output.PatientRepositoryOutputPort;
+import com.example.application.util.BatchItemResult;
+import com.example.application.util.ClinicConflictException;
+import com.example.application.util.ClinicLogicException;
+import com.example.application.util.CountMode;
+import com.example.application.util.Errors;
 import com.example.domain.model.Appointment;
+import com.example.infrastructure.cache.service.ClinicCacheEvictor;
+import com.example.infrastructure.cache.service.ClinicCountCache;
 import com.example.infrastructure.repository.mongodb.entity.AppointmentEntity;
+import com.example.infrastructure.repository.mongodb.entity.AppointmentLinkEntity;
 import com.example.infrastructure.repository.mongodb.mapper.AppointmentToAppointmentEntityMapper;
+import com.example.infrastructure.repository.mongodb.mapper.AppointmentToAppointmentViewMapper;
+import com.example.infrastructure.repository.mongodb.projection.AppointmentView;
+import com.example.infrastructure.repository.mongodb.service.ClinicBulkWriter;
+import com.example.infrastructure.repository.mongodb.service.ClinicPatchWriter;
+import com.example.infrastructure.repository.mongodb.service.appointment_link_entity.AppointmentLinkRepository;
 
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
@@ -44,24 +68,52 @@ public class AppointmentsRepositoryService implements AppointmentRepositoryOutpu
 	@Autowired
 	private AppointmentRepository appointmentRepository;
 
+	@Autowired
+	private AppointmentLinkRepository appointmentLinkRepository;
+
+	@Autowired
+	private MongoTemplate mongoTemplate;
+
 	@Autowired
 	private AppointmentToAppointmentEntityMapper appointmentToAppointmentEntityMapper;
 
+	@Autowired
+	private AppointmentToAppointmentViewMapper appointmentToAppointmentViewMapper;
+
+	@Autowired
+	private ClinicCacheEvictor clinicCacheEvictor;
+
+	@Autowired
+	private ClinicCountCache clinicCountCache;
+
+	@Autowired
+	private ClinicBulkWriter clinicBulkWriter;
+
+	@Autowired
+	private ClinicPatchWriter clinicPatchWriter;
+
 	/**
 	 * Retrieves all appointments in a paginated format, using cache to optimize the
-	 * operation.
+	 * operation. Only the exact count mode runs a count query, the cached one
+	 * reads the total from {@link ClinicCountCache} and the other returns none.
 	 * 
-	 * @param pageable Pagination information.
-	 * @return A page of appointments.
+	 * @param pageable  Pagination information.
+	 * @param countMode How the total of appointments is obtained.
+	 * @return A page of appointments, or a slice without total.
 	 */
 	@Override
-	@Cacheable(value = "appointments", key = "#pageable")
-	public Page<Appointment> getAllAppointments(@Valid Pageable pageable) {
-		log.debug("Getting all appointments");
-
-		Page<AppointmentEntity> pageEntity = appointmentRepository.findByDeleted(pageable, false);
-
-		return appointmentToAppointmentEntityMapper.fromOutputToInput(pageEntity);
+	@Cacheable(value = "appointments", key = "@clinicCacheKeys.page('APPOINTMENT', #pageable, #countMode)")
+	public Slice<Appointment> getAllAppointments(@Valid Pageable pageable, CountMode countMode) {
+		log.debug("Getting all appointments, count " + countMode);
+
+		Slice<AppointmentView> sliceView = switch (countMode) {
+		case EXACT -> appointmentRepository.findByDeleted(pageable, false);
+		case CACHED -> clinicCountCache.withTotal(appointmentRepository.findSliceByDeleted(false, pageable),
+				AppointmentEntity.class, Criteria.where("deleted").is(false));
+		case NONE -> appointmentRepository.findSliceByDeleted(false, pageable);
+		};
+
+		return appointmentToAppointmentViewMapper.fromOutputToInput(sliceView);
 	}
 
 	/**
@@ -72,7 +124,7 @@ public class AppointmentsRepositoryService implements AppointmentRepositoryOutpu
 	 *         found.
 	 */
 	@Override
-	@Cacheable(value = "appointments", key = "#id")
+	@Cacheable(value = "appointments", key = "@clinicCacheKeys.byId('APPOINTMENT', #id)")
 	public Optional<Appointment> getAppointment(@Valid String id) {
 		log.debug("Getting an appointment");
 
@@ -85,108 +137,333 @@ public class AppointmentsRepositoryService implements AppointmentRepositoryOutpu
 	 * Retrieves all appointments for a doctor by the doctor's document, using cache
 	 * to optimize the operation.
 	 * 
-	 * @param document The document of the doctor.
-	 * @param pageable Pagination information.
-	 * @return A page of appointments.
+	 * @param document  The document of the doctor.
+	 * @param pageable  Pagination information.
+	 * @param countMode How the total of appointments is obtained.
+	 * @return A page of appointments, or a slice without total.
 	 */
 	@Override
-	@Cacheable(value = "appointments", key = "#document")
-	public Page<Appointment> getAppointmentsByDoctorDocument(@Valid String document, Pageable pageable) {
-		log.debug("Getting appointments for doctor with document");
-
-		Page<AppointmentEntity> pageEntity = appointmentRepository
-				.findByDoctorPersonalInformationDocumentAndDeleted(document, false, pageable);
-
-		return appointmentToAppointmentEntityMapper.fromOutputToInput(pageEntity);
+	@Cacheable(value = "appointments",
+			key = "@clinicCacheKeys.pageByDoctorDocument(#document, #pageable, #countMode)")
+	public Slice<Appointment> getAppointmentsByDoctorDocument(@Valid String document, Pageable pageable,
+			CountMode countMode) {
+		log.debug("Getting appointments for doctor with document, count " + countMode);
+
+		Slice<AppointmentView> sliceView = switch (countMode) {
+		case EXACT -> appointmentRepository.findByDoctorPersonalInformationDocumentAndDeleted(document, false,
+				pageable);
+		case CACHED -> clinicCountCache.withTotal(
+				appointmentRepository.findSliceByDoctorPersonalInformationDocumentAndDeleted(document, false,
+						pageable),
+				AppointmentEntity.class,
+				Criteria.where("doctor.personalInformation.document").is(document).and("deleted").is(false));
+		case NONE -> appointmentRepository.findSliceByDoctorPersonalInformationDocumentAndDeleted(document, false,
+				pageable);
+		};
+
+		return appointmentToAppointmentViewMapper.fromOutputToInput(sliceView);
 	}
 
 	/**
 	 * Retrieves all appointments for a patient by the patient's document, using
 	 * cache to optimize the operation.
 	 * 
-	 * @param document The document of the patient.
+	 * @param document  The document of the patient.
+	 * @param pageable  Pagination information.
+	 * @param countMode How the total of appointments is obtained.
+	 * @return A page of appointments, or a slice without total.
+	 */
+	@Override
+	@Cacheable(value = "appointments",
+			key = "@clinicCacheKeys.pageByPatientDocument(#document, #pageable, #countMode)")
+	public Slice<Appointment> getAppointmentsByPatientDocument(@Valid String document, Pageable pageable,
+			CountMode countMode) {
+		log.debug("Getting appointments for patient with document, count " + countMode);
+
+		Slice<AppointmentView> sliceView = switch (countMode) {
+		case EXACT -> appointmentRepository.findByPatientPersonalInformationDocumentAndDeleted(document, false,
+				pageable);
+		case CACHED -> clinicCountCache.withTotal(
+				appointmentRepository.findSliceByPatientPersonalInformationDocumentAndDeleted(document, false,
+						pageable),
+				AppointmentEntity.class,
+				Criteria.where("patient.personalInformation.document").is(document).and("deleted").is(false));
+		case NONE -> appointmentRepository.findSliceByPatientPersonalInformationDocumentAndDeleted(document, false,
+				pageable);
+		};
+
+		return appointmentToAppointmentViewMapper.fromOutputToInput(sliceView);
+	}
+
+	/**
+	 * Retrieves the IDs of the appointments of a doctor, from the appointment
+	 * links.
+	 * 
+	 * @param idDoc    The ID of the doctor.
 	 * @param pageable Pagination information.
-	 * @return A page of appointments.
+	 * @return A page of appointment IDs.
 	 */
 	@Override
-	@Cacheable(value = "appointments", key = "#document")
-	public Page<Appointment> getAppointmentsByPatientDocument(@Valid String document, Pageable pageable) {
-		log.debug("Getting appointments for patient with document");
+	public Page<String> getAppointmentIdsByDoctor(@Valid String idDoc, Pageable pageable) {
+		log.debug("Getting appointment ids of a doctor");
 
-		Page<AppointmentEntity> pageEntity = appointmentRepository
-				.findByPatientPersonalInformationDocumentAndDeleted(document, false, pageable);
+		return appointmentLinkRepository.findByDoctorId(idDoc, pageable).map(AppointmentLinkEntity::getAppointmentId);
+	}
 
-		return appointmentToAppointmentEntityMapper.fromOutputToInput(pageEntity);
+	/**
+	 * Retrieves the IDs of the appointments of a patient, from the appointment
+	 * links.
+	 * 
+	 * @param idPatient The ID of the patient.
+	 * @param pageable  Pagination information.
+	 * @return A page of appointment IDs.
+	 */
+	@Override
+	public Page<String> getAppointmentIdsByPatient(@Valid String idPatient, Pageable pageable) {
+		log.debug("Getting appointment ids of a patient");
+
+		return appointmentLinkRepository.findByPatientId(idPatient, pageable)
+				.map(AppointmentLinkEntity::getAppointmentId);
 	}
 
 	/**
-	 * Creates a new appointment and clears the appointment cache.
+	 * Creates a new appointment, links it to its doctor and patient, and evicts
+	 * the cached pages it belongs to. An appointment whose link could not be
+	 * saved is deleted again, so it is never left out of the lists of its doctor
+	 * and patient.
 	 * 
 	 * @param appointment The appointment to create.
 	 * @return The ID of the new appointment.
+	 * @throws ClinicLogicException If the appointment could not be linked.
 	 */
 	@Override
-	@CacheEvict(value = "appointments", allEntries = true)
-	public String postAppointment(@Valid Appointment appointment) {
+	public String postAppointment(@Valid Appointment appointment) throws ClinicLogicException {
 		log.debug("Creating an appointment");
 
 		AppointmentEntity appToSave = appointmentToAppointmentEntityMapper.fromInputToOutput(appointment);
+		// Created at the first version, whatever version was given.
+		appToSave.setVersion(null);
+
+		String newId = appointmentRepository.save(appToSave).getAppointmentId();
+		try {
+			link(newId, appointment);
+		} catch (DataAccessException ex) {
+			log.error("Could not link the appointment " + newId + ", deleting it", ex);
+			appointmentRepository.deleteById(newId);
+			throw new ClinicLogicException(Errors.APPOINTMENT_NOT_LINKED);
+		}
+		clinicCacheEvictor.appointmentChanged(newId, doctorDocumentOf(appointment), patientDocumentOf(appointment));
 
-		return appointmentRepository.save(appToSave).getAppointmentId();
+		return newId;
 	}
 
 	/**
-	 * Modifies an existing appointment and clears the appointment cache.
+	 * Creates a batch of appointments with a single unordered bulk insert, links
+	 * the ones created with another, and evicts the cached listings they belong
+	 * to once. The appointments whose link could not be inserted are deleted
+	 * again and reported as failed, so no appointment is left out of the lists
+	 * of its doctor and patient.
+	 * 
+	 * @param appointments The appointments to create.
+	 * @return The result of every appointment, in the order given.
+	 */
+	@Override
+	public List<BatchItemResult> postAppointments(List<Appointment> appointments) {
+		log.debug("Creating a batch of appointments");
+
+		List<AppointmentEntity> entities = appointmentToAppointmentEntityMapper.fromInputToOutput(appointments);
+		entities.forEach(entity -> {
+			entity.setAppointmentId(ObjectId.get().toHexString());
+			entity.setVersion(0L);
+		});
+
+		Map<Integer, String> errors = clinicBulkWriter.insert(AppointmentEntity.class, entities);
+
+		List<BatchItemResult> results = new ArrayList<>(entities.size());
+		List<AppointmentLinkEntity> links = new ArrayList<>();
+		List<Integer> linkIndexes = new ArrayList<>();
+		List<String> doctorDocuments = new ArrayList<>();
+		List<String> patientDocuments = new ArrayList<>();
+		for (int i = 0; i < entities.size(); i++) {
+			if (errors.containsKey(i)) {
+				results.add(BatchItemResult.failed(i, errors.get(i)));
+				continue;
+			}
+
+			String idAppointment = entities.get(i).getAppointmentId();
+			Appointment appointment = appointments.get(i);
+			results.add(BatchItemResult.created(i, idAppointment));
+			if (appointment.getDoctor() != null && appointment.getPatient() != null) {
+				links.add(AppointmentLinkEntity.builder().appointmentId(idAppointment)
+						.doctorId(appointment.getDoctor().getId()).patientId(appointment.getPatient().getId()).build());
+				linkIndexes.add(i);
+			}
+			doctorDocuments.add(doctorDocumentOf(appointment));
+			patientDocuments.add(patientDocumentOf(appointment));
+		}
+
+		if (!links.isEmpty()) {
+			for (int i : unlinked(links, linkIndexes)) {
+				results.set(i, BatchItemResult.failed(i, Errors.APPOINTMENT_NOT_LINKED));
+			}
+		}
+		clinicCacheEvictor.appointmentsCreated(doctorDocuments, patientDocuments);
+
+		return results;
+	}
+
+	/**
+	 * Inserts the links of a batch of appointments just created, and deletes the
+	 * appointments whose link could not be inserted.
+	 * 
+	 * @param links       The links to insert.
+	 * @param linkIndexes The index in the batch of the appointment of each link.
+	 * @return The indexes in the batch of the appointments deleted.
+	 */
+	private List<Integer> unlinked(List<AppointmentLinkEntity> links, List<Integer> linkIndexes) {
+		Map<Integer, String> linkErrors;
+		try {
+			linkErrors = clinicBulkWriter.insert(AppointmentLinkEntity.class, links);
+		} catch (DataAccessException ex) {
+			log.error("Could not link the " + links.size() + " appointments created", ex);
+			linkErrors = new HashMap<>();
+			for (int i = 0; i < links.size(); i++) {
+				linkErrors.put(i, ex.getMessage());
+			}
+		}
+		if (linkErrors.isEmpty()) {
+			return List.of();
+		}
+
+		log.error("Could not link " + linkErrors.size() + " of the appointments created, deleting them: "
+				+ linkErrors);
+		List<String> ids = linkErrors.keySet().stream().map(i -> links.get(i).getAppointmentId()).toList();
+		appointmentRepository.deleteAllById(ids);
+
+		return linkErrors.keySet().stream().map(linkIndexes::get).toList();
+	}
+
+	/**
+	 * Modifies an existing appointment, provided it is still at the version given,
+	 * and evicts the cached entries holding it and the pages it now belongs to.
 	 * 
 	 * @param appointment The appointment with updated information.
+	 * @throws ClinicConflictException If the appointment was modified since that
+	 *                                 version.
 	 */
 	@Override
-	@CacheEvict(value = "appointments", allEntries = true)
-	public void modifyAppointment(@Valid Appointment appointment) {
+	public void modifyAppointment(@Valid Appointment appointment) throws ClinicConflictException {
 		log.debug("Modifying an appointment");
 
-		appointmentRepository.save(appointmentToAppointmentEntityMapper.fromInputToOutput(appointment));
+		try {
+			appointmentRepository.save(appointmentToAppointmentEntityMapper.fromInputToOutput(appointment));
+		} catch (OptimisticLockingFailureException ex) {
+			clinicCacheEvictor.entityModified("appointments", appointment.getAppointmentId(), null);
+			throw new ClinicConflictException(Errors.CONCURRENT_MODIFICATION);
+		}
+		link(appointment.getAppointmentId(), appointment);
+		clinicCacheEvictor.appointmentChanged(appointment.getAppointmentId(), doctorDocumentOf(appointment),
+				patientDocumentOf(appointment));
 	}
 
 	/**
-	 * Deletes an appointment by its ID (marking it as deleted) and clears the
-	 * appointment cache.
+	 * Partially modifies an existing appointment, setting only the fields present
+	 * in the patch with a single conditional update, relinks it if its doctor or
+	 * patient changed, and evicts the cached entries holding it and the pages it
+	 * belonged and now belongs to. A doctor or patient present replaces the whole
+	 * summary of the previous one.
+	 * 
+	 * @param patch The appointment holding its ID and the fields to modify, its
+	 *              doctor and patient, if present, as read.
+	 * @return Whether the appointment was found.
+	 */
+	@Override
+	public boolean patchAppointment(Appointment patch) {
+		log.debug("Patching an appointment");
+
+		AppointmentEntity previous = clinicPatchWriter.patch(AppointmentEntity.class, patch.getAppointmentId(),
+				appointmentToAppointmentEntityMapper.fromInputToOutput(patch), Set.of("doctor", "patient"));
+
+		if (previous == null) {
+			return false;
+		}
+
+		Update link = new Update();
+		if (patch.getDoctor() != null && patch.getDoctor().getId() != null) {
+			link.set("doctorId", patch.getDoctor().getId());
+		}
+		if (patch.getPatient() != null && patch.getPatient().getId() != null) {
+			link.set("patientId", patch.getPatient().getId());
+		}
+		if (!link.getUpdateObject().isEmpty()) {
+			mongoTemplate.updateFirst(Query.query(Criteria.where("appointmentId").is(patch.getAppointmentId())), link,
+					AppointmentLinkEntity.class);
+		}
+
+		clinicCacheEvictor.appointmentChanged(patch.getAppointmentId(), doctorDocumentOf(previous),
+				patientDocumentOf(previous));
+		clinicCacheEvictor.appointmentChanged(patch.getAppointmentId(), doctorDocumentOf(patch),
+				patientDocumentOf(patch));
+		return true;
+	}
+
+	/**
+	 * Deletes an appointment by its ID (marking it as deleted), removes its link
+	 * and evicts the cached entries holding it. Each document is changed with a
+	 * single atomic update, without reading the doctor and patient. The ID is also
+	 * pulled from the arrays of the doctor and patient, still holding it if not yet
+	 * migrated to the links.
 	 * 
 	 * @param idAppointment The ID of the appointment to delete.
 	 */
 	@Override
 	@Transactional
-	@CacheEvict(value = "appointments", allEntries = true)
 	public void deleteAppointment(@Valid String idAppointment) {
 		log.debug("Deleting an appointment");
 
-		Optional<AppointmentEntity> opt = appointmentRepository.findByAppointmentIdAndDeleted(idAppointment, false);
+		AppointmentEntity deleted = mongoTemplate.findAndModify(
+				Query.query(Criteria.where("appointmentId").is(idAppointment).and("deleted").is(false)),
+				Update.update("deleted", true).inc("version", 1), AppointmentEntity.class);
 
-		if (!opt.isPresent()) {
+		if (deleted == null) {
 			return;
 		}
+		appointmentLinkRepository.deleteById(idAppointment);
+		clinicCacheEvictor.entityDeleted("appointments", idAppointment);
 
-		opt.get().setDeleted(true);
-		appointmentRepository.save(opt.get());
-
-		// Recorremos al paciente para eliminar la cita asociada.
-		List<String> listOfAppPatient = opt.get().getPatient().getIdPatientAppointments();
-		for (String id : listOfAppPatient) {
-			if (id.equals(idAppointment)) {
-				listOfAppPatient.remove(id);
-			}
+		if (deleted.getPatient() != null) {
+			patientRepository.removePatientAppointment(deleted.getPatient().getId(), idAppointment);
 		}
-		opt.get().getPatient().setIdPatientAppointments(listOfAppPatient);
-		patientRepository.modifyPatient(opt.get().getPatient());
-
-		// Recorremos al doctor para eliminar la cita asociada.
-		List<String> listOfAppDoc = opt.get().getDoctor().getIdDoctorAppointments();
-		for (String id : listOfAppDoc) {
-			if (id.equals(idAppointment)) {
-				listOfAppDoc.remove(id);
-			}
+		if (deleted.getDoctor() != null) {
+			doctorRepository.removeDoctorAppointment(deleted.getDoctor().getId(), idAppointment);
 		}
-		opt.get().getDoctor().setIdDoctorAppointments(listOfAppDoc);
-		doctorRepository.modifyDoctor(opt.get().getDoctor());
+	}
+
+	private void link(String idAppointment, Appointment appointment) {
+		if (idAppointment == null || appointment.getDoctor() == null || appointment.getPatient() == null) {
+			return;
+		}
+		appointmentLinkRepository.save(AppointmentLinkEntity.builder().appointmentId(idAppointment)
+				.doctorId(appointment.getDoctor().getId()).patientId(appointment.getPatient().getId()).build());
+	}
+
+	private String doctorDocumentOf(Appointment appointment) {
+		return appointment.getDoctor() == null || appointment.getDoctor().getPersonalInformation() == null ? null
+				: appointment.getDoctor().getPersonalInformation().getDocument();
+	}
+
+	private String patientDocumentOf(Appointment appointment) {
+		return appointment.getPatient() == null || appointment.getPatient().getPersonalInformation() == null ? null
+				: appointment.getPatient().getPersonalInformation().getDocument();
+	}
+
+	private String doctorDocumentOf(AppointmentEntity appointment) {
+		return appointment.getDoctor() == null || appointment.getDoctor().getPersonalInformation() == null ? null
+				: appointment.getDoctor().getPersonalInformation().getDocument();
+	}
+
+	private String patientDocumentOf(AppointmentEntity appointment) {
+		return appointment.getPatient() == null || appointment.getPatient().getPersonalInformation() == null ? null
+				: appointment.getPatient().getPersonalInformation().getDocument();
 	}
 }
\ No newline at end of file
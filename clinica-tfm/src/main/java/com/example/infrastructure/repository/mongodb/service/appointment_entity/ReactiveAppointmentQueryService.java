@@ -0,0 +1,65 @@
+package com.example.infrastructure.repository.mongodb.service.appointment_entity;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import com.example.infrastructure.repository.mongodb.projection.AppointmentView;
+
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+
+/**
+ * Read-only streams of the appointments for the reactive profile, returning
+ * their views as read, without going through the domain model, as
+ * {@link AppointmentQueryService} does for the blocking endpoints. Read from a
+ * cursor as they are consumed, a batch at a time, in the order of the indexes
+ * that serve them.
+ */
+@Slf4j
+@Component
+@Profile("reactive")
+public class ReactiveAppointmentQueryService {
+
+	@Autowired
+	ReactiveAppointmentRepository reactiveAppointmentRepository;
+
+	/**
+	 * Streams the active appointments, in ID order.
+	 * 
+	 * @return The appointments.
+	 */
+	public Flux<AppointmentView> streamAppointments() {
+		log.debug("Streaming all appointments");
+
+		return reactiveAppointmentRepository.findByDeletedOrderByAppointmentIdAsc(false);
+	}
+
+	/**
+	 * Streams the active appointments of a doctor by the doctor's document, in ID
+	 * order.
+	 * 
+	 * @param document The document of the doctor.
+	 * @return The appointments of the doctor.
+	 */
+	public Flux<AppointmentView> streamAppointmentsByDoctorDocument(String document) {
+		log.debug("Streaming appointments for doctor with document");
+
+		return reactiveAppointmentRepository
+				.findByDoctorPersonalInformationDocumentAndDeletedOrderByAppointmentIdAsc(document, false);
+	}
+
+	/**
+	 * Streams the active appointments of a patient by the patient's document, in
+	 * ID order.
+	 * 
+	 * @param document The document of the patient.
+	 * @return The appointments of the patient.
+	 */
+	public Flux<AppointmentView> streamAppointmentsByPatientDocument(String document) {
+		log.debug("Streaming appointments for patient with document");
+
+		return reactiveAppointmentRepository
+				.findByPatientPersonalInformationDocumentAndDeletedOrderByAppointmentIdAsc(document, false);
+	}
+}
@@ -0,0 +1,24 @@
+package com.example.infrastructure.repository.mongodb.service.appointment_entity;
+
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+
+import com.example.infrastructure.repository.mongodb.entity.AppointmentEntity;
+import com.example.infrastructure.repository.mongodb.projection.AppointmentView;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Repository
+public interface ReactiveAppointmentRepository extends ReactiveMongoRepository<AppointmentEntity, String> {
+
+	Mono<AppointmentEntity> findByAppointmentIdAndDeleted(String id, boolean deleted);
+
+	Flux<AppointmentView> findByDeletedOrderByAppointmentIdAsc(boolean deleted);
+
+	Flux<AppointmentView> findByDoctorPersonalInformationDocumentAndDeletedOrderByAppointmentIdAsc(String document,
+			boolean deleted);
+
+	Flux<AppointmentView> findByPatientPersonalInformationDocumentAndDeletedOrderByAppointmentIdAsc(String document,
+			boolean deleted);
+}
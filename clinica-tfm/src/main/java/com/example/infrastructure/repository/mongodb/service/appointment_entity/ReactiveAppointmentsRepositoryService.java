@@ -0,0 +1,85 @@
+package com.example.infrastructure.repository.mongodb.service.appointment_entity;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import com.example.application.port.output.ReactiveAppointmentRepositoryOutputPort;
+import com.example.domain.model.Appointment;
+import com.example.infrastructure.repository.mongodb.entity.AppointmentLinkEntity;
+import com.example.infrastructure.repository.mongodb.mapper.AppointmentToAppointmentEntityMapper;
+import com.example.infrastructure.repository.mongodb.service.appointment_link_entity.ReactiveAppointmentLinkRepository;
+
+import jakarta.validation.Valid;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reads the appointments and their links with the reactive MongoDB driver, for
+ * the reactive profile. The lists of links are read from a cursor as they are
+ * consumed, a batch at a time, in the order of the indexes that serve them; the
+ * lists of appointments are read as views by
+ * {@link ReactiveAppointmentQueryService}.
+ * 
+ * The caches are not used: they are filled and evicted by the blocking
+ * adapters.
+ */
+@Slf4j
+@Component
+@Profile("reactive")
+public class ReactiveAppointmentsRepositoryService implements ReactiveAppointmentRepositoryOutputPort {
+
+	@Autowired
+	ReactiveAppointmentRepository reactiveAppointmentRepository;
+
+	@Autowired
+	ReactiveAppointmentLinkRepository reactiveAppointmentLinkRepository;
+
+	@Autowired
+	AppointmentToAppointmentEntityMapper appointmentToAppointmentEntityMapper;
+
+	/**
+	 * Retrieves an active appointment by its ID.
+	 * 
+	 * @param id The ID of the appointment.
+	 * @return The appointment, or empty if not found.
+	 */
+	@Override
+	public Mono<Appointment> getAppointment(@Valid String id) {
+		log.debug("Getting an appointment reactively");
+
+		return reactiveAppointmentRepository.findByAppointmentIdAndDeleted(id, false)
+				.map(appointmentToAppointmentEntityMapper::fromOutputToInput);
+	}
+
+	/**
+	 * Retrieves the IDs of the appointments of a doctor, from the appointment
+	 * links.
+	 * 
+	 * @param idDoc The ID of the doctor.
+	 * @return The appointment IDs.
+	 */
+	@Override
+	public Flux<String> getAppointmentIdsByDoctor(@Valid String idDoc) {
+		log.debug("Streaming appointment ids of a doctor");
+
+		return reactiveAppointmentLinkRepository.findByDoctorIdOrderByAppointmentIdAsc(idDoc)
+				.map(AppointmentLinkEntity::getAppointmentId);
+	}
+
+	/**
+	 * Retrieves the IDs of the appointments of a patient, from the appointment
+	 * links.
+	 * 
+	 * @param idPatient The ID of the patient.
+	 * @return The appointment IDs.
+	 */
+	@Override
+	public Flux<String> getAppointmentIdsByPatient(@Valid String idPatient) {
+		log.debug("Streaming appointment ids of a patient");
+
+		return reactiveAppointmentLinkRepository.findByPatientIdOrderByAppointmentIdAsc(idPatient)
+				.map(AppointmentLinkEntity::getAppointmentId);
+	}
+}
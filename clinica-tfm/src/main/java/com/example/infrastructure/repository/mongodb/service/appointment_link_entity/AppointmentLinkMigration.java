@@ -0,0 +1,137 @@
+package com.example.infrastructure.repository.mongodb.service.appointment_link_entity;
+
+import java.util.List;
+
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.example.infrastructure.cache.service.ClinicCacheEvictor;
+import com.example.infrastructure.repository.mongodb.configuration.AppointmentLinkProperties;
+import com.example.infrastructure.repository.mongodb.entity.AppointmentEntity;
+import com.example.infrastructure.repository.mongodb.entity.AppointmentLinkEntity;
+import com.example.infrastructure.repository.mongodb.entity.DoctorEntity;
+import com.example.infrastructure.repository.mongodb.entity.PatientEntity;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Drains, while the application serves requests, the appointment id arrays of
+ * the doctors and patients into the appointment links.
+ *
+ * Every run reads the doctors, then the patients, still holding ids, a batch at
+ * a time. The active appointments among those ids are linked to the doctor and
+ * patient they name, and then exactly the ids read are pulled from the array,
+ * so ids added meanwhile are left for the next batch. Links are upserted by
+ * appointment id, so batches can be repeated, or run by several instances at
+ * once, without harm.
+ *
+ * No request carries the arrays any more, so nothing adds ids to them and the
+ * first run that finds nothing to drain is the last one of this instance: the scheduled task then returns at
+ * once instead of scanning the collections forever. Opt-in, for the instances
+ * of a deployment whose data predates the links.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "custom.appointment-links.migration", name = "enabled", havingValue = "true")
+public class AppointmentLinkMigration {
+
+	@Autowired
+	MongoTemplate mongoTemplate;
+
+	@Autowired
+	AppointmentLinkProperties appointmentLinkProperties;
+
+	@Autowired
+	ClinicCacheEvictor clinicCacheEvictor;
+
+	private volatile boolean finished;
+
+	@Scheduled(initialDelayString = "${custom.appointment-links.migration.interval:PT1M}",
+			fixedDelayString = "${custom.appointment-links.migration.interval:PT1M}")
+	public void migrate() {
+		if (finished) {
+			return;
+		}
+
+		try {
+			long doctors = drain(DoctorEntity.class, "idDoctorAppointments", "doctors");
+			long patients = drain(PatientEntity.class, "idPatientAppointments", "patients");
+
+			if (doctors + patients > 0) {
+				log.info("Moved the appointment ids of " + doctors + " doctors and " + patients
+						+ " patients to the appointment links");
+			} else {
+				finished = true;
+				log.info("No appointment ids left to move to the appointment links, the migration is finished");
+			}
+		} catch (DataAccessException ex) {
+			log.error("Could not move the appointment ids to the appointment links", ex);
+		}
+	}
+
+	private long drain(Class<?> ownerClass, String field, String region) {
+		int batchSize = appointmentLinkProperties.getMigration().getBatchSize();
+		long drained = 0;
+		List<Document> owners;
+
+		do {
+			Query query = Query.query(Criteria.where(field + ".0").exists(true)).limit(batchSize);
+			query.fields().include(field);
+			owners = mongoTemplate.find(query, Document.class, mongoTemplate.getCollectionName(ownerClass));
+
+			long modified = 0;
+			for (Document owner : owners) {
+				modified += drain(ownerClass, field, region, owner);
+			}
+			drained += modified;
+
+			// Stops rather than reading the same batch forever if nothing could be pulled.
+			if (modified == 0) {
+				break;
+			}
+		} while (owners.size() == batchSize);
+
+		return drained;
+	}
+
+	private long drain(Class<?> ownerClass, String field, String region, Document owner) {
+		List<String> ids = owner.getList(field, String.class);
+		List<AppointmentEntity> appointments = mongoTemplate.find(
+				Query.query(Criteria.where("appointmentId").in(ids).and("deleted").is(false)), AppointmentEntity.class);
+
+		BulkOperations links = mongoTemplate.bulkOps(BulkMode.UNORDERED, AppointmentLinkEntity.class);
+		int linked = 0;
+		for (AppointmentEntity appointment : appointments) {
+			if (appointment.getDoctor() != null && appointment.getPatient() != null) {
+				links.upsert(Query.query(Criteria.where("appointmentId").is(appointment.getAppointmentId())),
+						Update.update("doctorId", appointment.getDoctor().getId()).set("patientId",
+								appointment.getPatient().getId()));
+				linked++;
+			}
+		}
+		if (linked > 0) {
+			links.execute();
+		}
+
+		long modified = mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(owner.get("_id"))),
+				new Update().pullAll(field, ids.toArray()).inc("version", 1), ownerClass).getModifiedCount();
+		clinicCacheEvictor.entityModified(region, idOf(owner), null);
+
+		return modified;
+	}
+
+	private String idOf(Document owner) {
+		return owner.get("_id") instanceof ObjectId id ? id.toHexString() : String.valueOf(owner.get("_id"));
+	}
+}
@@ -0,0 +1,16 @@
+package com.example.infrastructure.repository.mongodb.service.appointment_link_entity;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import com.example.infrastructure.repository.mongodb.entity.AppointmentLinkEntity;
+
+@Repository
+public interface AppointmentLinkRepository extends MongoRepository<AppointmentLinkEntity, String> {
+
+	Page<AppointmentLinkEntity> findByDoctorId(String doctorId, Pageable pageable);
+
+	Page<AppointmentLinkEntity> findByPatientId(String patientId, Pageable pageable);
+}
@@ -0,0 +1,16 @@
+package com.example.infrastructure.repository.mongodb.service.appointment_link_entity;
+
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+
+import com.example.infrastructure.repository.mongodb.entity.AppointmentLinkEntity;
+
+import reactor.core.publisher.Flux;
+
+@Repository
+public interface ReactiveAppointmentLinkRepository extends ReactiveMongoRepository<AppointmentLinkEntity, String> {
+
+	Flux<AppointmentLinkEntity> findByDoctorIdOrderByAppointmentIdAsc(String doctorId);
+
+	Flux<AppointmentLinkEntity> findByPatientIdOrderByAppointmentIdAsc(String patientId);
+}
@@ -0,0 +1,91 @@
+package com.example.infrastructure.repository.mongodb.service.doctor_entity;
+
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import com.example.application.util.ClinicLogicException;
+import com.example.application.util.Errors;
+import com.example.infrastructure.repository.mongodb.entity.DoctorEntity;
+import com.example.infrastructure.repository.mongodb.projection.DoctorView;
+
+import jakarta.validation.Valid;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Read-only queries on the doctors, returning their views as read, without
+ * going through the domain model, for the endpoints that only show them.
+ */
+@Slf4j
+@Component
+public class DoctorQueryService {
+
+	@Autowired
+	DoctorRepository doctorRepository;
+
+	@Autowired
+	MongoTemplate mongoTemplate;
+
+	@Value("${custom.export.batch-size:500}")
+	int exportBatchSize;
+
+	/**
+	 * Retrieves the doctors following the given position, in the given order and
+	 * then by ID. The position is a keyset, so fetching a window costs the same at
+	 * any depth, and no count is run.
+	 * 
+	 * @param position The position to continue from.
+	 * @param size     The maximum number of doctors.
+	 * @param sort     The order of the doctors.
+	 * @return A window of doctors.
+	 * @throws ClinicLogicException If the size exceeds the maximum allowed.
+	 */
+	public Window<DoctorView> getAllDoctors(@Valid ScrollPosition position, int size, Sort sort)
+			throws ClinicLogicException {
+		log.debug("Scrolling all doctors");
+
+		if (size >= 100) {
+			throw new ClinicLogicException(Errors.MAXIMUM_PAGINATION);
+		}
+
+		return doctorRepository.findByDeleted(false, position, Limit.of(size), sort);
+	}
+
+	/**
+	 * Reads the active doctors in ID order from a single cursor, fetched a batch at
+	 * a time as the stream is consumed, so memory stays the same however many there
+	 * are. The validation is done at once, and the cursor only opened when the
+	 * stream is asked for, by the thread consuming it; the stream must then be
+	 * closed to release the cursor.
+	 * 
+	 * @param after The ID of the last doctor already read, to resume from, optional.
+	 * @return The opening of the stream over the cursor of the doctors.
+	 * @throws ClinicLogicException If the ID to resume from is not valid.
+	 */
+	public Supplier<Stream<DoctorView>> exportDoctors(String after) throws ClinicLogicException {
+		log.debug("Exporting doctors after " + after);
+
+		Criteria criteria = Criteria.where("deleted").is(false);
+		if (after != null) {
+			if (!ObjectId.isValid(after)) {
+				throw new ClinicLogicException(Errors.INVALID_RESUME_TOKEN);
+			}
+			criteria.and("id").gt(after);
+		}
+
+		Query query = Query.query(criteria).with(Sort.by("id")).cursorBatchSize(exportBatchSize);
+
+		return () -> mongoTemplate.query(DoctorEntity.class).as(DoctorView.class).matching(query).stream();
+	}
+}
@@ -1,20 +1,37 @@
 package com.example.infrastructure.repository.mongodb.service.doctor_entity;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.data.mongodb.repository.Update;
 import org.springframework.stereotype.Repository;
 
 import com.example.infrastructure.repository.mongodb.entity.DoctorEntity;
+import com.example.infrastructure.repository.mongodb.projection.DoctorView;
 
 @Repository
 public interface DoctorRepository extends MongoRepository<DoctorEntity, String> {
 
-	Page<DoctorEntity> findByDeleted(Pageable pageable, boolean deleted);
+	Page<DoctorView> findByDeleted(Pageable pageable, boolean deleted);
+
+	Window<DoctorView> findByDeleted(boolean deleted, ScrollPosition position, Limit limit, Sort sort);
 
 	Optional<DoctorEntity> findByIdAndDeleted(String id, boolean deleted);
 
+	List<DoctorEntity> findByIdInAndDeleted(Collection<String> ids, boolean deleted);
+
 	Optional<DoctorEntity> findByPersonalInformationEntityDocumentAndDeleted(String document, boolean deleted);
+
+	@Query("{ '_id': ?0 }")
+	@Update("{ '$pull': { 'idDoctorAppointments': ?1 }, '$inc': { 'version': 1 } }")
+	long removeAppointmentById(String id, String idAppointment);
 }
\ No newline at end of file
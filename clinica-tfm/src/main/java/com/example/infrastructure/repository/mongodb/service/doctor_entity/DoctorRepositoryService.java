@@ -1,18 +1,42 @@
 package com.example.infrastructure.repository.mongodb.service.doctor_entity;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
+import org.bson.types.ObjectId;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.Cache;
+import org.springframework.cache.Cache.ValueWrapper;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Component;
 
 import com.example.application.port.output.DoctorRepositoryOutputPort;
+import com.example.application.util.BatchItemResult;
+import com.example.application.util.ClinicConflictException;
+import com.example.application.util.Errors;
 import com.example.domain.model.Doctor;
+import com.example.infrastructure.cache.key.ClinicCacheKey.EntityType;
+import com.example.infrastructure.cache.key.ClinicCacheKeys;
+import com.example.infrastructure.cache.service.ClinicCacheEvictor;
 import com.example.infrastructure.repository.mongodb.entity.DoctorEntity;
 import com.example.infrastructure.repository.mongodb.mapper.DoctorToDoctorEntityMapper;
+import com.example.infrastructure.repository.mongodb.mapper.DoctorToDoctorViewMapper;
+import com.example.infrastructure.repository.mongodb.projection.DoctorView;
+import com.example.infrastructure.repository.mongodb.service.ClinicBulkWriter;
+import com.example.infrastructure.repository.mongodb.service.ClinicOptimisticRetry;
+import com.example.infrastructure.repository.mongodb.service.ClinicPatchWriter;
+import com.example.infrastructure.repository.mongodb.service.appointment_entity.AppointmentSummaryWriter;
 
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
@@ -37,6 +61,30 @@ public class DoctorRepositoryService implements DoctorRepositoryOutputPort {
 	@Autowired
 	DoctorToDoctorEntityMapper doctorToDoctorEntityMapper;
 
+	@Autowired
+	AppointmentSummaryWriter appointmentSummaryWriter;
+
+	@Autowired
+	DoctorToDoctorViewMapper doctorToDoctorViewMapper;
+
+	@Autowired
+	ClinicCacheEvictor clinicCacheEvictor;
+
+	@Autowired
+	CacheManager cacheManager;
+
+	@Autowired
+	ClinicCacheKeys clinicCacheKeys;
+
+	@Autowired
+	ClinicBulkWriter clinicBulkWriter;
+
+	@Autowired
+	ClinicPatchWriter clinicPatchWriter;
+
+	@Autowired
+	ClinicOptimisticRetry clinicOptimisticRetry;
+
 	/**
 	 * Retrieves a doctor by their ID, using cache to optimize the operation.
 	 * 
@@ -44,7 +92,7 @@ public class DoctorRepositoryService implements DoctorRepositoryOutputPort {
 	 * @return An Optional containing the doctor if found, or empty if not found.
 	 */
 	@Override
-	@Cacheable(value = "doctors", key = "#id")
+	@Cacheable(value = "doctors", key = "@clinicCacheKeys.byId('DOCTOR', #id)", sync = true)
 	public Optional<Doctor> getDoctor(@Valid String id) {
 		log.debug("Getting a doctor");
 
@@ -53,6 +101,45 @@ public class DoctorRepositoryService implements DoctorRepositoryOutputPort {
 		return doctorToDoctorEntityMapper.fromOutputToInput(opt);
 	}
 
+	/**
+	 * Retrieves the doctors with the given IDs. The ones cached, found or not, are
+	 * read from the cache, and the rest with a single query, then cached.
+	 * 
+	 * @param ids The IDs of the doctors.
+	 * @return The doctors found, by ID.
+	 */
+	@Override
+	public Map<String, Doctor> getDoctors(Collection<String> ids) {
+		log.debug("Getting " + ids.size() + " doctors");
+
+		Cache cache = cacheManager.getCache("doctors");
+		Map<String, Doctor> doctors = new HashMap<>();
+		Set<String> missing = new HashSet<>();
+
+		for (String id : ids) {
+			ValueWrapper cached = id == null || cache == null ? null
+					: cache.get(clinicCacheKeys.byId(EntityType.DOCTOR, id));
+			if (cached != null) {
+				if (cached.get() != null) {
+					doctors.put(id, (Doctor) cached.get());
+				}
+			} else if (id != null) {
+				missing.add(id);
+			}
+		}
+
+		if (!missing.isEmpty()) {
+			for (DoctorEntity entity : doctorRepository.findByIdInAndDeleted(missing, false)) {
+				doctors.put(entity.getId(), doctorToDoctorEntityMapper.fromOutputToInput(entity));
+			}
+			if (cache != null) {
+				// Not found ones are cached too, as the lookups by ID do.
+				missing.forEach(id -> cache.putIfAbsent(clinicCacheKeys.byId(EntityType.DOCTOR, id), doctors.get(id)));
+			}
+		}
+		return doctors;
+	}
+
 	/**
 	 * Retrieves a doctor by their document, using cache to optimize the operation.
 	 * 
@@ -60,7 +147,7 @@ public class DoctorRepositoryService implements DoctorRepositoryOutputPort {
 	 * @return An Optional containing the doctor if found, or empty if not found.
 	 */
 	@Override
-	@Cacheable(value = "doctors", key = "#document")
+	@Cacheable(value = "doctors", key = "@clinicCacheKeys.byDocument('DOCTOR', #document)", sync = true)
 	public Optional<Doctor> getDoctorByDocument(@Valid String document) {
 		log.debug("Getting doctor with document");
 
@@ -78,61 +165,183 @@ public class DoctorRepositoryService implements DoctorRepositoryOutputPort {
 	 * @return A page of doctors.
 	 */
 	@Override
-	@Cacheable(value = "doctors", key = "#pageable")
+	@Cacheable(value = "doctors", key = "@clinicCacheKeys.page('DOCTOR', #pageable)")
 	public Page<Doctor> getAllDoctors(@Valid Pageable pageable) {
 		log.debug("Getting all doctors");
 
-		Page<DoctorEntity> pageableDoctors = doctorRepository.findByDeleted(pageable, false);
+		Page<DoctorView> pageableDoctors = doctorRepository.findByDeleted(pageable, false);
 
-		return doctorToDoctorEntityMapper.fromOutputToInput(pageableDoctors);
+		return doctorToDoctorViewMapper.fromOutputToInput(pageableDoctors);
 	}
 
 	/**
-	 * Creates a new doctor and clears the doctor cache.
+	 * Creates a new doctor and evicts the cached pages and the lookup of its
+	 * document.
 	 * 
 	 * @param inputDoc The doctor to create.
 	 * @return The ID of the new doctor.
+	 * @throws ClinicConflictException If another active doctor holds its document.
 	 */
 	@Override
-	@CacheEvict(value = "doctors", allEntries = true)
-	public String postDoctor(@Valid Doctor inputDoc) {
+	public String postDoctor(@Valid Doctor inputDoc) throws ClinicConflictException {
 		log.debug("Creating a doctor");
 
 		DoctorEntity mappedDoc = doctorToDoctorEntityMapper.fromInputToOutput(inputDoc);
+		// Created at the first version, whatever version was given.
+		mappedDoc.setVersion(null);
+
+		String newId;
+		try {
+			newId = doctorRepository.save(mappedDoc).getId();
+		} catch (DuplicateKeyException ex) {
+			throw new ClinicConflictException(Errors.DUPLICATED_DOCUMENT);
+		}
+		clinicCacheEvictor.entityCreated("doctors", documentOf(inputDoc));
+
+		return newId;
+	}
+
+	/**
+	 * Creates a batch of doctors with a single unordered bulk insert, and evicts the
+	 * cached pages once and the lookups of their documents.
+	 * 
+	 * @param inputDoctors The doctors to create.
+	 * @return The result of every doctor, in the order given.
+	 */
+	@Override
+	public List<BatchItemResult> postDoctors(List<Doctor> inputDoctors) {
+		log.debug("Creating a batch of doctors");
+
+		List<DoctorEntity> entities = doctorToDoctorEntityMapper.fromInputToOutput(inputDoctors);
+		entities.forEach(entity -> {
+			entity.setId(ObjectId.get().toHexString());
+			entity.setVersion(0L);
+		});
+
+		Map<Integer, String> errors = clinicBulkWriter.insert(DoctorEntity.class, entities);
+
+		List<BatchItemResult> results = new ArrayList<>(entities.size());
+		List<String> documents = new ArrayList<>();
+		for (int i = 0; i < entities.size(); i++) {
+			if (errors.containsKey(i)) {
+				results.add(BatchItemResult.failed(i, errors.get(i)));
+			} else {
+				results.add(BatchItemResult.created(i, entities.get(i).getId()));
+				documents.add(documentOf(inputDoctors.get(i)));
+			}
+		}
+		clinicCacheEvictor.entitiesCreated("doctors", documents);
 
-		return doctorRepository.save(mappedDoc).getId();
+		return results;
 	}
 
 	/**
-	 * Modifies an existing doctor and clears the doctor cache.
+	 * Modifies an existing doctor, provided it is still at the version given, copies
+	 * it to the summaries held by its appointments, and evicts the cached entries
+	 * holding it.
 	 * 
 	 * @param inputDoc The doctor with updated information.
+	 * @throws ClinicConflictException If the doctor was modified since that
+	 *                                 version, or another active doctor holds
+	 *                                 its document.
 	 */
 	@Override
-	@CacheEvict(value = "doctors", allEntries = true)
-	public void modifyDoctor(@Valid Doctor inputDoc) {
+	public void modifyDoctor(@Valid Doctor inputDoc) throws ClinicConflictException {
 		log.debug("Modifying a doctor");
 
-		doctorRepository.save(doctorToDoctorEntityMapper.fromInputToOutput(inputDoc));
+		try {
+			DoctorEntity doctor = doctorRepository.save(doctorToDoctorEntityMapper.fromInputToOutput(inputDoc));
+			appointmentSummaryWriter.doctorModified(doctor, false);
+		} catch (OptimisticLockingFailureException ex) {
+			throw new ClinicConflictException(Errors.CONCURRENT_MODIFICATION);
+		} catch (DuplicateKeyException ex) {
+			throw new ClinicConflictException(Errors.DUPLICATED_DOCUMENT);
+		} finally {
+			clinicCacheEvictor.entityModified("doctors", inputDoc.getId(), documentOf(inputDoc));
+		}
+	}
+
+	/**
+	 * Partially modifies an existing doctor, setting only the fields present in
+	 * the patch with a single conditional update, as well as in the summaries held
+	 * by its appointments, and evicts the cached entries holding it.
+	 * 
+	 * @param patch The doctor holding its ID and the fields to modify.
+	 * @return Whether the doctor was found.
+	 * @throws ClinicConflictException If another active doctor holds the document
+	 *                                 of the patch.
+	 */
+	@Override
+	public boolean patchDoctor(Doctor patch) throws ClinicConflictException {
+		log.debug("Patching a doctor");
+
+		DoctorEntity mappedPatch = doctorToDoctorEntityMapper.fromInputToOutput(patch);
+		DoctorEntity previous;
+		try {
+			previous = clinicPatchWriter.patch(DoctorEntity.class, patch.getId(), mappedPatch);
+		} catch (DuplicateKeyException ex) {
+			throw new ClinicConflictException(Errors.DUPLICATED_DOCUMENT);
+		}
+
+		if (previous == null) {
+			return false;
+		}
+		appointmentSummaryWriter.doctorModified(mappedPatch, true);
+
+		// Both the lookups by the previous document and by the new one, which may
+		// have been cached as not found.
+		clinicCacheEvictor.entityModified("doctors", patch.getId(), documentOf(previous));
+		clinicCacheEvictor.entityModified("doctors", patch.getId(), documentOf(patch));
+		return true;
+	}
+
+	/**
+	 * Removes an appointment from a doctor with a single atomic update, and evicts
+	 * the cached entries holding the doctor.
+	 * 
+	 * @param idDoc         The ID of the doctor.
+	 * @param idAppointment The ID of the appointment.
+	 */
+	@Override
+	public void removeDoctorAppointment(@Valid String idDoc, @Valid String idAppointment) {
+		log.debug("Removing an appointment from a doctor");
+
+		doctorRepository.removeAppointmentById(idDoc, idAppointment);
+		clinicCacheEvictor.entityModified("doctors", idDoc, null);
 	}
 
 	/**
-	 * Deletes a doctor by their ID (marking it as deleted) and clears the doctor
-	 * cache.
+	 * Deletes a doctor by their ID (marking it as deleted) and evicts the cached
+	 * entries holding it. The doctor is read again if modified meanwhile.
 	 * 
 	 * @param idDoc The ID of the doctor to delete.
+	 * @throws ClinicConflictException If the doctor kept being modified.
 	 */
 	@Override
-	@CacheEvict(value = "doctors", allEntries = true)
-	public void deleteDoctor(@Valid String idDoc) {
+	public void deleteDoctor(@Valid String idDoc) throws ClinicConflictException {
 		log.debug("Deleting a doctor");
 
-		Optional<DoctorEntity> opt = doctorRepository.findByIdAndDeleted(idDoc, false);
+		boolean deleted = clinicOptimisticRetry.run(() -> {
+			Optional<DoctorEntity> opt = doctorRepository.findByIdAndDeleted(idDoc, false);
+
+			if (!opt.isPresent()) {
+				return false;
+			}
+			opt.get().setDeleted(true);
+			doctorRepository.save(opt.get());
+			return true;
+		});
 
-		if (!opt.isPresent()) {
-			return;
+		if (deleted) {
+			clinicCacheEvictor.entityDeleted("doctors", idDoc);
 		}
-		opt.get().setDeleted(true);
-		doctorRepository.save(opt.get());
+	}
+
+	private String documentOf(Doctor doctor) {
+		return doctor.getPersonalInformation() == null ? null : doctor.getPersonalInformation().getDocument();
+	}
+
+	private String documentOf(DoctorEntity doctor) {
+		return doctor.getPersonalInformationEntity() == null ? null : doctor.getPersonalInformationEntity().getDocument();
 	}
 }
@@ -0,0 +1,37 @@
+package com.example.infrastructure.repository.mongodb.service.doctor_entity;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import com.example.infrastructure.repository.mongodb.projection.DoctorView;
+
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+
+/**
+ * Read-only streams of the doctors for the reactive profile, returning their
+ * views as read, without going through the domain model, as
+ * {@link DoctorQueryService} does for the blocking endpoints. Read from a
+ * cursor as they are consumed, a batch at a time, so a slow client slows the
+ * reading down instead of filling the memory.
+ */
+@Slf4j
+@Component
+@Profile("reactive")
+public class ReactiveDoctorQueryService {
+
+	@Autowired
+	ReactiveDoctorRepository reactiveDoctorRepository;
+
+	/**
+	 * Streams the active doctors, in ID order.
+	 * 
+	 * @return The doctors.
+	 */
+	public Flux<DoctorView> streamDoctors() {
+		log.debug("Streaming all doctors");
+
+		return reactiveDoctorRepository.findByDeletedOrderByIdAsc(false);
+	}
+}
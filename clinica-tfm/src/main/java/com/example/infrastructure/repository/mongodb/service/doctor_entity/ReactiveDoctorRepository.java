@@ -0,0 +1,20 @@
+package com.example.infrastructure.repository.mongodb.service.doctor_entity;
+
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+
+import com.example.infrastructure.repository.mongodb.entity.DoctorEntity;
+import com.example.infrastructure.repository.mongodb.projection.DoctorView;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Repository
+public interface ReactiveDoctorRepository extends ReactiveMongoRepository<DoctorEntity, String> {
+
+	Flux<DoctorView> findByDeletedOrderByIdAsc(boolean deleted);
+
+	Mono<DoctorEntity> findByIdAndDeleted(String id, boolean deleted);
+
+	Mono<DoctorEntity> findByPersonalInformationEntityDocumentAndDeleted(String document, boolean deleted);
+}
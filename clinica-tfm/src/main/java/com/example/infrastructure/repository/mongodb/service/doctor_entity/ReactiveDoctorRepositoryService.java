@@ -0,0 +1,60 @@
+package com.example.infrastructure.repository.mongodb.service.doctor_entity;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import com.example.application.port.output.ReactiveDoctorRepositoryOutputPort;
+import com.example.domain.model.Doctor;
+import com.example.infrastructure.repository.mongodb.mapper.DoctorToDoctorEntityMapper;
+
+import jakarta.validation.Valid;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reads the doctors with the reactive MongoDB driver, for the reactive profile.
+ * The list of them is read as views by {@link ReactiveDoctorQueryService}.
+ * 
+ * The caches are not used: they are filled and evicted by the blocking
+ * adapters.
+ */
+@Slf4j
+@Component
+@Profile("reactive")
+public class ReactiveDoctorRepositoryService implements ReactiveDoctorRepositoryOutputPort {
+
+	@Autowired
+	ReactiveDoctorRepository reactiveDoctorRepository;
+
+	@Autowired
+	DoctorToDoctorEntityMapper doctorToDoctorEntityMapper;
+
+	/**
+	 * Retrieves an active doctor by their ID.
+	 * 
+	 * @param id The ID of the doctor.
+	 * @return The doctor, or empty if not found.
+	 */
+	@Override
+	public Mono<Doctor> getDoctor(@Valid String id) {
+		log.debug("Getting a doctor reactively");
+
+		return reactiveDoctorRepository.findByIdAndDeleted(id, false)
+				.map(doctorToDoctorEntityMapper::fromOutputToInput);
+	}
+
+	/**
+	 * Retrieves an active doctor by their document.
+	 * 
+	 * @param document The document of the doctor.
+	 * @return The doctor, or empty if not found.
+	 */
+	@Override
+	public Mono<Doctor> getDoctorByDocument(@Valid String document) {
+		log.debug("Getting doctor with document reactively");
+
+		return reactiveDoctorRepository.findByPersonalInformationEntityDocumentAndDeleted(document, false)
+				.map(doctorToDoctorEntityMapper::fromOutputToInput);
+	}
+}
@@ -1,20 +1,37 @@
 package com.example.infrastructure.repository.mongodb.service.patient_entity;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.data.mongodb.repository.Update;
 import org.springframework.stereotype.Repository;
 
 import com.example.infrastructure.repository.mongodb.entity.PatientEntity;
+import com.example.infrastructure.repository.mongodb.projection.PatientView;
 
 @Repository
 public interface PatientRepository extends MongoRepository<PatientEntity, String> {
 
-	Page<PatientEntity> findByDeleted(Pageable pageable, boolean deleted);
+	Page<PatientView> findByDeleted(Pageable pageable, boolean deleted);
+
+	Window<PatientView> findByDeleted(boolean deleted, ScrollPosition position, Limit limit, Sort sort);
 
 	Optional<PatientEntity> findByIdAndDeleted(String id, boolean deleted);
 
+	List<PatientEntity> findByIdInAndDeleted(Collection<String> ids, boolean deleted);
+
 	Optional<PatientEntity> findByPersonalInformationEntityDocumentAndDeleted(String document, boolean deleted);
+
+	@Query("{ '_id': ?0 }")
+	@Update("{ '$pull': { 'idPatientAppointments': ?1 }, '$inc': { 'version': 1 } }")
+	long removeAppointmentById(String id, String idAppointment);
 }
\ No newline at end of file
@@ -1,19 +1,43 @@
 package com.example.infrastructure.repository.mongodb.service.patient_entity;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
+import org.bson.types.ObjectId;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.Cache;
+import org.springframework.cache.Cache.ValueWrapper;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.example.application.port.output.PatientRepositoryOutputPort;
+import com.example.application.util.BatchItemResult;
+import com.example.application.util.ClinicConflictException;
+import com.example.application.util.Errors;
 import com.example.domain.model.Patient;
+import com.example.infrastructure.cache.key.ClinicCacheKey.EntityType;
+import com.example.infrastructure.cache.key.ClinicCacheKeys;
+import com.example.infrastructure.cache.service.ClinicCacheEvictor;
 import com.example.infrastructure.repository.mongodb.entity.PatientEntity;
 import com.example.infrastructure.repository.mongodb.mapper.PatientToPatientEntityMapper;
+import com.example.infrastructure.repository.mongodb.mapper.PatientToPatientViewMapper;
+import com.example.infrastructure.repository.mongodb.projection.PatientView;
+import com.example.infrastructure.repository.mongodb.service.ClinicBulkWriter;
+import com.example.infrastructure.repository.mongodb.service.ClinicOptimisticRetry;
+import com.example.infrastructure.repository.mongodb.service.ClinicPatchWriter;
+import com.example.infrastructure.repository.mongodb.service.appointment_entity.AppointmentSummaryWriter;
 
 import jakarta.validation.Valid;
 import lombok.SneakyThrows;
@@ -40,6 +64,30 @@ public class PatientRepositoryService implements PatientRepositoryOutputPort {
 	@Autowired
 	PatientToPatientEntityMapper patientToPatientEntityMapper;
 
+	@Autowired
+	AppointmentSummaryWriter appointmentSummaryWriter;
+
+	@Autowired
+	PatientToPatientViewMapper patientToPatientViewMapper;
+
+	@Autowired
+	ClinicCacheEvictor clinicCacheEvictor;
+
+	@Autowired
+	CacheManager cacheManager;
+
+	@Autowired
+	ClinicCacheKeys clinicCacheKeys;
+
+	@Autowired
+	ClinicBulkWriter clinicBulkWriter;
+
+	@Autowired
+	ClinicPatchWriter clinicPatchWriter;
+
+	@Autowired
+	ClinicOptimisticRetry clinicOptimisticRetry;
+
 	/**
 	 * Retrieves a patient by their ID, using cache to optimize the operation.
 	 * 
@@ -47,7 +95,7 @@ public class PatientRepositoryService implements PatientRepositoryOutputPort {
 	 * @return An Optional containing the patient if found, or empty if not found.
 	 */
 	@Override
-	@Cacheable(value = "patients", key = "#id")
+	@Cacheable(value = "patients", key = "@clinicCacheKeys.byId('PATIENT', #id)", sync = true)
 	public Optional<Patient> getPatient(String id) {
 		log.debug("Getting patient");
 
@@ -56,6 +104,46 @@ public class PatientRepositoryService implements PatientRepositoryOutputPort {
 		return patientToPatientEntityMapper.fromOutputToInput(opt);
 	}
 
+	/**
+	 * Retrieves the patients with the given IDs. The ones cached, found or not, are
+	 * read from the cache, and the rest with a single query, then cached.
+	 * 
+	 * @param ids The IDs of the patients.
+	 * @return The patients found, by ID.
+	 */
+	@Override
+	public Map<String, Patient> getPatients(Collection<String> ids) {
+		log.debug("Getting " + ids.size() + " patients");
+
+		Cache cache = cacheManager.getCache("patients");
+		Map<String, Patient> patients = new HashMap<>();
+		Set<String> missing = new HashSet<>();
+
+		for (String id : ids) {
+			ValueWrapper cached = id == null || cache == null ? null
+					: cache.get(clinicCacheKeys.byId(EntityType.PATIENT, id));
+			if (cached != null) {
+				if (cached.get() != null) {
+					patients.put(id, (Patient) cached.get());
+				}
+			} else if (id != null) {
+				missing.add(id);
+			}
+		}
+
+		if (!missing.isEmpty()) {
+			for (PatientEntity entity : patientRepository.findByIdInAndDeleted(missing, false)) {
+				patients.put(entity.getId(), patientToPatientEntityMapper.fromOutputToInput(entity));
+			}
+			if (cache != null) {
+				// Not found ones are cached too, as the lookups by ID do.
+				missing.forEach(
+						id -> cache.putIfAbsent(clinicCacheKeys.byId(EntityType.PATIENT, id), patients.get(id)));
+			}
+		}
+		return patients;
+	}
+
 	/**
 	 * Retrieves a patient by their document, using cache to optimize the operation.
 	 * 
@@ -63,7 +151,7 @@ public class PatientRepositoryService implements PatientRepositoryOutputPort {
 	 * @return An Optional containing the patient if found, or empty if not found.
 	 */
 	@Override
-	@Cacheable(value = "patients", key = "#document")
+	@Cacheable(value = "patients", key = "@clinicCacheKeys.byDocument('PATIENT', #document)", sync = true)
 	public Optional<Patient> getPatientByDocument(@Valid String document) {
 		log.debug("Getting patient with document");
 
@@ -81,64 +169,187 @@ public class PatientRepositoryService implements PatientRepositoryOutputPort {
 	 * @return A page of patients.
 	 */
 	@Override
-	@Cacheable(value = "patients", key = "#pageable")
+	@Cacheable(value = "patients", key = "@clinicCacheKeys.page('PATIENT', #pageable)")
 	public Page<Patient> getAllPatients(@Valid Pageable pageable) {
 		log.debug("Getting all patients");
 
-		Page<PatientEntity> pageEntity = patientRepository.findByDeleted(pageable, false);
+		Page<PatientView> pageView = patientRepository.findByDeleted(pageable, false);
 
-		return patientToPatientEntityMapper.fromOutputToInput(pageEntity);
+		return patientToPatientViewMapper.fromOutputToInput(pageView);
 	}
 
 	/**
-	 * Creates a new patient and clears the patient cache.
+	 * Creates a new patient and evicts the cached pages and the lookup of its
+	 * document.
 	 * 
 	 * @param inputPatient The patient to create.
 	 * @return The ID of the new patient.
+	 * @throws ClinicConflictException If another active patient holds its document.
 	 */
 	@Override
-	@CacheEvict(value = "patients", allEntries = true)
-	public String postPatient(@Valid Patient inputPatient) {
+	public String postPatient(@Valid Patient inputPatient) throws ClinicConflictException {
 		log.debug("Creating a patient");
 
 		PatientEntity mappedPat = patientToPatientEntityMapper.fromInputToOutput(inputPatient);
+		// Created at the first version, whatever version was given.
+		mappedPat.setVersion(null);
+
+		String newId;
+		try {
+			newId = patientRepository.save(mappedPat).getId();
+		} catch (DuplicateKeyException ex) {
+			throw new ClinicConflictException(Errors.DUPLICATED_DOCUMENT);
+		}
+		clinicCacheEvictor.entityCreated("patients", documentOf(inputPatient));
+
+		return newId;
+	}
+
+	/**
+	 * Creates a batch of patients with a single unordered bulk insert, and evicts the
+	 * cached pages once and the lookups of their documents.
+	 * 
+	 * @param inputPatients The patients to create.
+	 * @return The result of every patient, in the order given.
+	 */
+	@Override
+	public List<BatchItemResult> postPatients(List<Patient> inputPatients) {
+		log.debug("Creating a batch of patients");
+
+		List<PatientEntity> entities = patientToPatientEntityMapper.fromInputToOutput(inputPatients);
+		entities.forEach(entity -> {
+			entity.setId(ObjectId.get().toHexString());
+			entity.setVersion(0L);
+		});
+
+		Map<Integer, String> errors = clinicBulkWriter.insert(PatientEntity.class, entities);
+
+		List<BatchItemResult> results = new ArrayList<>(entities.size());
+		List<String> documents = new ArrayList<>();
+		for (int i = 0; i < entities.size(); i++) {
+			if (errors.containsKey(i)) {
+				results.add(BatchItemResult.failed(i, errors.get(i)));
+			} else {
+				results.add(BatchItemResult.created(i, entities.get(i).getId()));
+				documents.add(documentOf(inputPatients.get(i)));
+			}
+		}
+		clinicCacheEvictor.entitiesCreated("patients", documents);
 
-		return patientRepository.save(mappedPat).getId();
+		return results;
 	}
 
 	/**
-	 * Modifies an existing patient and clears the patient cache.
+	 * Modifies an existing patient, provided it is still at the version given, copies
+	 * it to the summaries held by its appointments, and evicts the cached entries
+	 * holding it.
 	 * 
 	 * @param inputPatient The patient with updated information.
+	 * @throws ClinicConflictException If the patient was modified since that
+	 *                                 version, or another active patient holds
+	 *                                 its document.
 	 */
 	@SneakyThrows
 	@Transactional
 	@Override
-	@CacheEvict(value = "patients", allEntries = true)
-	public void modifyPatient(Patient inputPatient) {
+	public void modifyPatient(Patient inputPatient) throws ClinicConflictException {
 		log.debug("Modifying a patient");
 
-		patientRepository.save(patientToPatientEntityMapper.fromInputToOutput(inputPatient));
+		try {
+			PatientEntity patient = patientRepository
+					.save(patientToPatientEntityMapper.fromInputToOutput(inputPatient));
+			appointmentSummaryWriter.patientModified(patient, false);
+		} catch (OptimisticLockingFailureException ex) {
+			throw new ClinicConflictException(Errors.CONCURRENT_MODIFICATION);
+		} catch (DuplicateKeyException ex) {
+			throw new ClinicConflictException(Errors.DUPLICATED_DOCUMENT);
+		} finally {
+			clinicCacheEvictor.entityModified("patients", inputPatient.getId(), documentOf(inputPatient));
+		}
+	}
+
+	/**
+	 * Partially modifies an existing patient, setting only the fields present in
+	 * the patch with a single conditional update, as well as in the summaries held
+	 * by its appointments, and evicts the cached entries holding it.
+	 * 
+	 * @param patch The patient holding its ID and the fields to modify.
+	 * @return Whether the patient was found.
+	 * @throws ClinicConflictException If another active patient holds the document
+	 *                                 of the patch.
+	 */
+	@Override
+	public boolean patchPatient(Patient patch) throws ClinicConflictException {
+		log.debug("Patching a patient");
+
+		PatientEntity mappedPatch = patientToPatientEntityMapper.fromInputToOutput(patch);
+		PatientEntity previous;
+		try {
+			previous = clinicPatchWriter.patch(PatientEntity.class, patch.getId(), mappedPatch);
+		} catch (DuplicateKeyException ex) {
+			throw new ClinicConflictException(Errors.DUPLICATED_DOCUMENT);
+		}
+
+		if (previous == null) {
+			return false;
+		}
+		appointmentSummaryWriter.patientModified(mappedPatch, true);
+
+		// Both the lookups by the previous document and by the new one, which may
+		// have been cached as not found.
+		clinicCacheEvictor.entityModified("patients", patch.getId(), documentOf(previous));
+		clinicCacheEvictor.entityModified("patients", patch.getId(), documentOf(patch));
+		return true;
+	}
+
+	/**
+	 * Removes an appointment from a patient with a single atomic update, and
+	 * evicts the cached entries holding the patient.
+	 * 
+	 * @param idPatient     The ID of the patient.
+	 * @param idAppointment The ID of the appointment.
+	 */
+	@Override
+	public void removePatientAppointment(@Valid String idPatient, @Valid String idAppointment) {
+		log.debug("Removing an appointment from a patient");
+
+		patientRepository.removeAppointmentById(idPatient, idAppointment);
+		clinicCacheEvictor.entityModified("patients", idPatient, null);
 	}
 
 	/**
-	 * Deletes a patient by their ID (marking it as deleted) and clears the patient
-	 * cache.
+	 * Deletes a patient by their ID (marking it as deleted) and evicts the cached
+	 * entries holding it. The patient is read again if modified meanwhile.
 	 * 
 	 * @param idPatient The ID of the patient to delete.
+	 * @throws ClinicConflictException If the patient kept being modified.
 	 */
 	@Override
-	@CacheEvict(value = "patients", allEntries = true)
-	public void deletePatient(@Valid String idPatient) {
+	public void deletePatient(@Valid String idPatient) throws ClinicConflictException {
 		log.debug("Deleting a patient");
 
-		Optional<PatientEntity> opt = patientRepository.findByIdAndDeleted(idPatient, false);
+		boolean deleted = clinicOptimisticRetry.run(() -> {
+			Optional<PatientEntity> opt = patientRepository.findByIdAndDeleted(idPatient, false);
+
+			if (!opt.isPresent()) {
+				return false;
+			}
 
-		if (!opt.isPresent()) {
-			return;
+			opt.get().setDeleted(true);
+			patientRepository.save(opt.get());
+			return true;
+		});
+
+		if (deleted) {
+			clinicCacheEvictor.entityDeleted("patients", idPatient);
 		}
+	}
+
+	private String documentOf(Patient patient) {
+		return patient.getPersonalInformation() == null ? null : patient.getPersonalInformation().getDocument();
+	}
 
-		opt.get().setDeleted(true);
-		patientRepository.save(opt.get());
+	private String documentOf(PatientEntity patient) {
+		return patient.getPersonalInformationEntity() == null ? null : patient.getPersonalInformationEntity().getDocument();
 	}
 }
@@ -0,0 +1,37 @@
+package com.example.infrastructure.repository.mongodb.service.patient_entity;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import com.example.infrastructure.repository.mongodb.projection.PatientView;
+
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+
+/**
+ * Read-only streams of the patients for the reactive profile, returning their
+ * views as read, without going through the domain model, as
+ * {@link PatientQueryService} does for the blocking endpoints. Read from a
+ * cursor as they are consumed, a batch at a time, so a slow client slows the
+ * reading down instead of filling the memory.
+ */
+@Slf4j
+@Component
+@Profile("reactive")
+public class ReactivePatientQueryService {
+
+	@Autowired
+	ReactivePatientRepository reactivePatientRepository;
+
+	/**
+	 * Streams the active patients, in ID order.
+	 * 
+	 * @return The patients.
+	 */
+	public Flux<PatientView> streamPatients() {
+		log.debug("Streaming all patients");
+
+		return reactivePatientRepository.findByDeletedOrderByIdAsc(false);
+	}
+}
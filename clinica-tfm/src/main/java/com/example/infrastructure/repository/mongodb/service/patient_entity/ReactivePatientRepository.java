@@ -0,0 +1,20 @@
+package com.example.infrastructure.repository.mongodb.service.patient_entity;
+
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+
+import com.example.infrastructure.repository.mongodb.entity.PatientEntity;
+import com.example.infrastructure.repository.mongodb.projection.PatientView;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Repository
+public interface ReactivePatientRepository extends ReactiveMongoRepository<PatientEntity, String> {
+
+	Flux<PatientView> findByDeletedOrderByIdAsc(boolean deleted);
+
+	Mono<PatientEntity> findByIdAndDeleted(String id, boolean deleted);
+
+	Mono<PatientEntity> findByPersonalInformationEntityDocumentAndDeleted(String document, boolean deleted);
+}
@@ -0,0 +1,60 @@
+package com.example.infrastructure.repository.mongodb.service.patient_entity;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import com.example.application.port.output.ReactivePatientRepositoryOutputPort;
+import com.example.domain.model.Patient;
+import com.example.infrastructure.repository.mongodb.mapper.PatientToPatientEntityMapper;
+
+import jakarta.validation.Valid;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reads the patients with the reactive MongoDB driver, for the reactive profile.
+ * The list of them is read as views by {@link ReactivePatientQueryService}.
+ * 
+ * The caches are not used: they are filled and evicted by the blocking
+ * adapters.
+ */
+@Slf4j
+@Component
+@Profile("reactive")
+public class ReactivePatientRepositoryService implements ReactivePatientRepositoryOutputPort {
+
+	@Autowired
+	ReactivePatientRepository reactivePatientRepository;
+
+	@Autowired
+	PatientToPatientEntityMapper patientToPatientEntityMapper;
+
+	/**
+	 * Retrieves an active patient by their ID.
+	 * 
+	 * @param id The ID of the patient.
+	 * @return The patient, or empty if not found.
+	 */
+	@Override
+	public Mono<Patient> getPatient(@Valid String id) {
+		log.debug("Getting a patient reactively");
+
+		return reactivePatientRepository.findByIdAndDeleted(id, false)
+				.map(patientToPatientEntityMapper::fromOutputToInput);
+	}
+
+	/**
+	 * Retrieves an active patient by their document.
+	 * 
+	 * @param document The document of the patient.
+	 * @return The patient, or empty if not found.
+	 */
+	@Override
+	public Mono<Patient> getPatientByDocument(@Valid String document) {
+		log.debug("Getting patient with document reactively");
+
+		return reactivePatientRepository.findByPersonalInformationEntityDocumentAndDeleted(document, false)
+				.map(patientToPatientEntityMapper::fromOutputToInput);
+	}
+}
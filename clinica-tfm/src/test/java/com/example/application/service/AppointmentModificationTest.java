@@ -0,0 +1,187 @@
+package com.example.application.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import com.example.application.port.output.ClinicProducerOutputPort;
+import com.example.application.port.output.DoctorRepositoryOutputPort;
+import com.example.application.port.output.PatientRepositoryOutputPort;
+import com.example.application.util.ClinicLogicException;
+import com.example.application.util.Errors;
+import com.example.domain.model.Appointment;
+import com.example.domain.model.Doctor;
+import com.example.domain.model.Patient;
+import com.example.domain.model.PersonalInformation;
+import com.example.infrastructure.cache.service.ClinicCacheEvictor;
+import com.example.infrastructure.repository.mongodb.entity.AppointmentEntity;
+import com.example.infrastructure.repository.mongodb.entity.AppointmentLinkEntity;
+import com.example.infrastructure.repository.mongodb.mapper.AppointmentToAppointmentEntityMapper;
+import com.example.infrastructure.repository.mongodb.mapper.AppointmentToAppointmentEntityMapperImpl;
+import com.example.infrastructure.repository.mongodb.service.ClinicPatchWriter;
+import com.example.infrastructure.repository.mongodb.service.appointment_entity.AppointmentRepository;
+import com.example.infrastructure.repository.mongodb.service.appointment_entity.AppointmentsRepositoryService;
+import com.example.infrastructure.repository.mongodb.service.appointment_link_entity.AppointmentLinkRepository;
+
+/**
+ * Replaces and patches an appointment against an in-memory repository: the
+ * doctor and patient given by ID are read as when booking, stored as the
+ * summaries of the appointment and linked to it.
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class AppointmentModificationTest {
+
+	@Mock
+	PatientRepositoryOutputPort patientRepositoryOutputPort;
+
+	@Mock
+	DoctorRepositoryOutputPort doctorRepositoryOutputPort;
+
+	@Mock
+	ClinicProducerOutputPort clinicProducerOutputPort;
+
+	@Mock
+	AppointmentRepository appointmentRepository;
+
+	@Mock
+	AppointmentLinkRepository appointmentLinkRepository;
+
+	@Spy
+	AppointmentToAppointmentEntityMapper appointmentToAppointmentEntityMapper =
+			new AppointmentToAppointmentEntityMapperImpl();
+
+	@Mock
+	ClinicCacheEvictor clinicCacheEvictor;
+
+	@Mock
+	ClinicPatchWriter clinicPatchWriter;
+
+	@Mock
+	MongoTemplate mongoTemplate;
+
+	@InjectMocks
+	AppointmentsRepositoryService appointmentsRepositoryService;
+
+	AppointmentService appointmentService;
+
+	Map<String, AppointmentEntity> stored = new HashMap<>();
+
+	@BeforeEach
+	void setUp() {
+		appointmentService = new AppointmentService();
+		appointmentService.patientRepositoryOutputPort = patientRepositoryOutputPort;
+		appointmentService.doctorRepositoryOutputPort = doctorRepositoryOutputPort;
+		appointmentService.appointmentRepositoryOutputPort = appointmentsRepositoryService;
+		appointmentService.clinicProducerOutputPort = clinicProducerOutputPort;
+
+		when(appointmentRepository.save(any(AppointmentEntity.class))).thenAnswer(invocation -> {
+			AppointmentEntity entity = invocation.getArgument(0);
+			stored.put(entity.getAppointmentId(), entity);
+			return entity;
+		});
+		when(appointmentRepository.findByAppointmentIdAndDeleted(anyString(), eq(false)))
+				.thenAnswer(invocation -> Optional.ofNullable(stored.get(invocation.getArgument(0))));
+
+		when(doctorRepositoryOutputPort.getDoctor("doctor-2")).thenReturn(Optional.of(Doctor.builder().id("doctor-2")
+				.personalInformation(PersonalInformation.builder().name("Ana").document("doc-2").build()).build()));
+		when(patientRepositoryOutputPort.getPatient("patient-2")).thenReturn(Optional.of(Patient.builder()
+				.id("patient-2").personalInformation(PersonalInformation.builder().document("pat-2").build()).build()));
+
+		appointmentRepository.save(appointmentToAppointmentEntityMapper.fromInputToOutput(Appointment.builder()
+				.appointmentId("appointment-1").doctor(Doctor.builder().id("doctor-1").build())
+				.patient(Patient.builder().id("patient-1").build()).diagnostic("Checkup").version(3L).build()));
+	}
+
+	@Test
+	void replacedAppointmentIsReadBackWithItsNewDoctorAndPatient() throws ClinicLogicException {
+		appointmentService.totalModificationAppointment(Appointment.builder().appointmentId("appointment-1")
+				.doctor(Doctor.builder().id("doctor-2").build()).patient(Patient.builder().id("patient-2").build())
+				.date(LocalDateTime.of(2026, 1, 2, 10, 0)).diagnostic("Flu").build());
+
+		Appointment read = appointmentService.getAppointment("appointment-1").orElseThrow();
+		assertEquals("Flu", read.getDiagnostic());
+		assertEquals(3L, read.getVersion());
+		assertEquals("doctor-2", read.getDoctor().getId());
+		assertEquals("Ana", read.getDoctor().getPersonalInformation().getName());
+		assertEquals("doc-2", read.getDoctor().getPersonalInformation().getDocument());
+		assertEquals("patient-2", read.getPatient().getId());
+		assertEquals("pat-2", read.getPatient().getPersonalInformation().getDocument());
+
+		ArgumentCaptor<AppointmentLinkEntity> link = ArgumentCaptor.forClass(AppointmentLinkEntity.class);
+		verify(appointmentLinkRepository).save(link.capture());
+		assertEquals("doctor-2", link.getValue().getDoctorId());
+		assertEquals("patient-2", link.getValue().getPatientId());
+		verify(clinicCacheEvictor).appointmentChanged("appointment-1", "doc-2", "pat-2");
+	}
+
+	@Test
+	void replacingWithoutDoctorIsRejectedBeforeWriting() {
+		ClinicLogicException ex = assertThrows(ClinicLogicException.class,
+				() -> appointmentService.totalModificationAppointment(Appointment.builder()
+						.appointmentId("appointment-1").patient(Patient.builder().id("patient-2").build()).build()));
+
+		assertEquals(Errors.DOCTOR_NOT_FOUND, ex.getMessage());
+		assertEquals("doctor-1", stored.get("appointment-1").getDoctor().getId());
+		verify(appointmentLinkRepository, never()).save(any());
+	}
+
+	@Test
+	void patchedDoctorReplacesTheWholeSummaryAndTheLink() throws ClinicLogicException {
+		when(clinicPatchWriter.patch(eq(AppointmentEntity.class), eq("appointment-1"), any(), any()))
+				.thenAnswer(invocation -> stored.get("appointment-1"));
+
+		appointmentService.partialModificationAppointment(Appointment.builder().appointmentId("appointment-1")
+				.doctor(Doctor.builder().id("doctor-2").build()).build());
+
+		ArgumentCaptor<AppointmentEntity> patch = ArgumentCaptor.forClass(AppointmentEntity.class);
+		verify(clinicPatchWriter).patch(eq(AppointmentEntity.class), eq("appointment-1"), patch.capture(),
+				eq(Set.of("doctor", "patient")));
+		assertEquals("doctor-2", patch.getValue().getDoctor().getId());
+		assertEquals("Ana", patch.getValue().getDoctor().getPersonalInformation().getName());
+		assertNull(patch.getValue().getPatient());
+
+		ArgumentCaptor<Update> link = ArgumentCaptor.forClass(Update.class);
+		verify(mongoTemplate).updateFirst(any(Query.class), link.capture(), eq(AppointmentLinkEntity.class));
+		assertEquals(new Document("doctorId", "doctor-2"), link.getValue().getUpdateObject().get("$set"));
+		verify(clinicCacheEvictor).appointmentChanged("appointment-1", "doc-2", null);
+	}
+
+	@Test
+	void patchingToAMissingDoctorIsRejectedBeforeWriting() {
+		ClinicLogicException ex = assertThrows(ClinicLogicException.class,
+				() -> appointmentService.partialModificationAppointment(Appointment.builder()
+						.appointmentId("appointment-1").doctor(Doctor.builder().id("doctor-3").build()).build()));
+
+		assertEquals(Errors.DOCTOR_NOT_FOUND, ex.getMessage());
+		verifyNoInteractions(clinicPatchWriter, mongoTemplate);
+	}
+}
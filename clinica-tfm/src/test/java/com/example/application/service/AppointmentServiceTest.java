@@ -0,0 +1,114 @@
+package com.example.application.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.example.application.port.output.DoctorRepositoryOutputPort;
+import com.example.application.port.output.PatientRepositoryOutputPort;
+import com.example.application.util.ClinicLogicException;
+import com.example.application.util.Errors;
+import com.example.domain.model.Appointment;
+import com.example.domain.model.Doctor;
+import com.example.domain.model.Patient;
+import com.example.infrastructure.cache.service.ClinicCacheEvictor;
+import com.example.infrastructure.repository.mongodb.entity.AppointmentEntity;
+import com.example.infrastructure.repository.mongodb.entity.AppointmentLinkEntity;
+import com.example.infrastructure.repository.mongodb.mapper.AppointmentToAppointmentEntityMapper;
+import com.example.infrastructure.repository.mongodb.service.appointment_entity.AppointmentRepository;
+import com.example.infrastructure.repository.mongodb.service.appointment_entity.AppointmentsRepositoryService;
+import com.example.infrastructure.repository.mongodb.service.appointment_link_entity.AppointmentLinkRepository;
+
+/**
+ * Counts the repository calls of booking an appointment, each one a round trip
+ * to MongoDB when nothing is cached: the patient and the doctor are read once,
+ * and only the appointment and its link are written.
+ */
+@ExtendWith(MockitoExtension.class)
+class AppointmentServiceTest {
+
+	@Mock
+	PatientRepositoryOutputPort patientRepositoryOutputPort;
+
+	@Mock
+	DoctorRepositoryOutputPort doctorRepositoryOutputPort;
+
+	@Mock
+	AppointmentRepository appointmentRepository;
+
+	@Mock
+	AppointmentLinkRepository appointmentLinkRepository;
+
+	@Mock
+	AppointmentToAppointmentEntityMapper appointmentToAppointmentEntityMapper;
+
+	@Mock
+	ClinicCacheEvictor clinicCacheEvictor;
+
+	@InjectMocks
+	AppointmentsRepositoryService appointmentsRepositoryService;
+
+	AppointmentService appointmentService;
+
+	@BeforeEach
+	void setUp() {
+		appointmentService = new AppointmentService();
+		appointmentService.patientRepositoryOutputPort = patientRepositoryOutputPort;
+		appointmentService.doctorRepositoryOutputPort = doctorRepositoryOutputPort;
+		appointmentService.appointmentRepositoryOutputPort = appointmentsRepositoryService;
+	}
+
+	@Test
+	void bookingReadsEachPartyOnceAndWritesTheAppointmentAndItsLink() throws ClinicLogicException {
+		when(patientRepositoryOutputPort.getPatient("patient-1"))
+				.thenReturn(Optional.of(Patient.builder().id("patient-1").build()));
+		when(doctorRepositoryOutputPort.getDoctor("doctor-1"))
+				.thenReturn(Optional.of(Doctor.builder().id("doctor-1").build()));
+		when(appointmentToAppointmentEntityMapper.fromInputToOutput(any(Appointment.class)))
+				.thenReturn(new AppointmentEntity());
+		when(appointmentRepository.save(any(AppointmentEntity.class)))
+				.thenReturn(AppointmentEntity.builder().appointmentId("appointment-1").build());
+
+		String id = appointmentService.createAppointment(booking());
+
+		assertEquals("appointment-1", id);
+		verify(patientRepositoryOutputPort, times(1)).getPatient("patient-1");
+		verify(doctorRepositoryOutputPort, times(1)).getDoctor("doctor-1");
+		verify(appointmentRepository, times(1)).save(any(AppointmentEntity.class));
+		verify(appointmentLinkRepository, times(1)).save(any(AppointmentLinkEntity.class));
+		verifyNoMoreInteractions(patientRepositoryOutputPort, doctorRepositoryOutputPort, appointmentRepository,
+				appointmentLinkRepository);
+	}
+
+	@Test
+	void bookingForAMissingPatientStopsAfterReadingIt() {
+		when(patientRepositoryOutputPort.getPatient("patient-1")).thenReturn(Optional.empty());
+
+		ClinicLogicException ex = assertThrows(ClinicLogicException.class,
+				() -> appointmentService.createAppointment(booking()));
+
+		assertEquals(Errors.PATIENT_NOT_FOUND, ex.getMessage());
+		verify(patientRepositoryOutputPort, times(1)).getPatient("patient-1");
+		verifyNoMoreInteractions(patientRepositoryOutputPort);
+		verifyNoInteractions(doctorRepositoryOutputPort, appointmentRepository, appointmentLinkRepository);
+	}
+
+	private Appointment booking() {
+		return Appointment.builder().doctor(Doctor.builder().id("doctor-1").build())
+				.patient(Patient.builder().id("patient-1").build()).diagnostic("Checkup").build();
+	}
+}
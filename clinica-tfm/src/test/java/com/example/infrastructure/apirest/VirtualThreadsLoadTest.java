@@ -0,0 +1,166 @@
+package com.example.infrastructure.apirest;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import com.example.ClinicaTfmApplication;
+import com.example.infrastructure.repository.mongodb.entity.AppointmentLinkEntity;
+import com.example.infrastructure.repository.mongodb.entity.DoctorEntity;
+import com.example.infrastructure.repository.mongodb.entity.PersonalInformationEntity;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Compares the throughput and the p99 latency of the application on the Tomcat
+ * thread pool and on virtual threads, from 1,000 to 10,000 concurrent clients.
+ * Each client repeats, until its round ends, a request that reaches MongoDB
+ * every time: the appointment IDs of a doctor, read from the uncached links.
+ *
+ * The application is started once per mode against the MongoDB of the test
+ * classpath, and the doctor and links it reads are removed after each mode. A
+ * round takes as many sockets as clients, so the open files limit may need
+ * raising. It only runs when asked for:
+ * {@code mvn test -Dtest=VirtualThreadsLoadTest -Dclinic.load-test=true}, with
+ * {@code -Dclinic.load-test.clients=1000,5000} and
+ * {@code -Dclinic.load-test.duration=PT20S} to change the levels and the length
+ * of each round.
+ */
+@Slf4j
+@EnabledIfSystemProperty(named = "clinic.load-test", matches = "true")
+class VirtualThreadsLoadTest {
+
+	private static final Duration WARM_UP = Duration.ofSeconds(10);
+
+	private static final int APPOINTMENTS = 50;
+
+	@Test
+	void compareThreadPoolAndVirtualThreads() throws InterruptedException {
+		List<Integer> levels = Arrays.stream(System.getProperty("clinic.load-test.clients", "1000,2500,5000,10000")
+				.split(",")).map(String::trim).map(Integer::valueOf).toList();
+		Duration duration = Duration.parse(System.getProperty("clinic.load-test.duration", "PT30S"));
+
+		List<Result> pool = run(false, levels, duration);
+		List<Result> virtual = run(true, levels, duration);
+
+		log.info(String.format("%8s | %12s %10s %8s | %12s %10s %8s", "clients", "pool req/s", "p99 ms", "errors",
+				"virtual req/s", "p99 ms", "errors"));
+		for (int i = 0; i < levels.size(); i++) {
+			log.info(String.format("%8d | %12.0f %10.1f %8d | %12.0f %10.1f %8d", levels.get(i),
+					pool.get(i).throughput(), pool.get(i).p99Millis(), pool.get(i).errors(),
+					virtual.get(i).throughput(), virtual.get(i).p99Millis(), virtual.get(i).errors()));
+		}
+
+		for (int i = 0; i < levels.size(); i++) {
+			assertTrue(pool.get(i).requests() > 0 && virtual.get(i).requests() > 0,
+					"No request answered with " + levels.get(i) + " clients");
+		}
+	}
+
+	private List<Result> run(boolean virtualThreads, List<Integer> levels, Duration duration)
+			throws InterruptedException {
+		try (ConfigurableApplicationContext context = new SpringApplicationBuilder(ClinicaTfmApplication.class)
+				.properties("server.port=0", "spring.threads.virtual.enabled=" + virtualThreads).run()) {
+			int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+			MongoTemplate mongoTemplate = context.getBean(MongoTemplate.class);
+			String doctorId = seed(mongoTemplate);
+			URI uri = URI.create("http://localhost:" + port + "/doctors/" + doctorId + "/appointments?size=20");
+
+			try {
+				round(uri, 100, WARM_UP);
+
+				List<Result> results = new ArrayList<>();
+				for (int clients : levels) {
+					Result result = round(uri, clients, duration);
+					log.info((virtualThreads ? "Virtual threads, " : "Thread pool, ") + result);
+					results.add(result);
+				}
+				return results;
+			} finally {
+				clean(mongoTemplate, doctorId);
+			}
+		}
+	}
+
+	private String seed(MongoTemplate mongoTemplate) {
+		String doctorId = ObjectId.get().toHexString();
+		mongoTemplate.insert(DoctorEntity.builder().id(doctorId).personalInformationEntity(PersonalInformationEntity
+				.builder().name("Load").surname("Test").document(UUID.randomUUID().toString()).build()).build());
+
+		List<AppointmentLinkEntity> links = new ArrayList<>();
+		for (int i = 0; i < APPOINTMENTS; i++) {
+			links.add(AppointmentLinkEntity.builder().appointmentId(ObjectId.get().toHexString()).doctorId(doctorId)
+					.patientId(ObjectId.get().toHexString()).build());
+		}
+		mongoTemplate.insertAll(links);
+		return doctorId;
+	}
+
+	private void clean(MongoTemplate mongoTemplate, String doctorId) {
+		mongoTemplate.remove(Query.query(Criteria.where("doctorId").is(doctorId)), AppointmentLinkEntity.class);
+		mongoTemplate.remove(Query.query(Criteria.where("id").is(doctorId)), DoctorEntity.class);
+	}
+
+	private Result round(URI uri, int clients, Duration duration) throws InterruptedException {
+		HttpRequest request = HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(30)).GET().build();
+		Queue<List<Long>> latencies = new ConcurrentLinkedQueue<>();
+		LongAdder errors = new LongAdder();
+		long end = System.nanoTime() + duration.toNanos();
+
+		try (HttpClient http = HttpClient.newBuilder().executor(Executors.newVirtualThreadPerTaskExecutor()).build();
+				ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+			for (int i = 0; i < clients; i++) {
+				executor.submit(() -> {
+					List<Long> own = new ArrayList<>();
+					while (System.nanoTime() < end && !Thread.currentThread().isInterrupted()) {
+						long start = System.nanoTime();
+						try {
+							HttpResponse<Void> response = http.send(request, BodyHandlers.discarding());
+							if (response.statusCode() == 200) {
+								own.add(System.nanoTime() - start);
+							} else {
+								errors.increment();
+							}
+						} catch (IOException ex) {
+							errors.increment();
+						} catch (InterruptedException ex) {
+							Thread.currentThread().interrupt();
+						}
+					}
+					latencies.add(own);
+				});
+			}
+		}
+
+		long[] sorted = latencies.stream().flatMap(List::stream).mapToLong(Long::longValue).sorted().toArray();
+		double p99 = sorted.length == 0 ? 0 : sorted[(int) Math.ceil(sorted.length * 0.99) - 1] / 1e6;
+		return new Result(clients, sorted.length, errors.sum(), sorted.length / (duration.toMillis() / 1000.0), p99);
+	}
+
+	private record Result(int clients, long requests, long errors, double throughput, double p99Millis) {
+	}
+}
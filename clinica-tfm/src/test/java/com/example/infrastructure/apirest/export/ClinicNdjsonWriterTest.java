@@ -0,0 +1,87 @@
+package com.example.infrastructure.apirest.export;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.context.request.async.StandardServletAsyncWebRequest;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Checks that an export opens its rows only when its body is written, closes
+ * them afterwards, and gives its request the timeout of the exports.
+ */
+class ClinicNdjsonWriterTest {
+
+	ClinicNdjsonWriter clinicNdjsonWriter;
+
+	MockHttpServletRequest request;
+
+	StandardServletAsyncWebRequest asyncWebRequest;
+
+	@BeforeEach
+	void setUp() {
+		clinicNdjsonWriter = new ClinicNdjsonWriter();
+		clinicNdjsonWriter.objectMapper = new ObjectMapper();
+		clinicNdjsonWriter.batchSize = 2;
+		clinicNdjsonWriter.timeout = Duration.ofMinutes(5);
+
+		request = new MockHttpServletRequest();
+		request.setAsyncSupported(true);
+		asyncWebRequest = new StandardServletAsyncWebRequest(request, new MockHttpServletResponse());
+		WebAsyncUtils.getAsyncManager(request).setAsyncWebRequest(asyncWebRequest);
+		RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+	}
+
+	@AfterEach
+	void tearDown() {
+		RequestContextHolder.resetRequestAttributes();
+	}
+
+	@Test
+	void rowsAreOpenedWhenWrittenAndClosedAfterwards() throws IOException {
+		AtomicInteger opened = new AtomicInteger();
+		AtomicBoolean closed = new AtomicBoolean();
+
+		StreamingResponseBody body = clinicNdjsonWriter.write(() -> {
+			opened.incrementAndGet();
+			return Stream.of("a", "b", "c").onClose(() -> closed.set(true));
+		}, Function.identity());
+
+		assertEquals(0, opened.get());
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		body.writeTo(out);
+
+		assertEquals(1, opened.get());
+		assertTrue(closed.get());
+		assertEquals("\"a\"\n\"b\"\n\"c\"\n", out.toString(StandardCharsets.UTF_8));
+	}
+
+	@Test
+	void requestIsGivenTheTimeoutOfTheExports() {
+		clinicNdjsonWriter.write(Stream::<String>empty, Function.identity());
+
+		asyncWebRequest.startAsync();
+
+		assertEquals(Duration.ofMinutes(5).toMillis(), request.getAsyncContext().getTimeout());
+	}
+}
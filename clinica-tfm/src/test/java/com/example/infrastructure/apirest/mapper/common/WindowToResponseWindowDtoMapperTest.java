@@ -0,0 +1,73 @@
+package com.example.infrastructure.apirest.mapper.common;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+
+import com.example.application.util.ClinicLogicException;
+import com.example.application.util.Errors;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * A cursor is sent back by the client, so only the keys of the sort it was
+ * issued for, and the ID, may reach the query.
+ */
+class WindowToResponseWindowDtoMapperTest {
+
+	WindowToResponseWindowDtoMapper mapper;
+
+	@BeforeEach
+	void setUp() {
+		mapper = new WindowToResponseWindowDtoMapper();
+		mapper.objectMapper = new ObjectMapper();
+	}
+
+	@Test
+	void aCursorContinuesTheSortItWasIssuedFor() throws ClinicLogicException {
+		ObjectId id = ObjectId.get();
+		String cursor = cursorOf(Map.of("id", id, "licenseNum", "L-1"));
+
+		KeysetScrollPosition position = (KeysetScrollPosition) mapper.positionOf(cursor, Sort.by("licenseNum"), "id");
+
+		assertEquals(Map.of("id", id, "licenseNum", "L-1"), position.getKeys());
+	}
+
+	@Test
+	void aCursorOfAnotherSortIsRejected() {
+		String cursor = cursorOf(Map.of("id", ObjectId.get(), "licenseNum", "L-1"));
+
+		ClinicLogicException ex = assertThrows(ClinicLogicException.class,
+				() -> mapper.positionOf(cursor, Sort.by("mirDate"), "id"));
+		assertEquals(Errors.INVALID_CURSOR, ex.getMessage());
+	}
+
+	@Test
+	void aCursorWithKeysOfItsOwnIsRejected() {
+		String forged = Base64.getUrlEncoder().encodeToString(
+				"[[\"id\",\"S\",\"a\"],[\"licenseNum\",\"S\",\"b\"],[\"deleted\",\"B\",\"true\"]]"
+						.getBytes(StandardCharsets.UTF_8));
+
+		assertThrows(ClinicLogicException.class, () -> mapper.positionOf(forged, Sort.by("licenseNum"), "id"));
+		assertThrows(ClinicLogicException.class, () -> mapper.positionOf(forged, Sort.unsorted(), "id"));
+	}
+
+	private String cursorOf(Map<String, Object> keys) {
+		Map<String, Object> keyset = new LinkedHashMap<>(keys);
+		Window<String> window = Window.from(List.of("last"), index -> ScrollPosition.forward(keyset), true);
+
+		return mapper.fromInputToOutput(window, List.of("last")).getNextCursor();
+	}
+}
@@ -0,0 +1,57 @@
+package com.example.infrastructure.cache.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.domain.model.Appointment;
+import com.example.domain.model.Doctor;
+import com.example.domain.model.Patient;
+import com.example.domain.model.PersonalInformation;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * A value read from a region is shared by every request hitting it, so any
+ * attempt to modify it must fail instead of changing what the others read.
+ */
+class CacheSnapshotsTest {
+
+	@Test
+	void cachedValuesRejectEveryMutation() {
+		ClinicCaffeineCache cache = new ClinicCaffeineCache("appointments", Caffeine.newBuilder().build(),
+				Caffeine.newBuilder().build(), new CacheTagIndex(), null);
+		Doctor doctor = Doctor.builder().id("doctor-1")
+				.personalInformation(PersonalInformation.builder().name("Ana").build())
+				.specializations(new ArrayList<>(List.of("cardiology"))).build();
+
+		cache.put("appointment-1", Appointment.builder().appointmentId("appointment-1").doctor(doctor)
+				.patient(Patient.builder().id("patient-1").build()).build());
+		Appointment cached = (Appointment) cache.get("appointment-1").get();
+
+		assertThrows(UnsupportedOperationException.class, () -> cached.setDiagnostic("flu"));
+		assertThrows(UnsupportedOperationException.class, () -> cached.getPatient().setWeight(80.0));
+		assertThrows(UnsupportedOperationException.class, () -> cached.getDoctor().setVersion(3L));
+		assertThrows(UnsupportedOperationException.class,
+				() -> cached.getDoctor().getPersonalInformation().setName("Eva"));
+		assertThrows(UnsupportedOperationException.class,
+				() -> cached.getDoctor().getSpecializations().add("oncology"));
+	}
+
+	@Test
+	void snapshotsShareNothingWithTheLoadedValue() {
+		Doctor doctor = Doctor.builder().id("doctor-1")
+				.personalInformation(PersonalInformation.builder().name("Ana").build())
+				.specializations(new ArrayList<>(List.of("cardiology"))).build();
+		Doctor snapshot = CacheSnapshots.of(doctor);
+
+		doctor.getPersonalInformation().setName("Eva");
+		doctor.getSpecializations().add("oncology");
+
+		assertEquals("Ana", snapshot.getPersonalInformation().getName());
+		assertEquals(List.of("cardiology"), snapshot.getSpecializations());
+	}
+}
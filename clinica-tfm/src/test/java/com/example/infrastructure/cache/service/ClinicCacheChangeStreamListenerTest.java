@@ -0,0 +1,163 @@
+package com.example.infrastructure.cache.service;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.time.Duration;
+import java.util.UUID;
+
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import com.example.domain.model.Doctor;
+import com.example.infrastructure.cache.key.ClinicCacheKey;
+import com.example.infrastructure.cache.key.ClinicCacheKey.EntityType;
+import com.example.infrastructure.cache.key.ClinicCacheKeys;
+import com.example.infrastructure.repository.mongodb.entity.DoctorEntity;
+import com.example.infrastructure.repository.mongodb.entity.PersonalInformationEntity;
+
+/**
+ * Runs the change streams against the embedded MongoDB, started as the
+ * single-node replica set rs0: a write made behind the back of this instance
+ * evicts its local region only, a stream resumes from the saved token, and a
+ * stream whose token cannot be resumed clears its region and watches again
+ * from now.
+ *
+ * Tokens are only written when the test flushes them. The embedded MongoDB is
+ * downloaded on first use, so it only runs when asked for:
+ * {@code mvn test -Dtest=ClinicCacheChangeStreamListenerTest -Dclinic.replica-set-test=true}.
+ */
+@EnabledIfSystemProperty(named = "clinic.replica-set-test", matches = "true")
+@SpringBootTest(webEnvironment = WebEnvironment.NONE, properties = { "custom.cache.change-stream.enabled=true",
+		"custom.cache.change-stream.node-id=test", "custom.cache.change-stream.retry-delay=100ms",
+		"custom.cache.change-stream.token-flush-interval=PT1H", "custom.cache.shared.tier=memory",
+		"custom.optimistic-locking.initialization.enabled=false",
+		"custom.appointment-links.migration.enabled=false" })
+class ClinicCacheChangeStreamListenerTest {
+
+	private static final Duration TIMEOUT = Duration.ofSeconds(20);
+
+	@Autowired
+	MongoTemplate mongoTemplate;
+
+	@Autowired
+	CacheManager cacheManager;
+
+	@Autowired
+	ClinicCacheKeys clinicCacheKeys;
+
+	@Autowired
+	ChangeStreamResumeTokens changeStreamResumeTokens;
+
+	@Autowired
+	ClinicCacheChangeStreamListener clinicCacheChangeStreamListener;
+
+	@SpyBean
+	SharedCacheTier sharedCacheTier;
+
+	@MockBean
+	CacheInvalidationBroadcaster cacheInvalidationBroadcaster;
+
+	ClinicCaffeineCache doctors;
+
+	String collection;
+
+	@BeforeEach
+	void setUp() {
+		doctors = (ClinicCaffeineCache) cacheManager.getCache("doctors");
+		collection = mongoTemplate.getCollectionName(DoctorEntity.class);
+	}
+
+	@Test
+	void aChangeMadeElsewhereEvictsTheLocalRegionOnly() {
+		String id = insertDoctor();
+		ClinicCacheKey key = clinicCacheKeys.byId(EntityType.DOCTOR, id);
+
+		doctors.put(key, Doctor.builder().id(id).build());
+		clearInvocations(sharedCacheTier);
+
+		modifyUntilEvicted(id, key);
+
+		verify(sharedCacheTier, never()).evict(any(), any());
+		verify(sharedCacheTier, never()).evictTag(any(), any());
+		verify(cacheInvalidationBroadcaster, never()).broadcast(any(), any());
+	}
+
+	@Test
+	void aStreamResumesFromItsSavedToken() {
+		String id = insertDoctor();
+		ClinicCacheKey key = clinicCacheKeys.byId(EntityType.DOCTOR, id);
+
+		doctors.put(key, Doctor.builder().id(id).build());
+		modifyUntilEvicted(id, key);
+		changeStreamResumeTokens.flush();
+		assertTrue(changeStreamResumeTokens.load(collection).isPresent());
+
+		// Handled by the running stream, but its token is not written.
+		doctors.put(key, Doctor.builder().id(id).build());
+		modifyUntilEvicted(id, key);
+
+		// A stream opened now only evicts the value cached meanwhile by replaying that change.
+		doctors.put(key, Doctor.builder().id(id).build());
+		clinicCacheChangeStreamListener.watchCollections();
+		await().atMost(TIMEOUT).until(() -> !isCached(key));
+	}
+
+	@Test
+	void aStreamThatCannotResumeClearsItsRegionAndWatchesFromNow() {
+		String id = insertDoctor();
+		ClinicCacheKey key = clinicCacheKeys.byId(EntityType.DOCTOR, id);
+
+		changeStreamResumeTokens.save(collection, new BsonDocument("_data", new BsonString("82FFFFFFFF")));
+		changeStreamResumeTokens.flush();
+		doctors.put(key, Doctor.builder().id(id).build());
+
+		clinicCacheChangeStreamListener.watchCollections();
+		await().atMost(TIMEOUT).until(() -> !isCached(key));
+		await().atMost(TIMEOUT).until(() -> changeStreamResumeTokens.load(collection).isEmpty());
+
+		doctors.put(key, Doctor.builder().id(id).build());
+		modifyUntilEvicted(id, key);
+	}
+
+	private String insertDoctor() {
+		return mongoTemplate.insert(DoctorEntity.builder().licenseNum("license")
+				.personalInformationEntity(PersonalInformationEntity.builder().name("Change").surname("Stream")
+						.document(UUID.randomUUID().toString()).build())
+				.build()).getId();
+	}
+
+	/**
+	 * Modifies the doctor directly in MongoDB, as another instance would, until
+	 * the stream evicts it. Retrying covers a stream still being opened.
+	 */
+	private void modifyUntilEvicted(String id, ClinicCacheKey key) {
+		await().atMost(TIMEOUT).pollInterval(Duration.ofMillis(200)).until(() -> {
+			mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(id)),
+					Update.update("licenseNum", UUID.randomUUID().toString()), DoctorEntity.class);
+			return !isCached(key);
+		});
+	}
+
+	/** Looks in the local region only, a lookup would fall back to the shared tier. */
+	private boolean isCached(ClinicCacheKey key) {
+		return doctors.getNativeCache().asMap().containsKey(key);
+	}
+}
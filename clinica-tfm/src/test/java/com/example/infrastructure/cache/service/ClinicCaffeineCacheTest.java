@@ -0,0 +1,155 @@
+package com.example.infrastructure.cache.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.example.domain.model.Doctor;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Races writes of a region against evictions of the same tag: whatever the
+ * interleaving, a key left in the cache must still be indexed under the tags
+ * of its value, or the next write of the entity would leave it stale. Also
+ * races synchronized misses of one key, which must share a single load.
+ */
+class ClinicCaffeineCacheTest {
+
+	private static final int THREADS = 8;
+
+	private static final int ROUNDS = 2_000;
+
+	private final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+
+	@AfterEach
+	void tearDown() {
+		executor.shutdownNow();
+	}
+
+	@Test
+	void concurrentTaggingNeverLosesAKeyFromItsTag() throws Exception {
+		CacheTagIndex tagIndex = new CacheTagIndex();
+		Set<String> tags = Set.of("shared");
+
+		race(thread -> {
+			for (int round = 0; round < ROUNDS; round++) {
+				if (thread % 2 == 0) {
+					// Empties the tag over and over, unlinking its key set.
+					tagIndex.tag("churn-" + thread, tags);
+					tagIndex.untag("churn-" + thread);
+				} else {
+					tagIndex.tag("kept-" + thread + "-" + round, tags);
+				}
+			}
+		});
+
+		Collection<Object> kept = tagIndex.keysOf("shared");
+
+		for (int thread = 1; thread < THREADS; thread += 2) {
+			for (int round = 0; round < ROUNDS; round++) {
+				assertTrue(kept.contains("kept-" + thread + "-" + round));
+			}
+		}
+	}
+
+	@Test
+	void concurrentPutsAndTagEvictionsLeaveNoUntaggedKey() throws Exception {
+		ClinicCaffeineCache cache = new ClinicCaffeineCache("doctors", Caffeine.newBuilder().build(),
+				Caffeine.newBuilder().build(), new CacheTagIndex(), null);
+		String tag = CacheTags.entity("doctor-1");
+
+		race(thread -> {
+			for (int round = 0; round < ROUNDS; round++) {
+				if (thread % 2 == 0) {
+					cache.evictTag(tag);
+				} else {
+					cache.put("key-" + thread + "-" + (round % 16), Doctor.builder().id("doctor-1").build());
+				}
+			}
+		});
+
+		for (Object key : cache.getNativeCache().asMap().keySet()) {
+			assertTrue(cache.getTagIndex().keysOf(tag).contains(key), "untagged key " + key);
+		}
+		cache.evictTag(tag);
+		assertTrue(cache.getNativeCache().asMap().isEmpty());
+	}
+
+	@Test
+	void concurrentMissesOfAKeyShareOneLoad() throws Exception {
+		ClinicCaffeineCache cache = new ClinicCaffeineCache("doctors", Caffeine.newBuilder().build(),
+				Caffeine.newBuilder().build(), new CacheTagIndex(), null);
+		AtomicInteger calls = new AtomicInteger();
+		Set<Object> results = ConcurrentHashMap.newKeySet();
+
+		race(thread -> {
+			Doctor doctor = cache.get("doctor-1", () -> {
+				calls.incrementAndGet();
+				// Keeps the load in flight while the other threads miss.
+				Thread.sleep(200);
+				return Doctor.builder().id("doctor-1").build();
+			});
+			results.add(System.identityHashCode(doctor));
+		});
+
+		assertEquals(1, calls.get());
+		assertEquals(1, results.size());
+		assertEquals(1, cache.getLoads());
+		assertEquals(THREADS - 1, cache.getCoalesced());
+	}
+
+	@Test
+	void concurrentMissesOfAnAbsentKeyShareOneLoad() throws Exception {
+		ClinicCaffeineCache cache = new ClinicCaffeineCache("doctors", Caffeine.newBuilder().build(),
+				Caffeine.newBuilder().build(), new CacheTagIndex(), null);
+		AtomicInteger calls = new AtomicInteger();
+
+		race(thread -> assertNull(cache.get("doctor-1", () -> {
+			calls.incrementAndGet();
+			Thread.sleep(200);
+			return null;
+		})));
+
+		assertEquals(1, calls.get());
+		assertEquals(1, cache.getLoads());
+	}
+
+	private void race(ThreadTask task) throws Exception {
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<?>> futures = new ArrayList<>();
+
+		for (int thread = 0; thread < THREADS; thread++) {
+			int id = thread;
+
+			futures.add(executor.submit(() -> {
+				start.await();
+				task.run(id);
+				return null;
+			}));
+		}
+		start.countDown();
+		for (Future<?> future : futures) {
+			future.get();
+		}
+	}
+
+	@FunctionalInterface
+	private interface ThreadTask {
+
+		void run(int thread);
+	}
+}
@@ -0,0 +1,13 @@
+package com.example.infrastructure.cache.service;
+
+import com.example.infrastructure.cache.configuration.CacheProperties;
+
+class InMemorySharedCacheTierTest extends SharedCacheTierContractTest {
+
+	@Override
+	SharedCacheTier createTier(CacheProperties cacheProperties) {
+		InMemorySharedCacheTier tier = new InMemorySharedCacheTier();
+		tier.cacheProperties = cacheProperties;
+		return tier;
+	}
+}
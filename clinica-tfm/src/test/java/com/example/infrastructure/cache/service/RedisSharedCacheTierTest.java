@@ -0,0 +1,38 @@
+package com.example.infrastructure.cache.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import com.example.infrastructure.cache.configuration.CacheProperties;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+
+/**
+ * Runs the tier contract against the Redis of {@code localhost:6379}, so it
+ * only runs when asked for:
+ * {@code mvn test -Dtest=RedisSharedCacheTierTest -Dclinic.redis-test=true}.
+ */
+@EnabledIfSystemProperty(named = "clinic.redis-test", matches = "true")
+class RedisSharedCacheTierTest extends SharedCacheTierContractTest {
+
+	LettuceConnectionFactory connectionFactory;
+
+	@Override
+	SharedCacheTier createTier(CacheProperties cacheProperties) {
+		connectionFactory = new LettuceConnectionFactory("localhost", 6379);
+		connectionFactory.afterPropertiesSet();
+		connectionFactory.start();
+
+		RedisSharedCacheTier tier = new RedisSharedCacheTier();
+		tier.stringRedisTemplate = new StringRedisTemplate(connectionFactory);
+		tier.objectMapper = JsonMapper.builder().findAndAddModules().build();
+		tier.cacheProperties = cacheProperties;
+		return tier;
+	}
+
+	@AfterEach
+	void tearDown() {
+		connectionFactory.destroy();
+	}
+}
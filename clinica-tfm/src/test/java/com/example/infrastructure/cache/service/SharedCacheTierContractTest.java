@@ -0,0 +1,115 @@
+package com.example.infrastructure.cache.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.example.domain.model.Doctor;
+import com.example.infrastructure.cache.configuration.CacheProperties;
+import com.example.infrastructure.cache.key.ClinicCacheKey;
+import com.example.infrastructure.cache.key.ClinicCacheKey.EntityType;
+import com.example.infrastructure.cache.key.ClinicCacheKeys;
+
+/**
+ * Behavior every {@link SharedCacheTier} must have, run against each
+ * implementation by its subclass. Every test works on regions of its own, so
+ * a tier kept between runs does not interfere.
+ */
+abstract class SharedCacheTierContractTest {
+
+	private final ClinicCacheKeys clinicCacheKeys = new ClinicCacheKeys();
+
+	CacheProperties cacheProperties;
+
+	SharedCacheTier tier;
+
+	String region;
+
+	/**
+	 * Creates the tier under test.
+	 *
+	 * @param cacheProperties The settings of the regions.
+	 * @return The tier.
+	 */
+	abstract SharedCacheTier createTier(CacheProperties cacheProperties);
+
+	@BeforeEach
+	void setUp() {
+		cacheProperties = new CacheProperties();
+		region = "doctors-" + UUID.randomUUID();
+		tier = createTier(cacheProperties);
+	}
+
+	@Test
+	void aStoredValueIsReadBack() {
+		ClinicCacheKey key = key("doctor-1");
+
+		tier.put(region, key, doctor("doctor-1"), Set.of(CacheTags.entity("doctor-1")));
+
+		assertEquals(doctor("doctor-1"), tier.get(region, key));
+		assertNull(tier.get(region, key("doctor-2")));
+	}
+
+	@Test
+	void anEvictedValueIsGone() {
+		ClinicCacheKey key = key("doctor-1");
+
+		tier.put(region, key, doctor("doctor-1"), Set.of(CacheTags.entity("doctor-1")));
+		tier.evict(region, key);
+
+		assertNull(tier.get(region, key));
+	}
+
+	@Test
+	void evictingATagRemovesTheKeysCarryingItOnly() {
+		tier.put(region, key("doctor-1"), doctor("doctor-1"), Set.of("a"));
+		tier.put(region, key("doctor-2"), doctor("doctor-2"), Set.of("a", "b"));
+		tier.put(region, key("doctor-3"), doctor("doctor-3"), Set.of("b"));
+
+		tier.evictTag(region, "a");
+
+		assertNull(tier.get(region, key("doctor-1")));
+		assertNull(tier.get(region, key("doctor-2")));
+		assertEquals(doctor("doctor-3"), tier.get(region, key("doctor-3")));
+	}
+
+	@Test
+	void aTagEvictedAndTaggedAgainStillEvicts() {
+		ClinicCacheKey key = key("doctor-1");
+
+		tier.put(region, key, doctor("doctor-1"), Set.of("a"));
+		tier.evictTag(region, "a");
+		tier.put(region, key, doctor("doctor-1"), Set.of("a"));
+		assertEquals(doctor("doctor-1"), tier.get(region, key));
+
+		tier.evictTag(region, "a");
+		assertNull(tier.get(region, key));
+	}
+
+	@Test
+	void valuesExpireWithTheirRegion() throws InterruptedException {
+		CacheProperties.Region settings = new CacheProperties.Region();
+		settings.setExpireAfterWrite(Duration.ofMillis(200));
+		cacheProperties.getRegions().put(region, settings);
+		ClinicCacheKey key = key("doctor-1");
+
+		tier.put(region, key, doctor("doctor-1"), Set.of("a"));
+		Thread.sleep(500);
+
+		assertNull(tier.get(region, key));
+	}
+
+	private ClinicCacheKey key(String id) {
+		return clinicCacheKeys.byId(EntityType.DOCTOR, id);
+	}
+
+	private Doctor doctor(String id) {
+		return Doctor.builder().id(id).licenseNum("license-" + id).build();
+	}
+}
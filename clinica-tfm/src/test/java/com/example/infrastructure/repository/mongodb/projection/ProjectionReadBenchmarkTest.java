@@ -0,0 +1,136 @@
+package com.example.infrastructure.repository.mongodb.projection;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.DocumentCodec;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentProperty;
+
+import com.example.domain.model.IdDocument;
+import com.example.infrastructure.repository.mongodb.entity.DoctorEntity;
+import com.example.infrastructure.repository.mongodb.entity.PersonalInformationEntity;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Compares reading a page of doctors as whole entities against reading it
+ * through {@link DoctorView}: the bytes of the documents sent by the server, and
+ * the bytes allocated to convert them. The documents are converted as the
+ * repositories do, without a server.
+ */
+@Slf4j
+class ProjectionReadBenchmarkTest {
+
+	private static final int PAGE_SIZE = 50;
+
+	private static final int APPOINTMENTS = 500;
+
+	private static final int ROUNDS = 200;
+
+	MappingMongoConverter converter;
+
+	List<Document> documents;
+
+	List<Document> projected;
+
+	@BeforeEach
+	void setUp() {
+		MongoCustomConversions conversions = new MongoCustomConversions(List.of());
+		MongoMappingContext mappingContext = new MongoMappingContext();
+		mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+		converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+		converter.setCustomConversions(conversions);
+		converter.afterPropertiesSet();
+
+		// The fields a projection on the view asks for.
+		List<String> fields = new ArrayList<>();
+		MongoPersistentEntity<?> view = mappingContext.getRequiredPersistentEntity(DoctorView.class);
+		for (MongoPersistentProperty property : view) {
+			fields.add(property.getFieldName());
+		}
+
+		documents = new ArrayList<>();
+		projected = new ArrayList<>();
+		for (int i = 0; i < PAGE_SIZE; i++) {
+			Document document = new Document();
+			converter.write(doctor(i), document);
+			documents.add(document);
+
+			Document fieldsOnly = new Document();
+			for (String field : fields) {
+				if (document.containsKey(field)) {
+					fieldsOnly.put(field, document.get(field));
+				}
+			}
+			projected.add(fieldsOnly);
+		}
+	}
+
+	@Test
+	void projectionReadsAndAllocatesLess() {
+		long entityBytes = bsonSize(documents);
+		long viewBytes = bsonSize(projected);
+
+		long entityAllocation = allocation(document -> converter.read(DoctorEntity.class, document), documents);
+		long viewAllocation = allocation(document -> converter.read(DoctorView.class, document), projected);
+
+		log.info("Page of " + PAGE_SIZE + " doctors with " + APPOINTMENTS + " appointment ids each: " + entityBytes
+				+ " bytes read and " + entityAllocation + " allocated as entities, " + viewBytes + " bytes read and "
+				+ viewAllocation + " allocated as views");
+
+		assertTrue(viewBytes * 10 < entityBytes);
+		assertTrue(viewAllocation < entityAllocation);
+	}
+
+	private DoctorEntity doctor(int i) {
+		List<String> appointments = new ArrayList<>();
+		for (int j = 0; j < APPOINTMENTS; j++) {
+			appointments.add(UUID.randomUUID().toString());
+		}
+
+		return DoctorEntity.builder().id(UUID.randomUUID().toString()).licenseNum("LIC-" + i)
+				.mirDate(LocalDate.of(2010, 1, 1))
+				.personalInformationEntity(PersonalInformationEntity.builder().name("Name " + i).surname("Surname " + i)
+						.idDocument(IdDocument.DNI).document(String.format("%08dA", i)).build())
+				.specializations(List.of("Cardiology")).idDoctorAppointments(appointments).build();
+	}
+
+	private long bsonSize(List<Document> page) {
+		long size = 0;
+		for (Document document : page) {
+			size += new RawBsonDocument(document, new DocumentCodec()).getByteBuffer().remaining();
+		}
+		return size;
+	}
+
+	private long allocation(Function<Document, ?> read, List<Document> page) {
+		com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory
+				.getThreadMXBean();
+
+		// Warming up, so that the class loading and compilation are not measured.
+		for (int i = 0; i < ROUNDS; i++) {
+			page.forEach(read::apply);
+		}
+
+		long before = threads.getCurrentThreadAllocatedBytes();
+		for (int i = 0; i < ROUNDS; i++) {
+			page.forEach(read::apply);
+		}
+		return (threads.getCurrentThreadAllocatedBytes() - before) / ROUNDS;
+	}
+}
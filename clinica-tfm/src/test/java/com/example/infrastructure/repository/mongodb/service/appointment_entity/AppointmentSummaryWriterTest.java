@@ -0,0 +1,88 @@
+package com.example.infrastructure.repository.mongodb.service.appointment_entity;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import com.example.infrastructure.cache.key.ClinicCacheKey.Operation;
+import com.example.infrastructure.cache.service.ClinicCacheEvictor;
+import com.example.infrastructure.repository.mongodb.entity.AppointmentEntity;
+import com.example.infrastructure.repository.mongodb.entity.DoctorEntity;
+import com.example.infrastructure.repository.mongodb.entity.PatientEntity;
+import com.example.infrastructure.repository.mongodb.entity.PersonalInformationEntity;
+import com.mongodb.client.result.UpdateResult;
+
+/**
+ * Checks the updates of the summaries held by the appointments: a replaced
+ * doctor or patient sets every field, a patch only the fields it holds.
+ */
+@ExtendWith(MockitoExtension.class)
+class AppointmentSummaryWriterTest {
+
+	@Mock
+	MongoTemplate mongoTemplate;
+
+	@Mock
+	ClinicCacheEvictor clinicCacheEvictor;
+
+	@InjectMocks
+	AppointmentSummaryWriter appointmentSummaryWriter;
+
+	@Test
+	void replacedDoctorSetsEverySummaryField() {
+		when(mongoTemplate.updateMulti(any(Query.class), any(Update.class), eq(AppointmentEntity.class)))
+				.thenReturn(UpdateResult.acknowledged(2, 2L, null));
+
+		appointmentSummaryWriter.doctorModified(DoctorEntity.builder().id("doctor-1").personalInformationEntity(
+				PersonalInformationEntity.builder().name("Ana").document("doc-1").build()).build(), false);
+
+		Document set = captureSet();
+		assertEquals("Ana", set.get("doctor.personalInformation.name"));
+		assertEquals("doc-1", set.get("doctor.personalInformation.document"));
+		assertTrue(set.containsKey("doctor.personalInformation.surname"));
+		assertTrue(set.containsKey("doctor.specializations"));
+		verify(clinicCacheEvictor).appointmentPartyModified("doctor-1", Operation.PAGE_BY_DOCTOR_DOCUMENT, "doc-1");
+	}
+
+	@Test
+	void patchedPatientSetsOnlyThePresentFields() {
+		when(mongoTemplate.updateMulti(any(Query.class), any(Update.class), eq(AppointmentEntity.class)))
+				.thenReturn(UpdateResult.acknowledged(0, 0L, null));
+
+		appointmentSummaryWriter.patientModified(PatientEntity.builder().id("patient-1")
+				.personalInformationEntity(PersonalInformationEntity.builder().surname("Ruiz").build()).build(), true);
+
+		assertEquals(List.of("patient.personalInformation.surname"), List.copyOf(captureSet().keySet()));
+		verifyNoInteractions(clinicCacheEvictor);
+	}
+
+	@Test
+	void patchWithoutSummaryFieldsWritesNothing() {
+		appointmentSummaryWriter.patientModified(PatientEntity.builder().id("patient-1").height(1.8).build(), true);
+
+		verifyNoInteractions(mongoTemplate, clinicCacheEvictor);
+	}
+
+	private Document captureSet() {
+		ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+		verify(mongoTemplate).updateMulti(any(Query.class), update.capture(), eq(AppointmentEntity.class));
+		return update.getValue().getUpdateObject().get("$set", Document.class);
+	}
+}
@@ -0,0 +1,129 @@
+package com.example.infrastructure.repository.mongodb.service.appointment_entity;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import com.example.application.util.BatchItemResult;
+import com.example.application.util.ClinicLogicException;
+import com.example.application.util.Errors;
+import com.example.domain.model.Appointment;
+import com.example.domain.model.Doctor;
+import com.example.domain.model.Patient;
+import com.example.infrastructure.cache.service.ClinicCacheEvictor;
+import com.example.infrastructure.repository.mongodb.entity.AppointmentEntity;
+import com.example.infrastructure.repository.mongodb.entity.AppointmentLinkEntity;
+import com.example.infrastructure.repository.mongodb.mapper.AppointmentToAppointmentEntityMapper;
+import com.example.infrastructure.repository.mongodb.service.ClinicBulkWriter;
+import com.example.infrastructure.repository.mongodb.service.appointment_link_entity.AppointmentLinkRepository;
+
+/**
+ * Checks that an appointment is never reported as created while left without
+ * its link: those are deleted again and reported as failed.
+ */
+@ExtendWith(MockitoExtension.class)
+class AppointmentsRepositoryServiceTest {
+
+	@Mock
+	AppointmentRepository appointmentRepository;
+
+	@Mock
+	AppointmentLinkRepository appointmentLinkRepository;
+
+	@Mock
+	AppointmentToAppointmentEntityMapper appointmentToAppointmentEntityMapper;
+
+	@Mock
+	ClinicBulkWriter clinicBulkWriter;
+
+	@Mock
+	ClinicCacheEvictor clinicCacheEvictor;
+
+	@InjectMocks
+	AppointmentsRepositoryService appointmentsRepositoryService;
+
+	@Test
+	void appointmentsWhoseLinkFailsAreDeletedAndReportedAsFailed() {
+		List<AppointmentEntity> entities = List.of(new AppointmentEntity(), new AppointmentEntity(),
+				new AppointmentEntity());
+		when(appointmentToAppointmentEntityMapper.fromInputToOutput(anyList())).thenReturn(entities);
+		when(clinicBulkWriter.insert(eq(AppointmentEntity.class), anyList())).thenReturn(Map.of());
+		when(clinicBulkWriter.insert(eq(AppointmentLinkEntity.class), anyList()))
+				.thenReturn(Map.of(1, "Write error"));
+
+		List<BatchItemResult> results = appointmentsRepositoryService
+				.postAppointments(List.of(booking(), booking(), booking()));
+
+		assertEquals(entities.get(0).getAppointmentId(), results.get(0).getId());
+		assertNull(results.get(1).getId());
+		assertEquals(Errors.APPOINTMENT_NOT_LINKED, results.get(1).getError());
+		assertEquals(entities.get(2).getAppointmentId(), results.get(2).getId());
+		verify(appointmentRepository).deleteAllById(List.of(entities.get(1).getAppointmentId()));
+	}
+
+	@Test
+	void aFailedLinkInsertDeletesTheWholeBatch() {
+		List<AppointmentEntity> entities = List.of(new AppointmentEntity(), new AppointmentEntity());
+		when(appointmentToAppointmentEntityMapper.fromInputToOutput(anyList())).thenReturn(entities);
+		when(clinicBulkWriter.insert(eq(AppointmentEntity.class), anyList())).thenReturn(Map.of());
+		when(clinicBulkWriter.insert(eq(AppointmentLinkEntity.class), anyList()))
+				.thenThrow(new DataAccessResourceFailureException("Connection lost"));
+
+		List<BatchItemResult> results = appointmentsRepositoryService.postAppointments(List.of(booking(), booking()));
+
+		assertEquals(Errors.APPOINTMENT_NOT_LINKED, results.get(0).getError());
+		assertEquals(Errors.APPOINTMENT_NOT_LINKED, results.get(1).getError());
+		verify(appointmentRepository).deleteAllById(
+				List.of(entities.get(0).getAppointmentId(), entities.get(1).getAppointmentId()));
+	}
+
+	@Test
+	void linkedAppointmentsAreNotDeleted() {
+		when(appointmentToAppointmentEntityMapper.fromInputToOutput(anyList()))
+				.thenReturn(List.of(new AppointmentEntity()));
+		when(clinicBulkWriter.insert(any(), anyList())).thenReturn(Map.of());
+
+		List<BatchItemResult> results = appointmentsRepositoryService.postAppointments(List.of(booking()));
+
+		assertTrue(results.get(0).isCreated());
+		verify(appointmentRepository, never()).deleteAllById(any());
+	}
+
+	@Test
+	void anAppointmentWhoseLinkFailsIsDeletedAndRejected() {
+		AppointmentEntity entity = AppointmentEntity.builder().appointmentId("appointment-1").build();
+		when(appointmentToAppointmentEntityMapper.fromInputToOutput(any(Appointment.class))).thenReturn(entity);
+		when(appointmentRepository.save(entity)).thenReturn(entity);
+		when(appointmentLinkRepository.save(any()))
+				.thenThrow(new DataAccessResourceFailureException("Connection lost"));
+
+		ClinicLogicException ex = assertThrows(ClinicLogicException.class,
+				() -> appointmentsRepositoryService.postAppointment(booking()));
+
+		assertEquals(Errors.APPOINTMENT_NOT_LINKED, ex.getMessage());
+		verify(appointmentRepository).deleteById("appointment-1");
+		verify(clinicCacheEvictor, never()).appointmentChanged(any(), any(), any());
+	}
+
+	private Appointment booking() {
+		return Appointment.builder().doctor(Doctor.builder().id("doctor-1").build())
+				.patient(Patient.builder().id("patient-1").build()).diagnostic("Checkup").build();
+	}
+}